@@ -0,0 +1,98 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.BusinessDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves a batch of date times by the same number of hours, one {@link BusinessDateTime} at a
+ * time, one primitive move at a time and with the batch API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchMoveBenchmark {
+
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
+
+  @Param({"1000", "100000"})
+  public int batchSize;
+
+  @Param({"10", "250"})
+  public int holidayCount;
+
+  private BusinessCalendar calendar;
+  private long[] starts;
+  private long[] results;
+  private ZonedDateTime[] dateTimes;
+
+  @Setup
+  public void setUp() {
+    calendar = new BusinessCalendar(Fixtures.holidays(holidayCount));
+    starts = new long[batchSize];
+    results = new long[batchSize];
+    dateTimes = new ZonedDateTime[batchSize];
+    Random random = new Random(42);
+    long day = LocalDate.of(2014, 1, 1).toEpochDay();
+    for (int i = 0; i < batchSize; i++) {
+      // tickets arrive in time order, a few hundred per day
+      long nanosOfDay = random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE;
+      starts[i] = LocalEpochNanos.of(day + i / 300, nanosOfDay);
+      dateTimes[i] = LocalDate.ofEpochDay(day + i / 300)
+          .atStartOfDay(ZoneOffset.UTC)
+          .plusNanos(nanosOfDay);
+    }
+  }
+
+  @Benchmark
+  public void businessDateTime(Blackhole blackhole) {
+    for (ZonedDateTime dateTime : dateTimes) {
+      blackhole.consume(new BusinessDateTime(dateTime, calendar).plusHours(20));
+    }
+  }
+
+  @Benchmark
+  public long[] scalarMove() {
+    for (int i = 0; i < starts.length; i++) {
+      results[i] = CALCULATOR.move(LocalEpochNanos.toEpochDay(starts[i]),
+                                   LocalEpochNanos.toNanosOfDay(starts[i]),
+                                   20,
+                                   Constants.NANOS_PER_HOUR,
+                                   calendar.getDayStartNanosOfDay(),
+                                   calendar.getDayEndNanosOfDay(),
+                                   calendar.getDayCalculator());
+    }
+    return results;
+  }
+
+  @Benchmark
+  public long[] batchMove() {
+    CALCULATOR.moveAll(starts,
+                       20,
+                       Constants.NANOS_PER_HOUR,
+                       calendar.getDayStartNanosOfDay(),
+                       calendar.getDayEndNanosOfDay(),
+                       calendar.getDayCalculator(),
+                       results);
+    return results;
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculatorResult;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.BusinessDateTime;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+import net.objectlab.kit.datecalc.jdk8.LocalDateKitCalculatorsFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a fresh {@link DateCalculator} on every move, as {@code BusinessDateTime}
+ * used to, with reusing the per thread calculator of a {@link BusinessCalendar} and with the
+ * closed form engine used by {@link BusinessDateTime} today.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DateCalculatorBenchmark {
+
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
+
+  @Param({"0", "10", "250"})
+  public int holidayCount;
+
+  @Param({"3", "400"})
+  public int hoursToMove;
+
+  private BusinessCalendar calendar;
+  private BusinessDateTime dateTime;
+  private LocalDate startDate;
+  private long startNanosOfDay;
+
+  @Setup
+  public void setUp() {
+    calendar = new BusinessCalendar(Fixtures.holidays(holidayCount));
+    ZonedDateTime start = ZonedDateTime.of(2014, 6, 11, 14, 30, 0, 0, ZoneId.of("UTC"));
+    dateTime = new BusinessDateTime(start, calendar);
+    startDate = start.toLocalDate();
+    startNanosOfDay = start.toLocalTime().toNanoOfDay();
+  }
+
+  @Benchmark
+  public BusinessDateTimeCalculatorResult<LocalDate> factoryPerCall() {
+    DateCalculator<LocalDate> calc = new LocalDateKitCalculatorsFactory()
+        .registerHolidays(Constants.HOLIDAY_KEY,
+                          new DefaultHolidayCalendar<>(calendar.getHolidays()))
+        .getDateCalculator(Constants.HOLIDAY_KEY, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK)
+        .setWorkingWeek(calendar.getWorkingWeek());
+    return move(calc);
+  }
+
+  @Benchmark
+  public BusinessDateTimeCalculatorResult<LocalDate> cachedCalculator() {
+    return move(calendar.getDateCalculator());
+  }
+
+  @Benchmark
+  public BusinessDateTime closedForm() {
+    return dateTime.plusHours(hoursToMove);
+  }
+
+  private BusinessDateTimeCalculatorResult<LocalDate> move(DateCalculator<LocalDate> calc) {
+    return CALCULATOR.move(startDate,
+                           startNanosOfDay,
+                           hoursToMove,
+                           Constants.NANOS_PER_HOUR,
+                           calendar.getDayStartTime().toNanoOfDay(),
+                           calendar.getDayEndTime().toNanoOfDay(),
+                           calc);
+  }
+}
@@ -0,0 +1,60 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Shared set up for benchmarks.
+ */
+final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  /**
+   * Returns {@code count} holidays three days apart starting 2014-01-01, so that a benchmark
+   * moving around 2014 crosses a share of them proportional to {@code count}.
+   */
+  static Set<LocalDate> holidays(int count) {
+    Set<LocalDate> holidays = new HashSet<>();
+    LocalDate holiday = LocalDate.of(2014, 1, 1);
+    for (int i = 0; i < count; i++) {
+      holidays.add(holiday);
+      holiday = holiday.plusDays(3);
+    }
+    return holidays;
+  }
+
+  /**
+   * Same as {@link #holidays(int)} as Joda dates.
+   */
+  static Set<org.joda.time.LocalDate> jodaHolidays(int count) {
+    Set<org.joda.time.LocalDate> holidays = new HashSet<>();
+    for (LocalDate holiday : holidays(count)) {
+      holidays.add(new org.joda.time.LocalDate(holiday.getYear(),
+                                               holiday.getMonthValue(),
+                                               holiday.getDayOfMonth()));
+    }
+    return holidays;
+  }
+
+  /**
+   * Serializes and deserializes {@code object}.
+   */
+  static Object roundTrip(Object object) throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    }
+    try (ObjectInputStream in =
+             new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return in.readObject();
+    }
+  }
+}
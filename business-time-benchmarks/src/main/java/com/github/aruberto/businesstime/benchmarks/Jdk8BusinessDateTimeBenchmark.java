@@ -0,0 +1,109 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.BusinessDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Core operations of the jdk8 {@link BusinessDateTime}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Jdk8BusinessDateTimeBenchmark {
+
+  @Param({"0", "10", "250"})
+  public int holidayCount;
+
+  @Param
+  public WeekShape week;
+
+  private ZonedDateTime start;
+  private BusinessCalendar calendar;
+  private BusinessDateTime dateTime;
+  private BusinessDateTime otherDateTime;
+
+  @Setup
+  public void setUp() {
+    start = ZonedDateTime.of(2014, 6, 14, 11, 0, 0, 0, ZoneId.of("UTC"));
+    calendar = new BusinessCalendar(null, null, Fixtures.holidays(holidayCount),
+                                    week.getWorkingWeek());
+    dateTime = new BusinessDateTime(start, calendar);
+    otherDateTime = new BusinessDateTime(start.plusHours(1), calendar);
+    dateTime.toZonedDateTime();
+    otherDateTime.toZonedDateTime();
+  }
+
+  @Benchmark
+  public BusinessDateTime construct() {
+    return new BusinessDateTime(start, calendar);
+  }
+
+  @Benchmark
+  public BusinessDateTime constructWithNewCalendar() {
+    return new BusinessDateTime(start, null, null, calendar.getHolidays(),
+                                calendar.getWorkingWeek());
+  }
+
+  @Benchmark
+  public BusinessDateTime plusNanosShort() {
+    return dateTime.plusNanos(1000);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusHoursShort() {
+    return dateTime.plusHours(3);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusHoursLong() {
+    return dateTime.plusHours(2000);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusDaysShort() {
+    return dateTime.plusDays(2);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusDaysLong() {
+    return dateTime.plusDays(250);
+  }
+
+  @Benchmark
+  public ZonedDateTime toZonedDateTimeCached() {
+    return dateTime.toZonedDateTime();
+  }
+
+  @Benchmark
+  public ZonedDateTime toZonedDateTimeFresh() {
+    return new BusinessDateTime(start, calendar).toZonedDateTime();
+  }
+
+  @Benchmark
+  public boolean equalsCached() {
+    return dateTime.equals(otherDateTime);
+  }
+
+  @Benchmark
+  public int hashCodeCached() {
+    return dateTime.hashCode();
+  }
+
+  @Benchmark
+  public Object serializationRoundTrip() throws Exception {
+    return Fixtures.roundTrip(dateTime);
+  }
+}
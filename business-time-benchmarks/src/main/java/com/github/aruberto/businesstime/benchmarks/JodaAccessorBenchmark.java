@@ -0,0 +1,76 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.joda.BusinessDateTime;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common {@code ReadableInstant} accessor patterns on the Joda {@link BusinessDateTime},
+ * with the same patterns on a plain {@link DateTime} as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JodaAccessorBenchmark {
+
+  private DateTime start;
+  private DateTime plain;
+  private BusinessDateTime business;
+  private BusinessDateTime other;
+
+  @Setup
+  public void setUp() {
+    start = new DateTime(2014, 12, 13, 11, 0, 0, 0, DateTimeZone.UTC);
+    plain = new DateTime(2014, 12, 15, 9, 0, 0, 0, DateTimeZone.UTC);
+    business = new BusinessDateTime(start);
+    other = new BusinessDateTime(start.plusDays(1));
+  }
+
+  @Benchmark
+  public int fieldsPlain() {
+    return fields(plain.getYear(), plain.getMonthOfYear(), plain.getDayOfMonth(),
+                  plain.getHourOfDay(), plain.getMinuteOfHour());
+  }
+
+  @Benchmark
+  public int fieldsCached() {
+    return fields(business.getYear(), business.getMonthOfYear(), business.getDayOfMonth(),
+                  business.getHourOfDay(), business.getMinuteOfHour());
+  }
+
+  @Benchmark
+  public int fieldsFreshInstance() {
+    BusinessDateTime fresh = new BusinessDateTime(start, business.getCalendar());
+    return fields(fresh.getYear(), fresh.getMonthOfYear(), fresh.getDayOfMonth(),
+                  fresh.getHourOfDay(), fresh.getMinuteOfHour());
+  }
+
+  @Benchmark
+  public String toStringCached() {
+    return business.toString();
+  }
+
+  @Benchmark
+  public int compareToCached() {
+    return business.compareTo(other);
+  }
+
+  @Benchmark
+  public boolean isBeforeCached() {
+    return business.isBefore(other);
+  }
+
+  private static int fields(int year, int month, int day, int hour, int minute) {
+    return year + month + day + hour + minute;
+  }
+}
@@ -0,0 +1,109 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.joda.BusinessCalendar;
+import com.github.aruberto.businesstime.joda.BusinessDateTime;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Core operations of the Joda {@link BusinessDateTime}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JodaBusinessDateTimeBenchmark {
+
+  @Param({"0", "10", "250"})
+  public int holidayCount;
+
+  @Param
+  public WeekShape week;
+
+  private DateTime start;
+  private BusinessCalendar calendar;
+  private BusinessDateTime dateTime;
+  private BusinessDateTime otherDateTime;
+
+  @Setup
+  public void setUp() {
+    start = new DateTime(2014, 6, 14, 11, 0, 0, 0, DateTimeZone.UTC);
+    calendar = new BusinessCalendar(null, null, Fixtures.jodaHolidays(holidayCount),
+                                    week.getWorkingWeek());
+    dateTime = new BusinessDateTime(start, calendar);
+    otherDateTime = new BusinessDateTime(start.plusHours(1), calendar);
+    dateTime.getMillis();
+    otherDateTime.getMillis();
+  }
+
+  @Benchmark
+  public BusinessDateTime construct() {
+    return new BusinessDateTime(start, calendar);
+  }
+
+  @Benchmark
+  public BusinessDateTime constructWithNewCalendar() {
+    return new BusinessDateTime(start, null, null, calendar.getHolidays(),
+                                calendar.getWorkingWeek());
+  }
+
+  @Benchmark
+  public BusinessDateTime plusMillisShort() {
+    return dateTime.plusMillis(1);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusHoursShort() {
+    return dateTime.plusHours(3);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusHoursLong() {
+    return dateTime.plusHours(2000);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusDaysShort() {
+    return dateTime.plusDays(2);
+  }
+
+  @Benchmark
+  public BusinessDateTime plusDaysLong() {
+    return dateTime.plusDays(250);
+  }
+
+  @Benchmark
+  public long getMillisCached() {
+    return dateTime.getMillis();
+  }
+
+  @Benchmark
+  public long getMillisFresh() {
+    return new BusinessDateTime(start, calendar).getMillis();
+  }
+
+  @Benchmark
+  public boolean equalsCached() {
+    return dateTime.equals(otherDateTime);
+  }
+
+  @Benchmark
+  public int hashCodeCached() {
+    return dateTime.hashCode();
+  }
+
+  @Benchmark
+  public Object serializationRoundTrip() throws Exception {
+    return Fixtures.roundTrip(dateTime);
+  }
+}
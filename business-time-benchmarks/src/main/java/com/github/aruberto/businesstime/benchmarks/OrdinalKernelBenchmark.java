@@ -0,0 +1,132 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
+import com.github.aruberto.businesstime.common.BusinessDayCalculator;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.common.OrdinalKernel;
+import com.github.aruberto.businesstime.common.OrdinalKernels;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalizes a batch of date times to business ordinals and moves them, one element at a time
+ * and with the bulk ordinal kernels.
+ * <p>
+ * Date times are shuffled over a few years and all hours of the day, so a branch per element on
+ * whether the day or time is in business hours is close to a coin flip.
+ * <p>
+ * The bulk benchmarks run once per {@link OrdinalKernel}. The vector kernel needs JDK 16 or
+ * later, where the build adds business-time-vector and {@code --add-modules
+ * jdk.incubator.vector}; elsewhere exclude it with {@code -p kernel=scalar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrdinalKernelBenchmark {
+
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
+
+  @Param({"1000", "100000"})
+  public int batchSize;
+
+  @Param({"10", "250"})
+  public int holidayCount;
+
+  @Param({"scalar", "vector"})
+  public String kernel;
+
+  private long dayStart;
+  private long dayEnd;
+  private BusinessDayCalculator days;
+  private OrdinalKernel ordinalKernel;
+  private long[] dateTimes;
+  private long[] ordinals;
+  private long[] results;
+
+  @Setup
+  public void setUp() {
+    BusinessCalendar calendar = new BusinessCalendar(Fixtures.holidays(holidayCount));
+    dayStart = calendar.getDayStartNanosOfDay();
+    dayEnd = calendar.getDayEndNanosOfDay();
+    days = calendar.getDayCalculator();
+    ordinalKernel = "vector".equals(kernel) ? OrdinalKernels.vector() : OrdinalKernels.scalar();
+    if (ordinalKernel == null) {
+      throw new IllegalStateException(
+          "vector kernel unavailable, run on JDK 16+ with --add-modules jdk.incubator.vector");
+    }
+    dateTimes = new long[batchSize];
+    ordinals = new long[batchSize];
+    results = new long[batchSize];
+    Random random = new Random(42);
+    long day = LocalDate.of(2014, 1, 1).toEpochDay();
+    for (int i = 0; i < batchSize; i++) {
+      dateTimes[i] = LocalEpochNanos.of(day + random.nextInt(3 * 365),
+                                        random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+    }
+  }
+
+  @Benchmark
+  public long[] scalarToOrdinal() {
+    for (int i = 0; i < dateTimes.length; i++) {
+      ordinals[i] = CALCULATOR.toOrdinal(LocalEpochNanos.toEpochDay(dateTimes[i]),
+                                         LocalEpochNanos.toNanosOfDay(dateTimes[i]),
+                                         dayStart,
+                                         dayEnd,
+                                         days);
+    }
+    return ordinals;
+  }
+
+  @Benchmark
+  public long[] bulkToOrdinal() {
+    ordinalKernel.toOrdinals(days, dateTimes, 0, dateTimes.length, dayStart, dayEnd, ordinals);
+    return ordinals;
+  }
+
+  @Benchmark
+  public long[] scalarOrdinalMove() {
+    for (int i = 0; i < dateTimes.length; i++) {
+      long ordinal = CALCULATOR.toOrdinal(LocalEpochNanos.toEpochDay(dateTimes[i]),
+                                          LocalEpochNanos.toNanosOfDay(dateTimes[i]),
+                                          dayStart,
+                                          dayEnd,
+                                          days);
+      results[i] = CALCULATOR.fromOrdinal(ordinal + 20 * Constants.NANOS_PER_HOUR,
+                                          dayStart,
+                                          dayEnd,
+                                          days,
+                                          true);
+    }
+    return results;
+  }
+
+  @Benchmark
+  public long[] batchMove() {
+    CALCULATOR.moveAll(dateTimes, 20, Constants.NANOS_PER_HOUR, dayStart, dayEnd, days, results);
+    return results;
+  }
+
+  @Benchmark
+  public long[] bulkOrdinalMove() {
+    ordinalKernel.toOrdinals(days, dateTimes, 0, dateTimes.length, dayStart, dayEnd, ordinals);
+    for (int i = 0; i < ordinals.length; i++) {
+      ordinals[i] += 20 * Constants.NANOS_PER_HOUR;
+    }
+    ordinalKernel.fromOrdinals(days, ordinals, 0, ordinals.length, dayStart, dayEnd, true, results);
+    return results;
+  }
+}
@@ -0,0 +1,71 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.ParallelMover;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling curve of {@link ParallelMover} over pool parallelism for a large batch.
+ * <p>
+ * The scaling has not been verified. The runs so far were on a single core, where only the
+ * parallelism of 1 is meaningful, at about 60 ms per batch of 4 million. Run it on a machine
+ * with at least as many cores as the highest parallelism before relying on the curve.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelMoveBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  public int parallelism;
+
+  @Param({"4000000"})
+  public int batchSize;
+
+  private ForkJoinPool pool;
+  private BusinessCalendar calendar;
+  private long[] starts;
+  private long[] results;
+
+  @Setup
+  public void setUp() {
+    pool = new ForkJoinPool(parallelism);
+    calendar = new BusinessCalendar(Fixtures.holidays(250));
+    starts = new long[batchSize];
+    results = new long[batchSize];
+    Random random = new Random(42);
+    long day = LocalDate.of(2014, 1, 1).toEpochDay();
+    for (int i = 0; i < batchSize; i++) {
+      starts[i] = LocalEpochNanos.of(day + i / 5000,
+                                     random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public long[] moveAll() {
+    ParallelMover.moveAll(pool, starts, 20, ChronoUnit.HOURS, calendar, results);
+    return results;
+  }
+}
@@ -0,0 +1,76 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.SessionTable;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.BusinessDateTime;
+import com.github.aruberto.businesstime.jdk8.SessionTables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves a batch of instants, given as nanos since the epoch, by the same number of hours in a
+ * zone with daylight saving time, one {@link BusinessDateTime} at a time and over a
+ * {@link SessionTable} compiled once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionTableBenchmark {
+
+  private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+  @Param({"1000", "100000"})
+  public int batchSize;
+
+  @Param({"10", "250"})
+  public int holidayCount;
+
+  private BusinessCalendar calendar;
+  private SessionTable table;
+  private long[] starts;
+  private long[] results;
+
+  @Setup
+  public void setUp() {
+    calendar = new BusinessCalendar(Fixtures.holidays(holidayCount));
+    table = SessionTables.of(calendar, ZONE, LocalDate.of(2014, 1, 1), LocalDate.of(2016, 1, 1));
+    starts = new long[batchSize];
+    results = new long[batchSize];
+    Random random = new Random(42);
+    long start = LocalDate.of(2014, 1, 1).atStartOfDay(ZONE).toEpochSecond();
+    for (int i = 0; i < batchSize; i++) {
+      // timestamps arrive in time order, a few hundred per day
+      long seconds = start + i / 300 * 86400 + random.nextInt(24 * 60) * 60;
+      starts[i] = seconds * Constants.NANOS_PER_SECOND;
+    }
+  }
+
+  @Benchmark
+  public void businessDateTime(Blackhole blackhole) {
+    for (long start : starts) {
+      Instant instant = Instant.ofEpochSecond(start / Constants.NANOS_PER_SECOND);
+      blackhole.consume(new BusinessDateTime(instant.atZone(ZONE), calendar).plusHours(20));
+    }
+  }
+
+  @Benchmark
+  public long[] sessionTable() {
+    table.moveAll(starts, 20 * Constants.NANOS_PER_HOUR, results);
+    return results;
+  }
+}
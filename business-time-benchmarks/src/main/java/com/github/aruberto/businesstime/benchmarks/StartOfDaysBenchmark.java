@@ -0,0 +1,82 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.jdk8.BusinessCalendar;
+import com.github.aruberto.businesstime.jdk8.BusinessDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a batch of business ordinals back into date times, resolving the start of each day in
+ * the zone rules as before the start of day cache, and through the cache of the calendar as
+ * {@link BusinessDateTime#ofBusinessNanos(long, ZoneId, BusinessCalendar)} does. Both find the
+ * date time of each ordinal and wrap the result the same way, so the difference is the
+ * conversion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StartOfDaysBenchmark {
+
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"UTC", "America/New_York"})
+  public String zoneId;
+
+  private ZoneId zone;
+  private BusinessCalendar calendar;
+  private long[] ordinals;
+
+  @Setup
+  public void setUp() {
+    zone = ZoneId.of(zoneId);
+    calendar = new BusinessCalendar(Fixtures.holidays(10));
+    ordinals = new long[BATCH_SIZE];
+    Random random = new Random(42);
+    // 500 business days from early 2012, warm up fills the cache of those years
+    long first = 11_000 * 8 * Constants.NANOS_PER_HOUR;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      ordinals[i] = first + (long) (random.nextDouble() * 500 * 8 * Constants.NANOS_PER_HOUR);
+    }
+  }
+
+  @Benchmark
+  public void resolveEachTime(Blackhole blackhole) {
+    for (long ordinal : ordinals) {
+      long result = CALCULATOR.fromOrdinal(ordinal,
+                                           calendar.getDayStartNanosOfDay(),
+                                           calendar.getDayEndNanosOfDay(),
+                                           calendar.getDayCalculator(),
+                                           false);
+      blackhole.consume(new BusinessDateTime(
+          LocalDate.ofEpochDay(LocalEpochNanos.toEpochDay(result))
+              .atStartOfDay(zone)
+              .plusNanos(LocalEpochNanos.toNanosOfDay(result)),
+          calendar));
+    }
+  }
+
+  @Benchmark
+  public void resolveThroughCache(Blackhole blackhole) {
+    for (long ordinal : ordinals) {
+      blackhole.consume(BusinessDateTime.ofBusinessNanos(ordinal, zone, calendar));
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.github.aruberto.businesstime.benchmarks;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import java.util.Calendar;
+
+/**
+ * Working week shapes benchmarks are parameterized by.
+ */
+public enum WeekShape {
+
+  MONDAY_TO_FRIDAY(WorkingWeek.DEFAULT),
+  SUNDAY_TO_THURSDAY(WorkingWeek.ARABIC_WEEK),
+  MONDAY_TO_SATURDAY(WorkingWeek.DEFAULT.withWorkingDayFromCalendar(true, Calendar.SATURDAY));
+
+  private final WorkingWeek workingWeek;
+
+  WeekShape(WorkingWeek workingWeek) {
+    this.workingWeek = workingWeek;
+  }
+
+  public WorkingWeek getWorkingWeek() {
+    return workingWeek;
+  }
+}
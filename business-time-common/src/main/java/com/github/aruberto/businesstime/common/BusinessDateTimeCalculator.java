@@ -2,13 +2,21 @@ package com.github.aruberto.businesstime.common;
 
 import net.objectlab.kit.datecalc.common.DateCalculator;
 
+import java.nio.LongBuffer;
+
 /**
  * Common date calculation methods
+ * <p>
+ * Methods taking a {@link BusinessDayCalculator} and epoch days work purely on primitives and
+ * return their result packed as {@link LocalEpochNanos}, so they make no heap allocations.
+ * Instances hold no state and may be shared between threads.
  *
  * @param <E> the type of date object
  */
 public class BusinessDateTimeCalculator<E> {
 
+  private static final int BUFFER_CHUNK = 1024;
+
   /**
    * Use {@code calc} to move {@code startDate} at time {@code startTimeMillisOfDay} by
    * {@code unitsToMove} units.
@@ -73,6 +81,712 @@ public class BusinessDateTimeCalculator<E> {
                               calc);
   }
 
+  /**
+   * Use {@code calc} to move {@code startDate} at time {@code startTimeMillisOfDay} by
+   * {@code unitsToMove} units, computing the target day arithmetically rather than walking
+   * the calendar.
+   *
+   * @param startDate starting date
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param unitsToMove the amount of units to move, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param converter {@link EpochDayConverter} to convert dates to and from epoch days
+   * @return date and nanos of day after moving by specified units
+   */
+  public BusinessDateTimeCalculatorResult<E> move(E startDate,
+                                                  long startTimeNanosOfDay,
+                                                  long unitsToMove,
+                                                  long unitFactor,
+                                                  long dayStartNanosOfDay,
+                                                  long dayEndNanosOfDay,
+                                                  BusinessDayCalculator calc,
+                                                  EpochDayConverter<E> converter) {
+    return toResult(move(converter.toEpochDay(startDate),
+                         startTimeNanosOfDay,
+                         unitsToMove,
+                         unitFactor,
+                         dayStartNanosOfDay,
+                         dayEndNanosOfDay,
+                         calc),
+                    converter);
+  }
+
+  /**
+   * Use {@code calc} to move {@code startDate} at time {@code startTimeMillisOfDay} by
+   * {@code days} days, computing the target day arithmetically rather than walking the calendar.
+   *
+   * @param startDate starting date
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param days the amount of days to move, may be negative or positive
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param converter {@link EpochDayConverter} to convert dates to and from epoch days
+   * @return date and nanos of day after moving by specified days
+   */
+  public BusinessDateTimeCalculatorResult<E> moveDays(E startDate,
+                                                      long startTimeNanosOfDay,
+                                                      int days,
+                                                      long dayStartNanosOfDay,
+                                                      long dayEndNanosOfDay,
+                                                      BusinessDayCalculator calc,
+                                                      EpochDayConverter<E> converter) {
+    return toResult(moveDays(converter.toEpochDay(startDate),
+                             startTimeNanosOfDay,
+                             days,
+                             dayStartNanosOfDay,
+                             dayEndNanosOfDay,
+                             calc),
+                    converter);
+  }
+
+  /**
+   * Use {@code calc} to move {@code startEpochDay} at time {@code startTimeNanosOfDay} by
+   * {@code unitsToMove} units without allocating.
+   * <p>
+   * The move is plain arithmetic on business ordinals, so units need not divide the business
+   * day evenly. Moving forward onto a day boundary lands on the end of the earlier business
+   * day, moving backward onto one lands on the start of the later business day.
+   *
+   * @param startEpochDay starting date as days since 1970-01-01
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param unitsToMove the amount of units to move, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @return date and time after moving by specified units, packed as {@link LocalEpochNanos}
+   */
+  public long move(long startEpochDay,
+                   long startTimeNanosOfDay,
+                   long unitsToMove,
+                   long unitFactor,
+                   long dayStartNanosOfDay,
+                   long dayEndNanosOfDay,
+                   BusinessDayCalculator calc) {
+    if (unitsToMove == 0) {
+      // normalizing keeps a time at the very end of a business day where it is
+      return moveByDaysAndNanos(startEpochDay,
+                                startTimeNanosOfDay,
+                                true,
+                                0,
+                                0,
+                                dayStartNanosOfDay,
+                                dayEndNanosOfDay,
+                                calc);
+    }
+    long ordinal = toOrdinal(startEpochDay,
+                             startTimeNanosOfDay,
+                             dayStartNanosOfDay,
+                             dayEndNanosOfDay,
+                             calc);
+    return fromOrdinal(ordinal + unitsToMove * unitFactor,
+                       dayStartNanosOfDay,
+                       dayEndNanosOfDay,
+                       calc,
+                       unitsToMove > 0);
+  }
+
+  /**
+   * Use {@code calc} to move {@code startEpochDay} at time {@code startTimeNanosOfDay} by
+   * {@code days} days without allocating.
+   *
+   * @param startEpochDay starting date as days since 1970-01-01
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param days the amount of days to move, may be negative or positive
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @return date and time after moving by specified days, packed as {@link LocalEpochNanos}
+   */
+  public long moveDays(long startEpochDay,
+                       long startTimeNanosOfDay,
+                       int days,
+                       long dayStartNanosOfDay,
+                       long dayEndNanosOfDay,
+                       BusinessDayCalculator calc) {
+    return moveByDaysAndNanos(startEpochDay,
+                              startTimeNanosOfDay,
+                              days >= 0,
+                              Math.abs(days),
+                              0,
+                              dayStartNanosOfDay,
+                              dayEndNanosOfDay,
+                              calc);
+  }
+
+  /**
+   * Use {@code calc} to count the business nanos elapsed from {@code startEpochDay} at time
+   * {@code startTimeNanosOfDay} to {@code endEpochDay} at time {@code endTimeNanosOfDay}.
+   * Times outside business hours count from the nearest business hours boundary, so the
+   * result does not depend on how far outside business hours either end lies.
+   *
+   * @param startEpochDay starting date as days since 1970-01-01
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param endEpochDay ending date as days since 1970-01-01
+   * @param endTimeNanosOfDay ending time as nanos since midnight
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to count days
+   * @return business nanos elapsed, negative if end is before start
+   */
+  public long businessNanosBetween(long startEpochDay,
+                                   long startTimeNanosOfDay,
+                                   long endEpochDay,
+                                   long endTimeNanosOfDay,
+                                   long dayStartNanosOfDay,
+                                   long dayEndNanosOfDay,
+                                   BusinessDayCalculator calc) {
+    return toOrdinal(endEpochDay, endTimeNanosOfDay, dayStartNanosOfDay, dayEndNanosOfDay, calc)
+           - toOrdinal(startEpochDay, startTimeNanosOfDay,
+                       dayStartNanosOfDay, dayEndNanosOfDay, calc);
+  }
+
+  /**
+   * Use {@code calc} to count the business days from {@code startEpochDay} at time
+   * {@code startTimeNanosOfDay} to {@code endEpochDay} at time {@code endTimeNanosOfDay}, in
+   * parts of {@code partsPerDay} such as 2 for half days.
+   * <p>
+   * Days are counted on the business day ordinals {@link #moveDays(long, long, int, long, long,
+   * BusinessDayCalculator)} moves by: a day elapses each time the end reaches the same time of
+   * a later business day, so counting to a date time moved by {@code n} days gives {@code n}.
+   * The rest of the way is counted in parts of the business nanos to the same time one more
+   * business day on.
+   *
+   * @param startEpochDay starting date as days since 1970-01-01
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param endEpochDay ending date as days since 1970-01-01
+   * @param endTimeNanosOfDay ending time as nanos since midnight
+   * @param partsPerDay the number of parts to count in each business day, at least 1
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to count days
+   * @return business days elapsed times {@code partsPerDay}, negative if end is before start
+   * @throws IllegalArgumentException if {@code partsPerDay} is less than 1
+   * @throws ArithmeticException if the count overflows a long
+   */
+  public long businessDaysBetween(long startEpochDay,
+                                  long startTimeNanosOfDay,
+                                  long endEpochDay,
+                                  long endTimeNanosOfDay,
+                                  int partsPerDay,
+                                  long dayStartNanosOfDay,
+                                  long dayEndNanosOfDay,
+                                  BusinessDayCalculator calc) {
+    return daysBetween(LocalEpochNanos.of(startEpochDay, startTimeNanosOfDay),
+                       LocalEpochNanos.of(endEpochDay, endTimeNanosOfDay),
+                       partsPerDay, null, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+  }
+
+  /**
+   * Use {@code schedule} to count the business days from {@code startLocalEpochNanos} to
+   * {@code endLocalEpochNanos}, in parts of {@code partsPerDay} such as 2 for half days, see
+   * {@link #businessDaysBetween(long, long, long, long, int, long, long, BusinessDayCalculator)}.
+   * Days are counted on the business day ordinals {@link BusinessSchedule#moveDays(long, int)}
+   * moves by, so days with other hours, and sessions crossing midnight, count as one day each.
+   *
+   * @param startLocalEpochNanos the start, packed as {@link LocalEpochNanos}
+   * @param endLocalEpochNanos the end, packed as {@link LocalEpochNanos}
+   * @param partsPerDay the number of parts to count in each business day, at least 1
+   * @param schedule business hours to count days in
+   * @return business days elapsed times {@code partsPerDay}, negative if end is before start
+   * @throws IllegalArgumentException if {@code partsPerDay} is less than 1 or a day reached is
+   *     not covered
+   * @throws ArithmeticException if the count overflows a long
+   */
+  public long businessDaysBetween(long startLocalEpochNanos,
+                                  long endLocalEpochNanos,
+                                  int partsPerDay,
+                                  BusinessSchedule schedule) {
+    return daysBetween(startLocalEpochNanos, endLocalEpochNanos,
+                       partsPerDay, schedule, 0, 0, schedule.getDayCalculator());
+  }
+
+  /**
+   * Use {@code calc} to map {@code epochDay} at time {@code timeNanosOfDay} to its business
+   * ordinal: the business nanos elapsed since the start of business hours on Monday 1970-01-05.
+   * Times outside business hours map to the nearest business hours boundary, so the end of one
+   * business day and the start of the next share an ordinal.
+   *
+   * @param epochDay date as days since 1970-01-01
+   * @param timeNanosOfDay time as nanos since midnight
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to count days
+   * @return business nanos since the calendar epoch, negative before it
+   */
+  public long toOrdinal(long epochDay,
+                        long timeNanosOfDay,
+                        long dayStartNanosOfDay,
+                        long dayEndNanosOfDay,
+                        BusinessDayCalculator calc) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    long nanos = 0;
+    if (calc.isBusinessDay(epochDay)) {
+      long clamped = Math.min(Math.max(timeNanosOfDay, dayStartNanosOfDay), dayEndNanosOfDay);
+      nanos = clamped - dayStartNanosOfDay;
+    }
+    return calc.businessDaysBefore(epochDay) * dayLength + nanos;
+  }
+
+  /**
+   * Use {@code calc} to map business ordinal {@code ordinal} back to a date and time, the
+   * inverse of {@link #toOrdinal(long, long, long, long, BusinessDayCalculator)}. An ordinal
+   * on a day boundary is both the end of one business day and the start of the next;
+   * {@code preferEnd} picks which.
+   *
+   * @param ordinal business nanos since the calendar epoch
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to find days
+   * @param preferEnd whether a day boundary maps to the end of the earlier business day
+   * @return date and time within business hours, packed as {@link LocalEpochNanos}
+   */
+  public long fromOrdinal(long ordinal,
+                          long dayStartNanosOfDay,
+                          long dayEndNanosOfDay,
+                          BusinessDayCalculator calc,
+                          boolean preferEnd) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    long index = Maths.floorDiv(ordinal, dayLength);
+    long nanos = ordinal - index * dayLength;
+    if (nanos == 0 && preferEnd) {
+      return LocalEpochNanos.of(calc.businessDayAt(index - 1), dayEndNanosOfDay);
+    }
+    return LocalEpochNanos.of(calc.businessDayAt(index), dayStartNanosOfDay + nanos);
+  }
+
+  /**
+   * Use {@code calc} to map the {@code length} date times of {@code localEpochNanos} from
+   * {@code offset} to their business ordinals, writing them to the same positions of
+   * {@code ordinals}. Each ordinal is the same as {@link #toOrdinal(long, long, long, long,
+   * BusinessDayCalculator)} would return.
+   * <p>
+   * The loop is free of data dependent branches over the range of the calendar's precomputed
+   * tables, so throughput does not suffer from mispredictions when date times are unsorted or
+   * fall on mixed business and non business days. Together with {@link #fromOrdinalAll(long[],
+   * int, int, long, long, BusinessDayCalculator, boolean, long[])} and plain {@code long}
+   * arithmetic in between, it forms a bulk move pipeline. {@code ordinals} may be
+   * {@code localEpochNanos}. The loop runs in {@link OrdinalKernels#preferred()}, which is the
+   * {@code jdk.incubator.vector} kernel when this JVM can load it.
+   *
+   * @param localEpochNanos date times, packed as {@link LocalEpochNanos}
+   * @param offset position of the first date time to map
+   * @param length number of date times to map
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to count days
+   * @param ordinals array to write the business ordinals to
+   * @throws IllegalArgumentException if the range is outside either array
+   */
+  public void toOrdinalAll(long[] localEpochNanos,
+                           int offset,
+                           int length,
+                           long dayStartNanosOfDay,
+                           long dayEndNanosOfDay,
+                           BusinessDayCalculator calc,
+                           long[] ordinals) {
+    checkRange(offset, length, localEpochNanos.length);
+    checkRange(offset, length, ordinals.length);
+    OrdinalKernels.preferred().toOrdinals(calc, localEpochNanos, offset, length,
+                                          dayStartNanosOfDay, dayEndNanosOfDay, ordinals);
+  }
+
+  /**
+   * Use {@code calc} to map the {@code length} business ordinals of {@code ordinals} from
+   * {@code offset} back to date times, writing them to the same positions of
+   * {@code localEpochNanos}. Each date time is the same as {@link #fromOrdinal(long, long, long,
+   * BusinessDayCalculator, boolean)} would return; see {@link #toOrdinalAll(long[], int, int,
+   * long, long, BusinessDayCalculator, long[])}. {@code localEpochNanos} may be
+   * {@code ordinals}.
+   *
+   * @param ordinals business nanos since the calendar epoch
+   * @param offset position of the first ordinal to map
+   * @param length number of ordinals to map
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to find days
+   * @param preferEnd whether a day boundary maps to the end of the earlier business day
+   * @param localEpochNanos array to write the date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if the range is outside either array
+   */
+  public void fromOrdinalAll(long[] ordinals,
+                             int offset,
+                             int length,
+                             long dayStartNanosOfDay,
+                             long dayEndNanosOfDay,
+                             BusinessDayCalculator calc,
+                             boolean preferEnd,
+                             long[] localEpochNanos) {
+    checkRange(offset, length, ordinals.length);
+    checkRange(offset, length, localEpochNanos.length);
+    OrdinalKernels.preferred().fromOrdinals(calc, ordinals, offset, length, dayStartNanosOfDay,
+                                            dayEndNanosOfDay, preferEnd, localEpochNanos);
+  }
+
+  /**
+   * Use {@code calc} to move every date time in {@code startLocalEpochNanos} by
+   * {@code unitsToMove} units, writing the results to the same positions of {@code results}.
+   * Each result is the same as {@link #move(long, long, long, long, long, long,
+   * BusinessDayCalculator)} would return. Consecutive date times on the same day share their
+   * calendar lookups and no objects are allocated per element. {@code results} may be
+   * {@code startLocalEpochNanos} to move in place.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results array to write the moved date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if {@code results} is shorter than the start array
+   */
+  public void moveAll(long[] startLocalEpochNanos,
+                      long unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      long[] results) {
+    checkLength(startLocalEpochNanos.length, results.length);
+    moveAll(startLocalEpochNanos, 0, unitsToMove, null, 0, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results, 0, startLocalEpochNanos.length);
+  }
+
+  /**
+   * Use {@code calc} to move every date time in {@code startLocalEpochNanos} by the units at the
+   * same position of {@code unitsToMove}, writing the results to the same positions of
+   * {@code results}. See {@link #moveAll(long[], long, long, long, long, BusinessDayCalculator,
+   * long[])}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results array to write the moved date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if {@code unitsToMove} or {@code results} is shorter than
+   *     the start array
+   */
+  public void moveAll(long[] startLocalEpochNanos,
+                      long[] unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      long[] results) {
+    checkLength(startLocalEpochNanos.length, unitsToMove.length);
+    checkLength(startLocalEpochNanos.length, results.length);
+    moveAll(startLocalEpochNanos, 0, 0, unitsToMove, 0, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results, 0, startLocalEpochNanos.length);
+  }
+
+  /**
+   * Use {@code calc} to move the {@code length} date times of {@code startLocalEpochNanos}
+   * from {@code offset} by {@code unitsToMove} units, writing the results to the same positions
+   * of {@code results}. Lets a batch be split between threads. See {@link #moveAll(long[], long,
+   * long, long, long, BusinessDayCalculator, long[])}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param offset position of the first date time to move
+   * @param length number of date times to move
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results array to write the moved date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if the range is outside either array
+   */
+  public void moveAll(long[] startLocalEpochNanos,
+                      int offset,
+                      int length,
+                      long unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      long[] results) {
+    checkRange(offset, length, startLocalEpochNanos.length);
+    checkRange(offset, length, results.length);
+    moveAll(startLocalEpochNanos, offset, unitsToMove, null, 0, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results, offset, length);
+  }
+
+  /**
+   * Use {@code calc} to move the {@code length} date times of {@code startLocalEpochNanos}
+   * from {@code offset} by the units at the same positions of {@code unitsToMove}, writing the
+   * results to the same positions of {@code results}. Lets a batch be split between threads.
+   * See {@link #moveAll(long[], long, long, long, long, BusinessDayCalculator, long[])}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param offset position of the first date time to move
+   * @param length number of date times to move
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results array to write the moved date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if the range is outside any of the arrays
+   */
+  public void moveAll(long[] startLocalEpochNanos,
+                      int offset,
+                      int length,
+                      long[] unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      long[] results) {
+    checkRange(offset, length, startLocalEpochNanos.length);
+    checkRange(offset, length, unitsToMove.length);
+    checkRange(offset, length, results.length);
+    moveAll(startLocalEpochNanos, offset, 0, unitsToMove, offset, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results, offset, length);
+  }
+
+  /**
+   * Use {@code calc} to move the remaining date times of {@code startLocalEpochNanos} by
+   * {@code unitsToMove} units, putting the results into {@code results}. Both buffers are
+   * advanced by the number of date times moved. See {@link #moveAll(long[], long, long, long,
+   * long, BusinessDayCalculator, long[])}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results buffer to put the moved date times into, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if {@code results} has less room than the start buffer
+   *     has date times remaining
+   */
+  public void moveAll(LongBuffer startLocalEpochNanos,
+                      long unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      LongBuffer results) {
+    moveAll(startLocalEpochNanos, unitsToMove, null, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results);
+  }
+
+  /**
+   * Use {@code calc} to move the remaining date times of {@code startLocalEpochNanos} by the
+   * units remaining in {@code unitsToMove}, putting the results into {@code results}. All three
+   * buffers are advanced by the number of date times moved. See {@link #moveAll(long[], long,
+   * long, long, long, BusinessDayCalculator, long[])}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param unitsToMove the amount of units to move each date time, may be negative or positive
+   * @param unitFactor the number of nanos in each unit
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @param results buffer to put the moved date times into, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if {@code unitsToMove} or {@code results} has less
+   *     remaining than the start buffer
+   */
+  public void moveAll(LongBuffer startLocalEpochNanos,
+                      LongBuffer unitsToMove,
+                      long unitFactor,
+                      long dayStartNanosOfDay,
+                      long dayEndNanosOfDay,
+                      BusinessDayCalculator calc,
+                      LongBuffer results) {
+    checkLength(startLocalEpochNanos.remaining(), unitsToMove.remaining());
+    moveAll(startLocalEpochNanos, 0, unitsToMove, unitFactor,
+            dayStartNanosOfDay, dayEndNanosOfDay, calc, results);
+  }
+
+  private void moveAll(LongBuffer starts,
+                       long unitsToMove,
+                       LongBuffer unitsPerElement,
+                       long unitFactor,
+                       long dayStartNanosOfDay,
+                       long dayEndNanosOfDay,
+                       BusinessDayCalculator calc,
+                       LongBuffer results) {
+    int length = starts.remaining();
+    checkLength(length, results.remaining());
+    // direct or read only buffers are moved through one scratch array, chunk by chunk
+    long[] chunk = new long[Math.min(length, BUFFER_CHUNK)];
+    long[] units = unitsPerElement == null ? null : new long[chunk.length];
+    for (int done = 0; done < length; done += chunk.length) {
+      int size = Math.min(chunk.length, length - done);
+      starts.get(chunk, 0, size);
+      if (units != null) {
+        unitsPerElement.get(units, 0, size);
+      }
+      moveAll(chunk, 0, unitsToMove, units, 0, unitFactor,
+              dayStartNanosOfDay, dayEndNanosOfDay, calc, chunk, 0, size);
+      results.put(chunk, 0, size);
+    }
+  }
+
+  /**
+   * Batch kernel. Moves {@code length} date times by {@code unitsPerElement} if not null,
+   * otherwise by {@code unitsToMove}, remembering the calendar lookups of the last day and
+   * business day index seen.
+   */
+  private void moveAll(long[] starts,
+                       int startsOffset,
+                       long unitsToMove,
+                       long[] unitsPerElement,
+                       int unitsOffset,
+                       long unitFactor,
+                       long dayStartNanosOfDay,
+                       long dayEndNanosOfDay,
+                       BusinessDayCalculator calc,
+                       long[] results,
+                       int resultsOffset,
+                       int length) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    long lastDay = Long.MIN_VALUE;
+    boolean lastIsBusinessDay = false;
+    long lastDayOrdinal = 0;
+    long lastIndex = Long.MIN_VALUE;
+    long lastIndexDay = 0;
+    for (int i = 0; i < length; i++) {
+      long start = starts[startsOffset + i];
+      long units = unitsPerElement == null ? unitsToMove : unitsPerElement[unitsOffset + i];
+      long day = LocalEpochNanos.toEpochDay(start);
+      long time = start - day * Constants.NANOS_PER_DAY;
+      if (day != lastDay) {
+        lastDay = day;
+        lastIsBusinessDay = calc.isBusinessDay(day);
+        lastDayOrdinal = calc.businessDaysBefore(day) * dayLength;
+      }
+
+      long ordinal = lastDayOrdinal;
+      if (lastIsBusinessDay) {
+        ordinal += Math.min(Math.max(time, dayStartNanosOfDay), dayEndNanosOfDay)
+                   - dayStartNanosOfDay;
+      }
+      ordinal += units * unitFactor;
+      // normalizing keeps a time at the very end of a business day where it is
+      boolean preferEnd = units > 0
+                          || (units == 0 && lastIsBusinessDay && time == dayEndNanosOfDay);
+
+      long index = Maths.floorDiv(ordinal, dayLength);
+      long nanos = ordinal - index * dayLength;
+      if (nanos == 0 && preferEnd) {
+        index--;
+        nanos = dayLength;
+      }
+      if (index != lastIndex) {
+        lastIndex = index;
+        lastIndexDay = calc.businessDayAt(index);
+      }
+      results[resultsOffset + i] = LocalEpochNanos.of(lastIndexDay, dayStartNanosOfDay + nanos);
+    }
+  }
+
+  private static void checkRange(int offset, int length, int arrayLength) {
+    if (offset < 0 || length < 0 || offset > arrayLength - length) {
+      throw new IllegalArgumentException(
+          "range " + offset + " to " + ((long) offset + length) + " outside array of length "
+          + arrayLength);
+    }
+  }
+
+  private static void checkLength(int expected, int actual) {
+    if (actual < expected) {
+      throw new IllegalArgumentException(
+          "expected room for " + expected + " values but found " + actual);
+    }
+  }
+
+  /**
+   * Counts the business days from {@code start} to {@code end} in parts of {@code partsPerDay},
+   * under {@code schedule} or, when null, the business day start and end time. The day
+   * ordinals of the two ends bound the days moved, and the count is the most days that moving
+   * {@code start} by does not pass {@code end}, so it inverts moving by days exactly.
+   */
+  private long daysBetween(long start,
+                           long end,
+                           int partsPerDay,
+                           BusinessSchedule schedule,
+                           long dayStartNanosOfDay,
+                           long dayEndNanosOfDay,
+                           BusinessDayCalculator calc) {
+    if (partsPerDay < 1) {
+      throw new IllegalArgumentException(
+          "expected at least 1 part per day but found " + partsPerDay);
+    }
+    long startOrdinal = toOrdinal(start, schedule, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+    long endOrdinal = toOrdinal(end, schedule, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+    if (startOrdinal == endOrdinal) {
+      return 0;
+    }
+    int sign = endOrdinal > startOrdinal ? 1 : -1;
+    // moving by days never reaches past the business day of the end
+    long days = sign * (calc.businessDaysBefore(sessionDayOf(end, schedule))
+                        - calc.businessDaysBefore(sessionDayOf(start, schedule)));
+    long moved = 0;
+    for (; days > 0; days--) {
+      moved = moveDays(start, (int) (sign * days), schedule, dayStartNanosOfDay,
+                       dayEndNanosOfDay, calc);
+      if (sign > 0 ? moved <= end : moved >= end) {
+        break;
+      }
+    }
+    if (days <= 0) {
+      days = 0;
+      moved = start;
+    }
+    // the rest of the way in business nanos of the next day moved by
+    long from = toOrdinal(moved, schedule, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+    long to = toOrdinal(moveDays(start, (int) (sign * (days + 1)), schedule, dayStartNanosOfDay,
+                                 dayEndNanosOfDay, calc),
+                        schedule, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+    return Maths.addExact(Maths.multiplyExact(sign * days, partsPerDay),
+                          Maths.multiplyExact(endOrdinal - from, partsPerDay)
+                          / Math.abs(to - from));
+  }
+
+  private long toOrdinal(long localEpochNanos,
+                         BusinessSchedule schedule,
+                         long dayStartNanosOfDay,
+                         long dayEndNanosOfDay,
+                         BusinessDayCalculator calc) {
+    return schedule != null
+           ? schedule.toOrdinal(localEpochNanos)
+           : toOrdinal(LocalEpochNanos.toEpochDay(localEpochNanos),
+                       LocalEpochNanos.toNanosOfDay(localEpochNanos),
+                       dayStartNanosOfDay, dayEndNanosOfDay, calc);
+  }
+
+  private long moveDays(long localEpochNanos,
+                        int days,
+                        BusinessSchedule schedule,
+                        long dayStartNanosOfDay,
+                        long dayEndNanosOfDay,
+                        BusinessDayCalculator calc) {
+    return schedule != null
+           ? schedule.moveDays(localEpochNanos, days)
+           : moveDays(LocalEpochNanos.toEpochDay(localEpochNanos),
+                      LocalEpochNanos.toNanosOfDay(localEpochNanos),
+                      days, dayStartNanosOfDay, dayEndNanosOfDay, calc);
+  }
+
+  /**
+   * Returns the day {@code localEpochNanos} counts from when moving by days, the day before
+   * for a time in the tail of a session that crossed midnight.
+   */
+  private static long sessionDayOf(long localEpochNanos, BusinessSchedule schedule) {
+    long day = LocalEpochNanos.toEpochDay(localEpochNanos);
+    return schedule != null && LocalEpochNanos.toNanosOfDay(localEpochNanos) < schedule.tailOf(day)
+           ? day - 1
+           : day;
+  }
+
   /**
    * Use {@code calc} to move {@code startDate} at time {@code startTimeNanosOfDay} by
    * {@code daysToMove} days and {@code nanosToMove} nanos.
@@ -95,47 +809,120 @@ public class BusinessDateTimeCalculator<E> {
                                                                  long dayStartNanosOfDay,
                                                                  long dayEndNanosOfDay,
                                                                  DateCalculator<E> calc) {
-    long nanosPerDay = dayEndNanosOfDay - dayStartNanosOfDay;
     boolean isWorkingDay = !calc.isNonWorkingDay(startDate);
-    boolean isStartBeforeBusinessDay = startTimeNanosOfDay < dayStartNanosOfDay;
-    boolean isStartAfterBusinessDay = startTimeNanosOfDay > dayEndNanosOfDay;
+    int days = businessDaysToMove(isWorkingDay,
+                                  startTimeNanosOfDay,
+                                  moveForward,
+                                  daysToMove,
+                                  nanosToMove,
+                                  dayStartNanosOfDay,
+                                  dayEndNanosOfDay);
 
+    // Use DateCalculator to calculate new business day
+    calc.setStartDate(startDate);
+    if (days != 0) {
+      calc = calc.moveByBusinessDays(days);
+    }
+    E endDate = calc.getCurrentBusinessDate();
+
+    long endTimeNanosOfDay = endTimeNanosOfDay(isWorkingDay,
+                                               startTimeNanosOfDay,
+                                               moveForward,
+                                               nanosToMove,
+                                               dayStartNanosOfDay,
+                                               dayEndNanosOfDay);
+
+    return new BusinessDateTimeCalculatorResult<E>(endDate, endTimeNanosOfDay);
+  }
+
+  private BusinessDateTimeCalculatorResult<E> toResult(long localEpochNanos,
+                                                       EpochDayConverter<E> converter) {
+    return new BusinessDateTimeCalculatorResult<E>(
+        converter.fromEpochDay(LocalEpochNanos.toEpochDay(localEpochNanos)),
+        LocalEpochNanos.toNanosOfDay(localEpochNanos));
+  }
+
+  /**
+   * Use {@code calc} to move {@code startEpochDay} at time {@code startTimeNanosOfDay} by
+   * {@code daysToMove} days and {@code nanosToMove} nanos.
+   *
+   * @param startEpochDay starting date as days since 1970-01-01
+   * @param startTimeNanosOfDay starting time as nanos since midnight
+   * @param moveForward whether adding or subtracting time
+   * @param daysToMove days to move, must be greater than or equal to 0
+   * @param nanosToMove the amount of nanos to move, must be greater than or equal to 0
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param calc {@link BusinessDayCalculator} to use to adjust days
+   * @return date and time after moving, packed as {@link LocalEpochNanos}
+   */
+  private long moveByDaysAndNanos(long startEpochDay,
+                                  long startTimeNanosOfDay,
+                                  boolean moveForward,
+                                  int daysToMove,
+                                  long nanosToMove,
+                                  long dayStartNanosOfDay,
+                                  long dayEndNanosOfDay,
+                                  BusinessDayCalculator calc) {
+    boolean isWorkingDay = calc.isBusinessDay(startEpochDay);
+    int days = businessDaysToMove(isWorkingDay,
+                                  startTimeNanosOfDay,
+                                  moveForward,
+                                  daysToMove,
+                                  nanosToMove,
+                                  dayStartNanosOfDay,
+                                  dayEndNanosOfDay);
+
+    // Same as DateCalculator: adjust forward to a business day, then move by business days
+    long endDay = calc.plusBusinessDays(calc.nextOrSameBusinessDay(startEpochDay), days);
+
+    long endTimeNanosOfDay = endTimeNanosOfDay(isWorkingDay,
+                                               startTimeNanosOfDay,
+                                               moveForward,
+                                               nanosToMove,
+                                               dayStartNanosOfDay,
+                                               dayEndNanosOfDay);
+
+    return LocalEpochNanos.of(endDay, endTimeNanosOfDay);
+  }
+
+  /**
+   * Calculate the number of business days to move, relative to the first business day on or
+   * after the start date.
+   */
+  private static int businessDaysToMove(boolean isWorkingDay,
+                                        long startTimeNanosOfDay,
+                                        boolean moveForward,
+                                        int daysToMove,
+                                        long nanosToMove,
+                                        long dayStartNanosOfDay,
+                                        long dayEndNanosOfDay) {
+    long nanosPerDay = dayEndNanosOfDay - dayStartNanosOfDay;
     int days = daysToMove;
-    long nanosOfDay = 0;
-    long totalNanos = nanosToMove;
 
     if (isWorkingDay) {
-      if (moveForward) {
-        // Adjust days/millis to be in reference to current business day at business hours start
-        if (isStartAfterBusinessDay) {
-          // If start time is after business hours, then current business date time
-          // is actually next day at business hour start
-          days++;
-        } else {
-          // Add millis elapsed in current business day
-          totalNanos += Math.max(0, startTimeNanosOfDay - dayStartNanosOfDay);
-        }
-      } else {
-        // Adjust days/millis to be in reference to current business day at business hours end
-        if (isStartBeforeBusinessDay) {
-          // If start time is before business hours, then current business date time
-          // is actually next day at business start time
-          days++;
-        } else {
-          // Subtract millis remaining in day
-          totalNanos += Math.max(0, dayEndNanosOfDay - startTimeNanosOfDay);
-        }
+      if (moveForward && startTimeNanosOfDay > dayEndNanosOfDay) {
+        // If start time is after business hours, then current business date time
+        // is actually next day at business hour start
+        days++;
+      } else if (!moveForward && startTimeNanosOfDay < dayStartNanosOfDay) {
+        // If start time is before business hours, then current business date time
+        // is actually next day at business start time
+        days++;
       }
     }
 
-    // Calculate the number of days and millisOfDay to move.
-    // millisOfDay should end up being <= millisPerDay.
+    // Calculate the number of days to move, remaining nanos are moved within the end day.
+    long totalNanos = totalNanosToMove(isWorkingDay,
+                                       startTimeNanosOfDay,
+                                       moveForward,
+                                       nanosToMove,
+                                       dayStartNanosOfDay,
+                                       dayEndNanosOfDay);
     days += (int) ((totalNanos - 1) / nanosPerDay);
-    nanosOfDay += (totalNanos - 1) % nanosPerDay + 1;
 
     if (!moveForward) {
       days = -days;
-      nanosOfDay = -nanosOfDay;
 
       if (!isWorkingDay) {
         // if we are moving backwards from a non work day,
@@ -143,19 +930,64 @@ public class BusinessDateTimeCalculator<E> {
         days -= 1;
       }
     }
+    return days;
+  }
 
-    // Use DateCalculator to calculate new business day
-    calc.setStartDate(startDate);
-    if (days != 0) {
-      calc = calc.moveByBusinessDays(days);
+  /**
+   * Calculate the time of day once the business days from
+   * {@link #businessDaysToMove(boolean, long, boolean, int, long, long, long)} have been moved.
+   */
+  private static long endTimeNanosOfDay(boolean isWorkingDay,
+                                        long startTimeNanosOfDay,
+                                        boolean moveForward,
+                                        long nanosToMove,
+                                        long dayStartNanosOfDay,
+                                        long dayEndNanosOfDay) {
+    long nanosPerDay = dayEndNanosOfDay - dayStartNanosOfDay;
+    long totalNanos = totalNanosToMove(isWorkingDay,
+                                       startTimeNanosOfDay,
+                                       moveForward,
+                                       nanosToMove,
+                                       dayStartNanosOfDay,
+                                       dayEndNanosOfDay);
+
+    // nanosOfDay should end up being <= nanosPerDay.
+    long nanosOfDay = (totalNanos - 1) % nanosPerDay + 1;
+    if (!moveForward) {
+      nanosOfDay = -nanosOfDay;
     }
-    E endDate = calc.getCurrentBusinessDate();
 
-    // When millisOfDay is positive, time was added and reference time is business hour start
-    // When millisOfDay is negative, time was subtracted and reference time is business hour end
+    // When nanosOfDay is positive, time was added and reference time is business hour start
+    // When nanosOfDay is negative, time was subtracted and reference time is business hour end
     long endTimeNanosOfDay = nanosOfDay >= 0 ? dayStartNanosOfDay : dayEndNanosOfDay;
-    endTimeNanosOfDay += nanosOfDay;
+    return endTimeNanosOfDay + nanosOfDay;
+  }
 
-    return new BusinessDateTimeCalculatorResult<E>(endDate, endTimeNanosOfDay);
+  /**
+   * Calculate the nanos to move in reference to the current business day at business hours
+   * start when moving forward, or business hours end when moving backward.
+   */
+  private static long totalNanosToMove(boolean isWorkingDay,
+                                       long startTimeNanosOfDay,
+                                       boolean moveForward,
+                                       long nanosToMove,
+                                       long dayStartNanosOfDay,
+                                       long dayEndNanosOfDay) {
+    long totalNanos = nanosToMove;
+
+    if (isWorkingDay) {
+      if (moveForward) {
+        if (startTimeNanosOfDay <= dayEndNanosOfDay) {
+          // Add nanos elapsed in current business day
+          totalNanos += Math.max(0, startTimeNanosOfDay - dayStartNanosOfDay);
+        }
+      } else {
+        if (startTimeNanosOfDay >= dayStartNanosOfDay) {
+          // Subtract nanos remaining in day
+          totalNanos += Math.max(0, dayEndNanosOfDay - startTimeNanosOfDay);
+        }
+      }
+    }
+    return totalNanos;
   }
 }
@@ -0,0 +1,464 @@
+package com.github.aruberto.businesstime.common;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Closed-form business day arithmetic over epoch days.
+ * <p>
+ * Instead of walking the calendar one day at a time, whole weeks are counted arithmetically
+ * from the working week and the result is then corrected for the holidays in range with a
+ * binary search over the {@link HolidayIndex}. Every operation therefore costs
+ * O(log holidays) regardless of the distance moved.
+ * <p>
+ * Over the range spanned by the holidays, the business day ordinals are also tabled per day in
+ * both directions, so that {@link #businessDaysBefore(long)} and {@link #businessDayAt(long)}
+ * are single array reads where most queries fall. The tables are built lazily in chunks of
+ * about a year on first touch, so holidays spanning centuries cost nothing until queried.
+ * A chunk is published with a compare and set: threads touching a missing chunk together
+ * each build it without blocking and all use the first one published.
+ * <p>
+ * A calculator may cover only the days its holidays are known for, see
+ * {@link #withCoverage(long, long)}, and then throws on days outside them.
+ * <p>
+ * Instances are immutable, apart from the lazily built tables, and thread safe.
+ */
+public final class BusinessDayCalculator implements Serializable {
+
+  private static final long serialVersionUID = 4390152216254628701L;
+
+  /**
+   * Epoch day of Monday 1970-01-05, the reference point of all week arithmetic.
+   */
+  private static final long MONDAY_EPOCH_DAY = 4;
+  private static final int DAYS_PER_WEEK = 7;
+
+  /**
+   * Number of days per chunk of the day table, a leap year.
+   */
+  static final int CHUNK_DAYS = 366;
+
+  /**
+   * Number of business days per chunk of the business day table, a year of 5 day weeks.
+   */
+  static final int CHUNK_BUSINESS_DAYS = 262;
+
+  private final boolean[] workingDays;
+  private final int workingDaysPerWeek;
+  private final int[] workingDaysBefore;
+  private final int[] workingDayOffsets;
+  private final HolidayIndex holidays;
+  private final long tableStart;
+  private final long tableDays;
+  private final long tableFirstIndex;
+  private final long tableBusinessDays;
+  private final AtomicReferenceArray<int[]> businessDaysBeforeChunks;
+  private final AtomicReferenceArray<int[]> businessDayChunks;
+  private final long firstCoveredDay;
+  private final long lastCoveredDay;
+
+  /**
+   * Constructs a calculator for {@code workingWeek} and {@code holidays}.
+   *
+   * @param workingWeek the working week
+   * @param holidays holidays as epoch days, in any order, duplicates allowed
+   * @throws IllegalArgumentException if the working week has no working days
+   */
+  public BusinessDayCalculator(WorkingWeek workingWeek, long[] holidays) {
+    workingDays = new boolean[DAYS_PER_WEEK];
+    workingDaysBefore = new int[DAYS_PER_WEEK + 1];
+    int count = 0;
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      // offset 0 is Monday, java.util.Calendar numbers Sunday as 1 and Monday as 2
+      workingDays[i] = workingWeek.isWorkingDayFromCalendar((i + 1) % DAYS_PER_WEEK + 1);
+      workingDaysBefore[i] = count;
+      if (workingDays[i]) {
+        count++;
+      }
+    }
+    workingDaysBefore[DAYS_PER_WEEK] = count;
+    if (count == 0) {
+      throw new IllegalArgumentException("working week must have at least one working day");
+    }
+    workingDaysPerWeek = count;
+    workingDayOffsets = new int[count];
+    for (int i = 0, j = 0; i < DAYS_PER_WEEK; i++) {
+      if (workingDays[i]) {
+        workingDayOffsets[j++] = i;
+      }
+    }
+    this.holidays = compileHolidays(holidays);
+
+    if (this.holidays.size() == 0) {
+      // the closed form needs no correction, nothing to table
+      tableStart = 0;
+      tableDays = 0;
+    } else {
+      tableStart = this.holidays.get(0);
+      tableDays = this.holidays.get(this.holidays.size() - 1) + 1 - tableStart;
+    }
+    tableFirstIndex = businessDaysBeforeClosedForm(tableStart);
+    tableBusinessDays = businessDaysBeforeClosedForm(tableStart + tableDays) - tableFirstIndex;
+    businessDaysBeforeChunks =
+        new AtomicReferenceArray<int[]>(chunkCount(tableDays, CHUNK_DAYS));
+    businessDayChunks =
+        new AtomicReferenceArray<int[]>(chunkCount(tableBusinessDays, CHUNK_BUSINESS_DAYS));
+    firstCoveredDay = Long.MIN_VALUE;
+    lastCoveredDay = Long.MAX_VALUE;
+  }
+
+  private BusinessDayCalculator(BusinessDayCalculator calculator,
+                                long firstCoveredDay,
+                                long lastCoveredDay) {
+    workingDays = calculator.workingDays;
+    workingDaysPerWeek = calculator.workingDaysPerWeek;
+    workingDaysBefore = calculator.workingDaysBefore;
+    workingDayOffsets = calculator.workingDayOffsets;
+    holidays = calculator.holidays;
+    tableStart = calculator.tableStart;
+    tableDays = calculator.tableDays;
+    tableFirstIndex = calculator.tableFirstIndex;
+    tableBusinessDays = calculator.tableBusinessDays;
+    // the tables hold the same values either way, so both calculators fill the same chunks
+    businessDaysBeforeChunks = calculator.businessDaysBeforeChunks;
+    businessDayChunks = calculator.businessDayChunks;
+    this.firstCoveredDay = firstCoveredDay;
+    this.lastCoveredDay = lastCoveredDay;
+  }
+
+  /**
+   * Returns a copy of this calculator covering only the days from {@code firstEpochDay} to
+   * {@code lastEpochDay}, such as the years holiday rules were expanded over. Querying a day
+   * outside them, or moving to one, throws instead of missing the holidays there.
+   *
+   * @param firstEpochDay the first day covered
+   * @param lastEpochDay the last day covered, inclusive
+   * @return a copy of this calculator with the days covered set
+   * @throws IllegalArgumentException if {@code lastEpochDay} is before {@code firstEpochDay}
+   */
+  public BusinessDayCalculator withCoverage(long firstEpochDay, long lastEpochDay) {
+    if (lastEpochDay < firstEpochDay) {
+      throw new IllegalArgumentException(
+          "last epoch day " + lastEpochDay + " must not be before first epoch day "
+          + firstEpochDay);
+    }
+    return new BusinessDayCalculator(this, firstEpochDay, lastEpochDay);
+  }
+
+  /**
+   * Returns the first day covered, see {@link #withCoverage(long, long)}.
+   *
+   * @return the first day covered as an epoch day, {@link Long#MIN_VALUE} if unbounded
+   */
+  public long getFirstCoveredDay() {
+    return firstCoveredDay;
+  }
+
+  /**
+   * Returns the last day covered, see {@link #withCoverage(long, long)}.
+   *
+   * @return the last day covered as an epoch day, {@link Long#MAX_VALUE} if unbounded
+   */
+  public long getLastCoveredDay() {
+    return lastCoveredDay;
+  }
+
+  private static int chunkCount(long length, int chunkLength) {
+    return (int) ((length + chunkLength - 1) / chunkLength);
+  }
+
+  /**
+   * Indexes {@code dates}, dropping dates that are not working days anyway.
+   */
+  private HolidayIndex compileHolidays(long[] dates) {
+    long[] working = new long[dates.length];
+    int size = 0;
+    for (long date : dates) {
+      if (isWorkingDayOfWeek(date)) {
+        working[size++] = date;
+      }
+    }
+    return new HolidayIndex(Arrays.copyOf(working, size));
+  }
+
+  /**
+   * Returns whether {@code epochDay} is a business day, that is a working day of the week
+   * that is not a holiday.
+   *
+   * @param epochDay the day to check
+   * @return true if business day
+   * @throws IllegalArgumentException if the day is not covered
+   */
+  public boolean isBusinessDay(long epochDay) {
+    return isOpen(checkCovered(epochDay));
+  }
+
+  private boolean isOpen(long epochDay) {
+    return isWorkingDayOfWeek(epochDay) && !holidays.contains(epochDay);
+  }
+
+  private long checkCovered(long epochDay) {
+    if (epochDay < firstCoveredDay || epochDay > lastCoveredDay) {
+      throw new IllegalArgumentException(
+          "epoch day " + epochDay + " is outside the days covered, " + firstCoveredDay + " to "
+          + lastCoveredDay);
+    }
+    return epochDay;
+  }
+
+  /**
+   * Returns {@code epochDay} if it is a business day, otherwise the first business day after it.
+   *
+   * @param epochDay the day to adjust
+   * @return the adjusted day
+   * @throws IllegalArgumentException if the day or the day adjusted to is not covered
+   */
+  public long nextOrSameBusinessDay(long epochDay) {
+    return isBusinessDay(epochDay) ? epochDay : businessDayAt(businessDaysBefore(epochDay));
+  }
+
+  /**
+   * Moves {@code epochDay} by {@code days} business days. When {@code days} is positive the
+   * result is the {@code days}-th business day after {@code epochDay}, when negative the
+   * {@code -days}-th business day before it. {@code epochDay} itself need not be a business day.
+   *
+   * @param epochDay the day to move from
+   * @param days business days to move, may be negative or positive
+   * @return the day moved to, {@code epochDay} if {@code days} is 0
+   * @throws IllegalArgumentException if the day or the day moved to is not covered
+   */
+  public long plusBusinessDays(long epochDay, long days) {
+    if (days > 0) {
+      long index = businessDaysBefore(epochDay) + (isBusinessDay(epochDay) ? 1 : 0);
+      return businessDayAt(index + days - 1);
+    } else if (days < 0) {
+      return businessDayAt(businessDaysBefore(epochDay) + days);
+    }
+    return epochDay;
+  }
+
+  /**
+   * Counts the business days from {@code startInclusive} to {@code endExclusive}.
+   *
+   * @param startInclusive first day counted
+   * @param endExclusive first day not counted
+   * @return the number of business days, negative if end is before start
+   * @throws IllegalArgumentException if either day is not covered
+   */
+  public long businessDaysBetween(long startInclusive, long endExclusive) {
+    return businessDaysBefore(endExclusive) - businessDaysBefore(startInclusive);
+  }
+
+  private boolean isWorkingDayOfWeek(long epochDay) {
+    return workingDays[(int) Maths.floorMod(epochDay - MONDAY_EPOCH_DAY, DAYS_PER_WEEK)];
+  }
+
+  /**
+   * Returns the number of business days from Monday 1970-01-05 up to, not including,
+   * {@code epochDay}. This is the ordinal of {@code epochDay} if it is a business day,
+   * otherwise the ordinal of the next business day.
+   *
+   * @param epochDay the day to rank
+   * @return the number of business days before {@code epochDay}, negative before 1970-01-05
+   * @throws IllegalArgumentException if the day is not covered
+   */
+  public long businessDaysBefore(long epochDay) {
+    checkCovered(epochDay);
+    long offset = epochDay - tableStart;
+    if (offset >= 0 && offset < tableDays) {
+      int chunk = (int) (offset / CHUNK_DAYS);
+      return tableFirstIndex
+             + businessDaysBeforeChunk(chunk)[(int) (offset - (long) chunk * CHUNK_DAYS)];
+    }
+    return businessDaysBeforeClosedForm(epochDay);
+  }
+
+  /**
+   * Returns the business day with ordinal {@code index}, the inverse of
+   * {@link #businessDaysBefore(long)} on business days.
+   *
+   * @param index business days since Monday 1970-01-05, may be negative
+   * @return the business day as an epoch day
+   * @throws IllegalArgumentException if the business day is not covered
+   */
+  public long businessDayAt(long index) {
+    long offset = index - tableFirstIndex;
+    if (offset >= 0 && offset < tableBusinessDays) {
+      int chunk = (int) (offset / CHUNK_BUSINESS_DAYS);
+      int day = businessDayChunk(chunk)[(int) (offset - (long) chunk * CHUNK_BUSINESS_DAYS)];
+      return checkCovered(tableStart + day);
+    }
+    return checkCovered(businessDayAtClosedForm(index));
+  }
+
+  /**
+   * Returns the business days before each day of chunk {@code chunk} and the day after it,
+   * relative to the start of the table, building and publishing the chunk on first touch.
+   */
+  private int[] businessDaysBeforeChunk(int chunk) {
+    int[] table = businessDaysBeforeChunks.get(chunk);
+    if (table != null) {
+      return table;
+    }
+    long start = tableStart + (long) chunk * CHUNK_DAYS;
+    int days = (int) Math.min(CHUNK_DAYS, tableStart + tableDays - start);
+    table = new int[days + 1];
+    int count = (int) (businessDaysBeforeClosedForm(start) - tableFirstIndex);
+    for (int i = 0; i <= days; i++) {
+      table[i] = count;
+      if (i < days && isOpen(start + i)) {
+        count++;
+      }
+    }
+    // a thread that lost the race uses the winner's chunk, which holds the same values
+    return businessDaysBeforeChunks.compareAndSet(chunk, null, table)
+           ? table
+           : businessDaysBeforeChunks.get(chunk);
+  }
+
+  /**
+   * Returns the business days of chunk {@code chunk}, relative to the start of the table,
+   * building and publishing the chunk on first touch.
+   */
+  private int[] businessDayChunk(int chunk) {
+    int[] table = businessDayChunks.get(chunk);
+    if (table != null) {
+      return table;
+    }
+    long first = (long) chunk * CHUNK_BUSINESS_DAYS;
+    table = new int[(int) Math.min(CHUNK_BUSINESS_DAYS, tableBusinessDays - first)];
+    long day = businessDayAtClosedForm(tableFirstIndex + first);
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (int) (day - tableStart);
+      do {
+        day++;
+      } while (!isOpen(day));
+    }
+    return businessDayChunks.compareAndSet(chunk, null, table)
+           ? table
+           : businessDayChunks.get(chunk);
+  }
+
+  /**
+   * Bulk business ordinals, see
+   * {@link BusinessDateTimeCalculator#toOrdinalAll(long[], int, int, long, long,
+   * BusinessDayCalculator, long[])}.
+   * <p>
+   * Days are split off with shifts instead of branches, whether a day counts is read as the
+   * difference of two consecutive cumulative counts, and clamping uses min and max, so the
+   * only branches taken per element are the well predicted checks for the days covered, for the
+   * tabled range and for a chunk change.
+   */
+  void toOrdinals(long[] localEpochNanos,
+                  int offset,
+                  int length,
+                  long dayStartNanosOfDay,
+                  long dayEndNanosOfDay,
+                  long[] ordinals) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    int[] table = null;
+    long chunkStart = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      long value = localEpochNanos[i];
+      // floor division: the remainder is negative exactly when the quotient rounded up
+      long day = value / Constants.NANOS_PER_DAY + ((value % Constants.NANOS_PER_DAY) >> 63);
+      long time = value - day * Constants.NANOS_PER_DAY;
+      checkCovered(day);
+      long nanos = Math.min(Math.max(time, dayStartNanosOfDay), dayEndNanosOfDay)
+                   - dayStartNanosOfDay;
+      long tableDay = day - tableStart;
+      long before;
+      long weight;
+      if (tableDay >= 0 && tableDay < tableDays) {
+        // consecutive elements usually fall in the same chunk
+        if (table == null || tableDay < chunkStart || tableDay >= chunkStart + CHUNK_DAYS) {
+          int chunk = (int) (tableDay / CHUNK_DAYS);
+          table = businessDaysBeforeChunk(chunk);
+          chunkStart = (long) chunk * CHUNK_DAYS;
+        }
+        tableDay -= chunkStart;
+        int count = table[(int) tableDay];
+        before = tableFirstIndex + count;
+        weight = table[(int) tableDay + 1] - count;
+      } else {
+        long days = day - MONDAY_EPOCH_DAY;
+        long weeks = days / DAYS_PER_WEEK + ((days % DAYS_PER_WEEK) >> 63);
+        int dayOfWeek = (int) (days - weeks * DAYS_PER_WEEK);
+        before = weeks * workingDaysPerWeek + workingDaysBefore[dayOfWeek];
+        weight = workingDaysBefore[dayOfWeek + 1] - workingDaysBefore[dayOfWeek];
+        if (holidays.size() != 0) {
+          before -= holidays.rank(day);
+          weight = holidays.contains(day) ? 0 : weight;
+        }
+      }
+      ordinals[i] = before * dayLength + weight * nanos;
+    }
+  }
+
+  /**
+   * Bulk inverse of {@link #toOrdinals(long[], int, int, long, long, long[])}, see
+   * {@link BusinessDateTimeCalculator#fromOrdinalAll(long[], int, int, long, long,
+   * BusinessDayCalculator, boolean, long[])}.
+   */
+  void fromOrdinals(long[] ordinals,
+                    int offset,
+                    int length,
+                    long dayStartNanosOfDay,
+                    long dayEndNanosOfDay,
+                    boolean preferEnd,
+                    long[] localEpochNanos) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    // all ones when day boundaries map to the end of the earlier day, otherwise all zeros
+    long endMask = preferEnd ? -1L : 0L;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      long ordinal = ordinals[i];
+      long index = ordinal / dayLength + ((ordinal % dayLength) >> 63);
+      long nanos = ordinal - index * dayLength;
+      // -1 on a day boundary that belongs to the earlier day, otherwise 0
+      long shift = ((nanos - 1) >> 63) & endMask;
+      index += shift;
+      nanos -= shift * dayLength;
+      long day = businessDayAt(index);
+      localEpochNanos[i] = day * Constants.NANOS_PER_DAY + dayStartNanosOfDay + nanos;
+    }
+  }
+
+  private long businessDaysBeforeClosedForm(long epochDay) {
+    return workingDaysBefore(epochDay) - holidaysBefore(epochDay);
+  }
+
+  private long businessDayAtClosedForm(long index) {
+    // Every holiday before the result shifts it one working day further, and holiday j
+    // is before the result exactly when fewer than index business days precede it.
+    int low = 0;
+    int high = holidays.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (workingDaysBefore(holidays.get(mid)) - mid <= index) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return workingDayAt(index + low);
+  }
+
+  private long workingDaysBefore(long epochDay) {
+    long days = epochDay - MONDAY_EPOCH_DAY;
+    long weeks = Maths.floorDiv(days, DAYS_PER_WEEK);
+    return weeks * workingDaysPerWeek + workingDaysBefore[(int) (days - weeks * DAYS_PER_WEEK)];
+  }
+
+  private long workingDayAt(long index) {
+    long weeks = Maths.floorDiv(index, workingDaysPerWeek);
+    int offset = workingDayOffsets[(int) (index - weeks * workingDaysPerWeek)];
+    return MONDAY_EPOCH_DAY + weeks * DAYS_PER_WEEK + offset;
+  }
+
+  private long holidaysBefore(long epochDay) {
+    return holidays.rank(epochDay);
+  }
+}
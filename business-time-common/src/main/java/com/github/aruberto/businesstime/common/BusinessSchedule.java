@@ -0,0 +1,758 @@
+package com.github.aruberto.businesstime.common;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Business time arithmetic over a weekly schedule where every day of the week has its own
+ * business hours.
+ * <p>
+ * Every instant maps to a business ordinal, the business nanos elapsed since Monday 1970-01-05
+ * less those lost to holidays before it. Without holidays the ordinal of a day is closed form:
+ * whole weeks times the weekly business nanos plus the business nanos of the earlier days of
+ * its week. Holidays, and days whose hours are overridden, are then corrected for with a
+ * cumulative table indexed by their rank in a {@link HolidayIndex}, and the inverse finds the
+ * last such day before an ordinal by binary search. Moves and durations therefore cost
+ * O(log holidays) however far they go.
+ * <p>
+ * Sessions that cross midnight, such as overnight shifts or a market open from Sunday evening
+ * to Friday evening, are built with {@link #ofWeekWindows(long[], long[])}. They are split at
+ * every midnight into windows of the days they cover; the ordinal runs on unbroken from the end
+ * of one day to the start of the next, so the arithmetic stays closed form. Business days are
+ * still counted per session when a session lasts at most a day: the part after midnight is a
+ * tail of the day it started on, so a Friday night shift ending Saturday morning makes Friday a
+ * business day and not Saturday. Longer sessions count a business day per date they cover.
+ * <p>
+ * Schedules can be combined with {@link #union(BusinessSchedule...)}, open when any of them is,
+ * and {@link #intersection(BusinessSchedule...)}, open when all of them are. The combination is
+ * compiled into a schedule of its own, so it costs the same to query as any other.
+ * <p>
+ * A schedule may cover only the days its holidays are known for, see
+ * {@link #withCoverage(long, long)}, and then throws on days outside them.
+ * <p>
+ * Date times are packed as {@link LocalEpochNanos}. Instances are immutable and thread safe.
+ */
+public final class BusinessSchedule implements Serializable {
+
+  private static final long serialVersionUID = 2715085137950264518L;
+
+  /**
+   * Epoch day of Monday 1970-01-05, the reference point of all week arithmetic.
+   */
+  private static final long MONDAY_EPOCH_DAY = 4;
+  private static final int DAYS_PER_WEEK = 7;
+
+  private final DaySchedule[] weekdays;
+  private final long[] sessionTails;
+  private final long[] weekNanosBefore;
+  private final long weekNanos;
+  private final HolidayIndex exceptions;
+  private final DaySchedule[] exceptionHours;
+  private final long[] nanosRemovedBefore;
+  private final long[] exceptionOrdinals;
+  private final WorkingWeek workingWeek;
+  private final BusinessDayCalculator dayCalculator;
+
+  /**
+   * Constructs a schedule of {@code weekdays} and {@code holidays}.
+   *
+   * @param weekdays business hours of each day of the week, Monday first, null means closed
+   * @param holidays holidays as epoch days, in any order, duplicates allowed
+   * @throws IllegalArgumentException if there are not 7 weekdays or no business hours in a week
+   */
+  public BusinessSchedule(DaySchedule[] weekdays, long[] holidays) {
+    this(weekdays, holidays, new long[0], new DaySchedule[0]);
+  }
+
+  /**
+   * Constructs a schedule of {@code weekdays} and {@code holidays}, where the days in
+   * {@code overrideDays} have the business hours at the same position of {@code overrideHours}
+   * in place of those of their day of the week, such as an early close before a holiday.
+   * <p>
+   * Holidays and overridden days are kept in one index. Each overridden day adds or removes
+   * business nanos relative to its day of the week, which the cumulative table absorbs like it
+   * does the business nanos removed by holidays, so arithmetic stays O(log days).
+   *
+   * @param weekdays business hours of each day of the week, Monday first, null means closed
+   * @param holidays holidays as epoch days, in any order, duplicates allowed, a holiday closes
+   *     the day even if it is overridden
+   * @param overrideDays overridden days as epoch days, in any order
+   * @param overrideHours business hours of each overridden day, null means closed
+   * @throws IllegalArgumentException if there are not 7 weekdays, no business hours in a week,
+   *     override days and hours differ in number, a day is overridden twice, or an override
+   *     opens a day of the week without business hours
+   */
+  public BusinessSchedule(DaySchedule[] weekdays,
+                          long[] holidays,
+                          long[] overrideDays,
+                          DaySchedule[] overrideHours) {
+    this(weekdays, new long[DAYS_PER_WEEK], holidays, overrideDays, overrideHours);
+  }
+
+  private BusinessSchedule(DaySchedule[] weekdays,
+                           long[] sessionTails,
+                           long[] holidays,
+                           long[] overrideDays,
+                           DaySchedule[] overrideHours) {
+    if (weekdays.length != DAYS_PER_WEEK) {
+      throw new IllegalArgumentException(
+          "expected " + DAYS_PER_WEEK + " weekdays but found " + weekdays.length);
+    }
+    if (overrideDays.length != overrideHours.length) {
+      throw new IllegalArgumentException(
+          "expected hours for each of " + overrideDays.length + " override days but found "
+          + overrideHours.length);
+    }
+    this.weekdays = new DaySchedule[DAYS_PER_WEEK];
+    this.sessionTails = sessionTails.clone();
+    weekNanosBefore = new long[DAYS_PER_WEEK + 1];
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      this.weekdays[i] = weekdays[i] == null ? DaySchedule.CLOSED : weekdays[i];
+      weekNanosBefore[i + 1] = weekNanosBefore[i] + this.weekdays[i].getLength();
+    }
+    weekNanos = weekNanosBefore[DAYS_PER_WEEK];
+    if (weekNanos == 0) {
+      throw new IllegalArgumentException("week must have business hours");
+    }
+
+    // holidays and overridden days closing the day, or open only in the tail of a session from
+    // the day before, are all days off for the day calculator
+    HolidayIndex holidayIndex = new HolidayIndex(holidays);
+    long[] allDays = Arrays.copyOf(holidays, holidays.length + overrideDays.length);
+    long[] closedDays = Arrays.copyOf(holidays, holidays.length + overrideDays.length);
+    int closed = holidays.length;
+    for (int i = 0; i < overrideDays.length; i++) {
+      DaySchedule hours = overrideHours[i] == null ? DaySchedule.CLOSED : overrideHours[i];
+      if (hours.getLength() > 0 && weekdayOf(overrideDays[i]).getLength() == 0) {
+        throw new IllegalArgumentException(
+            "override must not open epoch day " + overrideDays[i] + " without weekday hours");
+      }
+      allDays[holidays.length + i] = overrideDays[i];
+      if (!startsSession(hours, sessionTails[dayOfWeekIndex(overrideDays[i])])) {
+        closedDays[closed++] = overrideDays[i];
+      }
+    }
+    exceptions = new HolidayIndex(allDays);
+    int size = exceptions.size();
+    exceptionHours = new DaySchedule[size];
+    for (int i = 0; i < overrideDays.length; i++) {
+      int rank = exceptions.rank(overrideDays[i]);
+      if (exceptionHours[rank] != null) {
+        throw new IllegalArgumentException("epoch day " + overrideDays[i] + " overridden twice");
+      }
+      exceptionHours[rank] = overrideHours[i] == null ? DaySchedule.CLOSED : overrideHours[i];
+    }
+    nanosRemovedBefore = new long[size + 1];
+    exceptionOrdinals = new long[size];
+    for (int i = 0; i < size; i++) {
+      long day = exceptions.get(i);
+      if (exceptionHours[i] == null || holidayIndex.contains(day)) {
+        exceptionHours[i] = DaySchedule.CLOSED;
+      }
+      exceptionOrdinals[i] = regularNanosBefore(day) - nanosRemovedBefore[i];
+      nanosRemovedBefore[i + 1] = nanosRemovedBefore[i] + weekdayOf(day).getLength()
+                                  - exceptionHours[i].getLength();
+    }
+
+    WorkingWeek week = WorkingWeek.DEFAULT;
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      // offset 0 is Monday, java.util.Calendar numbers Sunday as 1 and Monday as 2
+      week = week.withWorkingDayFromCalendar(startsSession(this.weekdays[i], sessionTails[i]),
+                                             (i + 1) % DAYS_PER_WEEK + 1);
+    }
+    workingWeek = week;
+    dayCalculator = new BusinessDayCalculator(week, Arrays.copyOf(closedDays, closed));
+  }
+
+  private BusinessSchedule(BusinessSchedule schedule, BusinessDayCalculator dayCalculator) {
+    weekdays = schedule.weekdays;
+    sessionTails = schedule.sessionTails;
+    weekNanosBefore = schedule.weekNanosBefore;
+    weekNanos = schedule.weekNanos;
+    exceptions = schedule.exceptions;
+    exceptionHours = schedule.exceptionHours;
+    nanosRemovedBefore = schedule.nanosRemovedBefore;
+    exceptionOrdinals = schedule.exceptionOrdinals;
+    workingWeek = schedule.workingWeek;
+    this.dayCalculator = dayCalculator;
+  }
+
+  /**
+   * Returns a copy of this schedule covering only the days from {@code firstEpochDay} to
+   * {@code lastEpochDay}, such as the years holiday rules were expanded over. Querying a day
+   * outside them, or moving to one, throws instead of missing the holidays there.
+   *
+   * @param firstEpochDay the first day covered
+   * @param lastEpochDay the last day covered, inclusive
+   * @return a copy of this schedule with the days covered set
+   * @throws IllegalArgumentException if {@code lastEpochDay} is before {@code firstEpochDay}
+   */
+  public BusinessSchedule withCoverage(long firstEpochDay, long lastEpochDay) {
+    return new BusinessSchedule(this, dayCalculator.withCoverage(firstEpochDay, lastEpochDay));
+  }
+
+  /**
+   * Constructs a schedule of weekly sessions that may cross midnight, and {@code holidays}.
+   * <p>
+   * Sessions are given as the start and end of each, as nanos since Monday midnight. A session
+   * starts within the week and may end up to a week later, so one ending after the next Monday
+   * midnight wraps around to the start of the week. Every session is split at midnight into the
+   * days it covers, and a holiday closes the part of any session falling on it. A session
+   * lasting at most a day is one business day, that of the day it starts on, see
+   * {@link #getSessionTails()}.
+   *
+   * @param weekWindows start and end of each session as nanos since Monday midnight, the
+   *     sessions in any order
+   * @param holidays holidays as epoch days, in any order, duplicates allowed
+   * @return the schedule, not null
+   * @throws IllegalArgumentException if there is an odd number of boundaries, a session starts
+   *     outside the week, ends before it starts or lasts more than a week, sessions overlap, or
+   *     there are no business hours in a week
+   */
+  public static BusinessSchedule ofWeekWindows(long[] weekWindows, long[] holidays) {
+    return ofWeekWindows(weekWindows, holidays, new long[0], new DaySchedule[0]);
+  }
+
+  /**
+   * Constructs a schedule of weekly sessions that may cross midnight, {@code holidays} and
+   * days with overridden business hours, see {@link #ofWeekWindows(long[], long[])} and
+   * {@link #BusinessSchedule(DaySchedule[], long[], long[], DaySchedule[])}.
+   *
+   * @param weekWindows start and end of each session as nanos since Monday midnight, the
+   *     sessions in any order
+   * @param holidays holidays as epoch days, in any order, duplicates allowed
+   * @param overrideDays overridden days as epoch days, in any order
+   * @param overrideHours business hours of each overridden day, null means closed
+   * @return the schedule, not null
+   * @throws IllegalArgumentException if the sessions or overrides are invalid
+   */
+  public static BusinessSchedule ofWeekWindows(long[] weekWindows,
+                                               long[] holidays,
+                                               long[] overrideDays,
+                                               DaySchedule[] overrideHours) {
+    if (weekWindows.length % 2 != 0) {
+      throw new IllegalArgumentException(
+          "expected a start and end per session but found " + weekWindows.length
+          + " boundaries");
+    }
+    long week = DAYS_PER_WEEK * Constants.NANOS_PER_DAY;
+    int sessions = weekWindows.length / 2;
+    long[][] sorted = new long[sessions][];
+    for (int i = 0; i < sessions; i++) {
+      long start = weekWindows[2 * i];
+      long end = weekWindows[2 * i + 1];
+      if (start < 0 || start >= week || end < start || end - start > week) {
+        throw new IllegalArgumentException(
+            "session must start within the week and last at most a week but was " + start
+            + " to " + end);
+      }
+      sorted[i] = new long[] {start, end};
+    }
+    Arrays.sort(sorted, new Comparator<long[]>() {
+      public int compare(long[] a, long[] b) {
+        return a[0] < b[0] ? -1 : a[0] == b[0] ? 0 : 1;
+      }
+    });
+    for (int i = 0; i < sessions; i++) {
+      // the last session may wrap around into the first one of the next week
+      long nextStart = i + 1 < sessions ? sorted[i + 1][0] : sorted[0][0] + week;
+      if (sorted[i][1] > nextStart) {
+        throw new IllegalArgumentException(
+            "sessions must not overlap but " + sorted[i][0] + " to " + sorted[i][1]
+            + " runs past " + nextStart);
+      }
+    }
+
+    // split at midnight, the parts wrapping into the next week go to the start of the week
+    long[][] boundaries = new long[DAYS_PER_WEEK][];
+    int[] counts = new int[DAYS_PER_WEEK];
+    long[] tails = new long[DAYS_PER_WEEK];
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      boundaries[i] = new long[4];
+    }
+    for (long[] session : sorted) {
+      long start = session[0];
+      while (start < session[1]) {
+        long day = start / Constants.NANOS_PER_DAY;
+        long end = Math.min(session[1], (day + 1) * Constants.NANOS_PER_DAY);
+        int dayOfWeek = (int) (day % DAYS_PER_WEEK);
+        long midnight = day * Constants.NANOS_PER_DAY;
+        if (counts[dayOfWeek] + 2 > boundaries[dayOfWeek].length) {
+          boundaries[dayOfWeek] = Arrays.copyOf(boundaries[dayOfWeek], 2 * counts[dayOfWeek]);
+        }
+        boundaries[dayOfWeek][counts[dayOfWeek]++] = start - midnight;
+        boundaries[dayOfWeek][counts[dayOfWeek]++] = end - midnight;
+        if (start != session[0] && session[1] - session[0] <= Constants.NANOS_PER_DAY) {
+          // the part after midnight continues the session of the day before
+          tails[dayOfWeek] = end - midnight;
+        }
+        start = end;
+      }
+    }
+    DaySchedule[] weekdays = new DaySchedule[DAYS_PER_WEEK];
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      weekdays[i] = new DaySchedule(sortedWindows(boundaries[i], counts[i]));
+    }
+    return new BusinessSchedule(weekdays, tails, holidays, overrideDays, overrideHours);
+  }
+
+  /**
+   * Returns a schedule open whenever any of {@code schedules} is open, such as the hours
+   * covered by at least one of several desks.
+   * <p>
+   * Each day of the week is open in the union of the hours of that day in every schedule, and
+   * each day that is a holiday or overridden in any schedule gets the union of the hours of
+   * that date. Dates left with the hours of their day of the week are dropped, so the index of
+   * the combined schedule holds only the dates that differ. A day continues the session of the
+   * day before for as long as it does in any schedule.
+   *
+   * @param schedules the schedules to combine, in the same time zone, at least one
+   * @return the combined schedule, covering the days all of {@code schedules} cover, not null
+   * @throws IllegalArgumentException if no schedules are given or they cover no day in common
+   */
+  public static BusinessSchedule union(BusinessSchedule... schedules) {
+    return combine(schedules, true);
+  }
+
+  /**
+   * Returns a schedule open only when all of {@code schedules} are open, such as the hours two
+   * markets trade together, see {@link #union(BusinessSchedule...)}. A day continues the
+   * session of the day before for as long as it does in all schedules.
+   *
+   * @param schedules the schedules to combine, in the same time zone, at least one
+   * @return the combined schedule, covering the days all of {@code schedules} cover, not null
+   * @throws IllegalArgumentException if no schedules are given, they cover no day in common,
+   *     the schedules have no business hours in common in a week, or a date overridden in a
+   *     schedule is open on a day of the week without common business hours
+   */
+  public static BusinessSchedule intersection(BusinessSchedule... schedules) {
+    return combine(schedules, false);
+  }
+
+  private static BusinessSchedule combine(BusinessSchedule[] schedules, boolean union) {
+    if (schedules.length == 0) {
+      throw new IllegalArgumentException("expected at least one schedule");
+    }
+    // start from the identity of the combination so every day comes out normalized
+    DaySchedule identity = union ? DaySchedule.CLOSED : new DaySchedule(0, Constants.NANOS_PER_DAY);
+    DaySchedule[] weekdays = new DaySchedule[DAYS_PER_WEEK];
+    Arrays.fill(weekdays, identity);
+    long[] tails = new long[DAYS_PER_WEEK];
+    Arrays.fill(tails, union ? 0 : Constants.NANOS_PER_DAY);
+    int count = 0;
+    long firstCoveredDay = Long.MIN_VALUE;
+    long lastCoveredDay = Long.MAX_VALUE;
+    for (BusinessSchedule schedule : schedules) {
+      for (int i = 0; i < DAYS_PER_WEEK; i++) {
+        weekdays[i] = combine(weekdays[i], schedule.weekdays[i], union);
+        tails[i] = union ? Math.max(tails[i], schedule.sessionTails[i])
+                         : Math.min(tails[i], schedule.sessionTails[i]);
+      }
+      count += schedule.exceptions.size();
+      firstCoveredDay = Math.max(firstCoveredDay, schedule.dayCalculator.getFirstCoveredDay());
+      lastCoveredDay = Math.min(lastCoveredDay, schedule.dayCalculator.getLastCoveredDay());
+    }
+
+    for (int i = 0; i < DAYS_PER_WEEK; i++) {
+      // a tail only runs on from midnight through the first window of the combined day
+      tails[i] = weekdays[i].getWindowCount() == 0 || weekdays[i].getWindowStartNanosOfDay(0) > 0
+                 ? 0
+                 : Math.min(tails[i], weekdays[i].getWindowEndNanosOfDay(0));
+    }
+
+    long[] days = new long[count];
+    int size = 0;
+    for (BusinessSchedule schedule : schedules) {
+      for (int i = 0; i < schedule.exceptions.size(); i++) {
+        days[size++] = schedule.exceptions.get(i);
+      }
+    }
+    Arrays.sort(days);
+    long[] overrideDays = new long[count];
+    DaySchedule[] overrideHours = new DaySchedule[count];
+    int overrides = 0;
+    for (int k = 0; k < count; k++) {
+      if (k > 0 && days[k] == days[k - 1]) {
+        continue;
+      }
+      DaySchedule hours = identity;
+      for (BusinessSchedule schedule : schedules) {
+        hours = combine(hours, schedule.hoursOf(days[k]), union);
+      }
+      if (!hours.equals(weekdays[dayOfWeekIndex(days[k])])) {
+        overrideDays[overrides] = days[k];
+        overrideHours[overrides++] = hours;
+      }
+    }
+    BusinessSchedule combined =
+        new BusinessSchedule(weekdays, tails, new long[0], Arrays.copyOf(overrideDays, overrides),
+                             Arrays.copyOf(overrideHours, overrides));
+    return firstCoveredDay == Long.MIN_VALUE && lastCoveredDay == Long.MAX_VALUE
+           ? combined
+           : combined.withCoverage(firstCoveredDay, lastCoveredDay);
+  }
+
+  private static DaySchedule combine(DaySchedule a, DaySchedule b, boolean union) {
+    return union ? a.union(b) : a.intersection(b);
+  }
+
+  /**
+   * Returns the business hours of {@code epochDay}.
+   *
+   * @param epochDay the day
+   * @return the business hours, {@link DaySchedule#CLOSED} on holidays
+   * @throws IllegalArgumentException if the day is not covered
+   */
+  public DaySchedule getDaySchedule(long epochDay) {
+    return hoursOf(checkCovered(epochDay));
+  }
+
+  private DaySchedule hoursOf(long epochDay) {
+    return exceptions.contains(epochDay)
+           ? exceptionHours[exceptions.rank(epochDay)]
+           : weekdayOf(epochDay);
+  }
+
+  /**
+   * Returns whether {@code epochDay} has business hours.
+   *
+   * @param epochDay the day to check
+   * @return true if business day
+   * @throws IllegalArgumentException if the day is not covered
+   */
+  public boolean isBusinessDay(long epochDay) {
+    return getDaySchedule(epochDay).getLength() > 0;
+  }
+
+  /**
+   * Returns the days of the week with business hours.
+   *
+   * @return the working week, not null
+   */
+  public WorkingWeek getWorkingWeek() {
+    return workingWeek;
+  }
+
+  /**
+   * Returns the business days of this schedule, the days a session with business hours starts
+   * on that are not holidays.
+   *
+   * @return the business day calculator, not null
+   */
+  public BusinessDayCalculator getDayCalculator() {
+    return dayCalculator;
+  }
+
+  /**
+   * Returns the business hours of each day of the week.
+   *
+   * @return the business hours, Monday first, {@link DaySchedule#CLOSED} if closed
+   */
+  public DaySchedule[] getWeekdays() {
+    return weekdays.clone();
+  }
+
+  /**
+   * Returns the nanos at the start of each day of the week that continue a session of at most a
+   * day started the day before, such as Saturday 00:00 to 06:00 of a Friday night shift. They
+   * count towards the business day the session started on, and a day open only in its tail is
+   * not a business day. Schedules built from {@link DaySchedule}s have none.
+   *
+   * @return the nanos of each day of the week, Monday first, 0 if none, less than a day
+   */
+  public long[] getSessionTails() {
+    return sessionTails.clone();
+  }
+
+  /**
+   * Returns the days whose business hours may differ from those of their day of the week, the
+   * holidays and overridden days, see {@link #getDaySchedule(long)} for their hours.
+   *
+   * @return the days as epoch days, in order
+   */
+  public long[] getExceptionDays() {
+    long[] days = new long[exceptions.size()];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = exceptions.get(i);
+    }
+    return days;
+  }
+
+  /**
+   * Returns the business nanos of a week without holidays.
+   *
+   * @return the weekly business nanos
+   */
+  public long getWeekNanos() {
+    return weekNanos;
+  }
+
+  /**
+   * Returns the business ordinal at the start of {@code epochDay}.
+   *
+   * @param epochDay the day
+   * @return business nanos elapsed before the day
+   * @throws IllegalArgumentException if the day is not covered
+   */
+  public long businessNanosBefore(long epochDay) {
+    checkCovered(epochDay);
+    return regularNanosBefore(epochDay) - nanosRemovedBefore[exceptions.rank(epochDay)];
+  }
+
+  /**
+   * Returns the business ordinal of {@code localEpochNanos}. Times outside business hours map
+   * to the ordinal of the closest earlier business instant.
+   *
+   * @param localEpochNanos the date time, packed as {@link LocalEpochNanos}
+   * @return business nanos elapsed since the schedule epoch
+   * @throws IllegalArgumentException if a day reached is not covered
+   */
+  public long toOrdinal(long localEpochNanos) {
+    long day = LocalEpochNanos.toEpochDay(localEpochNanos);
+    return businessNanosBefore(day)
+           + getDaySchedule(day).elapsedAt(LocalEpochNanos.toNanosOfDay(localEpochNanos));
+  }
+
+  /**
+   * Returns the date time at business ordinal {@code ordinal}, inverse of
+   * {@link #toOrdinal(long)} over business hours.
+   *
+   * @param ordinal business nanos elapsed since the schedule epoch
+   * @param preferEnd whether an ordinal between two business days maps to the end of the
+   *     earlier day rather than the start of the later one
+   * @return the date time, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if a day reached is not covered
+   */
+  public long fromOrdinal(long ordinal, boolean preferEnd) {
+    // the boundary belongs to the earlier day exactly when one nano before it does
+    long day = dayAt(preferEnd ? ordinal - 1 : ordinal);
+    long elapsed = ordinal - businessNanosBefore(day);
+    return LocalEpochNanos.of(day, getDaySchedule(day).nanosOfDayAt(elapsed, preferEnd));
+  }
+
+  /**
+   * Moves {@code localEpochNanos} by {@code nanos} business nanos.
+   * <p>
+   * Moving forward lands on the end of a business day rather than the start of the next, moving
+   * back lands on the start. Moving by 0 leaves a business instant, including the end of a
+   * business day, unchanged and moves any other instant forward to the next business day start.
+   *
+   * @param localEpochNanos the date time, packed as {@link LocalEpochNanos}
+   * @param nanos business nanos to move, may be negative or positive
+   * @return the moved date time, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if a day reached is not covered
+   */
+  public long move(long localEpochNanos, long nanos) {
+    long ordinal = toOrdinal(localEpochNanos);
+    if (nanos != 0) {
+      return fromOrdinal(ordinal + nanos, nanos > 0);
+    }
+    long end = fromOrdinal(ordinal, true);
+    return end == localEpochNanos ? end : fromOrdinal(ordinal, false);
+  }
+
+  /**
+   * Moves {@code localEpochNanos} by {@code days} business days, keeping the time of day.
+   * <p>
+   * Days are counted like {@link BusinessDateTimeCalculator#moveDays(long, long, int, long,
+   * long, BusinessDayCalculator)} does with the opening and closing time of each day, so a
+   * schedule with the same hours every business day gives the same results. A business day is
+   * a whole session, from its opening to its closing on a later date if it crosses midnight,
+   * and a time in the tail of a session counts as a time of the day it started on. A time after
+   * closing moving forward, or before opening moving back, counts from the next business day.
+   * A time before opening moving forward, after closing moving back, or on a day that is not a
+   * business day lands on the opening time of the day reached. Any other time is kept at the
+   * same offset from the start of its business day, clamped to the hours of the session
+   * reached, and a time in a break moves forward to the end of the break.
+   *
+   * @param localEpochNanos the date time, packed as {@link LocalEpochNanos}
+   * @param days business days to move, may be negative or positive
+   * @return the moved date time, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if a day reached is not covered
+   */
+  public long moveDays(long localEpochNanos, int days) {
+    long startDay = checkCovered(LocalEpochNanos.toEpochDay(localEpochNanos));
+    // the time since the start of the day the session containing it started on
+    long time = LocalEpochNanos.toNanosOfDay(localEpochNanos);
+    if (time < tailOf(startDay)) {
+      startDay--;
+      time += Constants.NANOS_PER_DAY;
+    }
+    boolean moveForward = days >= 0;
+    if (!dayCalculator.isBusinessDay(startDay)) {
+      // counted from the next business day, one further back when moving back
+      long day = dayCalculator.plusBusinessDays(dayCalculator.nextOrSameBusinessDay(startDay),
+                                                moveForward ? days : days - 1);
+      return openingOf(day);
+    }
+    long open = sessionOpenOf(startDay);
+    long close = sessionCloseOf(startDay);
+    if (moveForward ? time > close : time < open) {
+      // the current business time is actually the next business day at opening
+      return openingOf(dayCalculator.plusBusinessDays(startDay, moveForward ? days + 1 : days - 1));
+    }
+    long day = dayCalculator.plusBusinessDays(startDay, days);
+    if (moveForward ? time <= open : time >= close) {
+      return openingOf(day);
+    }
+    long target = LocalEpochNanos.of(day + time / Constants.NANOS_PER_DAY,
+                                     time % Constants.NANOS_PER_DAY);
+    long ordinal = toOrdinal(target);
+    // the end of a window is kept, like any other business time
+    long end = fromOrdinal(ordinal, true);
+    if (end == target) {
+      return end;
+    }
+    long closing = sessionCloseOf(day);
+    long closeOrdinal = toOrdinal(LocalEpochNanos.of(day + closing / Constants.NANOS_PER_DAY,
+                                                     closing % Constants.NANOS_PER_DAY));
+    return ordinal < closeOrdinal ? fromOrdinal(ordinal, false) : fromOrdinal(closeOrdinal, true);
+  }
+
+  private long checkCovered(long epochDay) {
+    if (epochDay < dayCalculator.getFirstCoveredDay()
+        || epochDay > dayCalculator.getLastCoveredDay()) {
+      throw new IllegalArgumentException(
+          "epoch day " + epochDay + " is outside the days covered, "
+          + dayCalculator.getFirstCoveredDay() + " to " + dayCalculator.getLastCoveredDay());
+    }
+    return epochDay;
+  }
+
+  private long openingOf(long epochDay) {
+    return LocalEpochNanos.of(epochDay, sessionOpenOf(epochDay));
+  }
+
+  /**
+   * Returns the nanos at the start of {@code epochDay} that continue the session of the day
+   * before, see {@link #getSessionTails()}.
+   */
+  long tailOf(long epochDay) {
+    return sessionTails[dayOfWeekIndex(epochDay)];
+  }
+
+  /**
+   * Returns the nanos of day a session starts on {@code epochDay}, a business day.
+   */
+  private long sessionOpenOf(long epochDay) {
+    DaySchedule hours = getDaySchedule(epochDay);
+    long tail = tailOf(epochDay);
+    int window = 0;
+    while (hours.getWindowEndNanosOfDay(window) <= tail) {
+      window++;
+    }
+    return Math.max(hours.getWindowStartNanosOfDay(window), tail);
+  }
+
+  /**
+   * Returns the nanos since the start of {@code epochDay}, a business day, its session closes
+   * at, running on into the tail of the next day.
+   */
+  private long sessionCloseOf(long epochDay) {
+    DaySchedule hours = getDaySchedule(epochDay);
+    long close = hours.getWindowEndNanosOfDay(hours.getWindowCount() - 1);
+    if (close == Constants.NANOS_PER_DAY && tailOf(epochDay + 1) > 0) {
+      DaySchedule next = getDaySchedule(epochDay + 1);
+      if (next.getWindowCount() > 0 && next.getWindowStartNanosOfDay(0) == 0) {
+        close += Math.min(tailOf(epochDay + 1), next.getWindowEndNanosOfDay(0));
+      }
+    }
+    return close;
+  }
+
+  /**
+   * Returns whether {@code hours} are open after the tail of a session from the day before.
+   */
+  private static boolean startsSession(DaySchedule hours, long tail) {
+    int count = hours.getWindowCount();
+    return hours.getLength() > 0 && hours.getWindowEndNanosOfDay(count - 1) > tail;
+  }
+
+  /**
+   * Returns the business nanos from {@code startLocalEpochNanos} to {@code endLocalEpochNanos}.
+   *
+   * @param startLocalEpochNanos the start, packed as {@link LocalEpochNanos}
+   * @param endLocalEpochNanos the end, packed as {@link LocalEpochNanos}
+   * @return business nanos, negative if end is before start
+   * @throws IllegalArgumentException if a day reached is not covered
+   */
+  public long businessNanosBetween(long startLocalEpochNanos, long endLocalEpochNanos) {
+    return toOrdinal(endLocalEpochNanos) - toOrdinal(startLocalEpochNanos);
+  }
+
+  /**
+   * Returns the latest day whose ordinal at start is at most {@code ordinal}, which is the
+   * business day containing it.
+   */
+  private long dayAt(long ordinal) {
+    int index = lastExceptionAtOrBefore(ordinal);
+    if (index >= 0 && ordinal < exceptionOrdinals[index] + exceptionHours[index].getLength()) {
+      return exceptions.get(index);
+    }
+    // days before the ordinal shift the closed form by the business nanos they removed
+    long day = regularDayAt(ordinal + nanosRemovedBefore[index + 1]);
+    return index < 0 ? day : Math.max(day, exceptions.get(index));
+  }
+
+  private int lastExceptionAtOrBefore(long ordinal) {
+    int low = 0;
+    int high = exceptionOrdinals.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (exceptionOrdinals[mid] <= ordinal) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  private long regularNanosBefore(long epochDay) {
+    long days = epochDay - MONDAY_EPOCH_DAY;
+    long weeks = Maths.floorDiv(days, DAYS_PER_WEEK);
+    return weeks * weekNanos + weekNanosBefore[(int) (days - weeks * DAYS_PER_WEEK)];
+  }
+
+  private long regularDayAt(long ordinal) {
+    long weeks = Maths.floorDiv(ordinal, weekNanos);
+    long rest = ordinal - weeks * weekNanos;
+    int dayOfWeek = DAYS_PER_WEEK - 1;
+    while (weekNanosBefore[dayOfWeek] > rest) {
+      dayOfWeek--;
+    }
+    return MONDAY_EPOCH_DAY + weeks * DAYS_PER_WEEK + dayOfWeek;
+  }
+
+  /**
+   * Returns the first {@code count} boundaries as windows sorted by start. The parts of a
+   * session wrapping into the next week are added after the windows they come before.
+   */
+  private static long[] sortedWindows(long[] boundaries, int count) {
+    long[] windows = new long[count];
+    int size = 0;
+    for (int i = 0; i < count; i += 2) {
+      int at = size;
+      while (at > 0 && windows[at - 2] > boundaries[i]) {
+        windows[at] = windows[at - 2];
+        windows[at + 1] = windows[at - 1];
+        at -= 2;
+      }
+      windows[at] = boundaries[i];
+      windows[at + 1] = boundaries[i + 1];
+      size += 2;
+    }
+    return windows;
+  }
+
+  private DaySchedule weekdayOf(long epochDay) {
+    return weekdays[dayOfWeekIndex(epochDay)];
+  }
+
+  private static int dayOfWeekIndex(long epochDay) {
+    return (int) Maths.floorMod(epochDay - MONDAY_EPOCH_DAY, DAYS_PER_WEEK);
+  }
+}
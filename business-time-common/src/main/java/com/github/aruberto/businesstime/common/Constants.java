@@ -8,4 +8,5 @@ public class Constants {
   public static final long NANOS_PER_SECOND = 1000 * NANOS_PER_MILLI;
   public static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
   public static final long NANOS_PER_HOUR = 60 * NANOS_PER_MINUTE;
+  public static final long NANOS_PER_DAY = 24 * NANOS_PER_HOUR;
 }
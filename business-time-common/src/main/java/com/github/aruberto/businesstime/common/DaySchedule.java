@@ -0,0 +1,278 @@
+package com.github.aruberto.businesstime.common;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Business hours of a single day, as one or more windows of nanos since midnight.
+ * <p>
+ * Windows are separated by breaks, such as lunch or an auction. The business nanos elapsed
+ * before each window are kept as prefix sums, so mapping a time of day to the business nanos
+ * elapsed in the day, and back, is a binary search over the windows rather than a walk.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class DaySchedule implements Serializable {
+
+  private static final long serialVersionUID = -3542610872954271140L;
+
+  /**
+   * A day without business hours.
+   */
+  public static final DaySchedule CLOSED = new DaySchedule();
+
+  private final long[] starts;
+  private final long[] ends;
+  private final long[] elapsedBefore;
+
+  /**
+   * Constructs a day open from {@code startNanosOfDay} to {@code endNanosOfDay}.
+   *
+   * @param startNanosOfDay opening time as nanos since midnight
+   * @param endNanosOfDay closing time as nanos since midnight, midnight of the next day allowed
+   * @throws IllegalArgumentException if a time is outside the day or the end is before the start
+   */
+  public DaySchedule(long startNanosOfDay, long endNanosOfDay) {
+    this(new long[] {startNanosOfDay, endNanosOfDay});
+  }
+
+  /**
+   * Constructs a day open in the windows delimited by {@code boundaries}, given as the start
+   * and end of each window in order. No boundaries make a closed day.
+   *
+   * @param boundaries window starts and ends as nanos since midnight, midnight of the next day
+   *     allowed
+   * @throws IllegalArgumentException if there is an odd number of boundaries, a boundary is
+   *     outside the day or boundaries are not in order
+   */
+  public DaySchedule(long... boundaries) {
+    if (boundaries.length % 2 != 0) {
+      throw new IllegalArgumentException(
+          "expected a start and end per window but found " + boundaries.length + " boundaries");
+    }
+    int windows = boundaries.length / 2;
+    starts = new long[windows];
+    ends = new long[windows];
+    elapsedBefore = new long[windows + 1];
+    long previous = 0;
+    for (int i = 0; i < windows; i++) {
+      long start = boundaries[2 * i];
+      long end = boundaries[2 * i + 1];
+      if (start < 0 || end > Constants.NANOS_PER_DAY) {
+        throw new IllegalArgumentException(
+            "business hours must be within the day but were " + start + " to " + end);
+      }
+      if (start < previous || end < start) {
+        throw new IllegalArgumentException(
+            "business hours must be in order but found " + start + " to " + end + " after "
+            + previous);
+      }
+      starts[i] = start;
+      ends[i] = end;
+      elapsedBefore[i + 1] = elapsedBefore[i] + end - start;
+      previous = end;
+    }
+  }
+
+  /**
+   * Returns the opening time of the first window.
+   *
+   * @return nanos since midnight, 0 if closed
+   */
+  public long getStartNanosOfDay() {
+    return starts.length == 0 ? 0 : starts[0];
+  }
+
+  /**
+   * Returns the closing time of the last window.
+   *
+   * @return nanos since midnight, 0 if closed
+   */
+  public long getEndNanosOfDay() {
+    return ends.length == 0 ? 0 : ends[ends.length - 1];
+  }
+
+  /**
+   * Returns the number of windows of business hours in the day.
+   *
+   * @return the number of windows, 0 if closed
+   */
+  public int getWindowCount() {
+    return starts.length;
+  }
+
+  /**
+   * Returns the opening time of window {@code index}.
+   *
+   * @param index the window, from 0 to {@code getWindowCount() - 1}
+   * @return nanos since midnight
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public long getWindowStartNanosOfDay(int index) {
+    return starts[index];
+  }
+
+  /**
+   * Returns the closing time of window {@code index}.
+   *
+   * @param index the window, from 0 to {@code getWindowCount() - 1}
+   * @return nanos since midnight
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public long getWindowEndNanosOfDay(int index) {
+    return ends[index];
+  }
+
+  /**
+   * Returns the business time in the day.
+   *
+   * @return business nanos, 0 if closed
+   */
+  public long getLength() {
+    return elapsedBefore[starts.length];
+  }
+
+  /**
+   * Returns the business hours when this day or {@code other} is open. Overlapping and touching
+   * windows are merged into one.
+   *
+   * @param other the other business hours, not null
+   * @return the combined business hours, not null
+   */
+  public DaySchedule union(DaySchedule other) {
+    long[] boundaries = new long[2 * (starts.length + other.starts.length)];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < starts.length || j < other.starts.length) {
+      if (j == other.starts.length || i < starts.length && starts[i] <= other.starts[j]) {
+        size = appendWindow(boundaries, size, starts[i], ends[i++]);
+      } else {
+        size = appendWindow(boundaries, size, other.starts[j], other.ends[j++]);
+      }
+    }
+    return new DaySchedule(Arrays.copyOf(boundaries, size));
+  }
+
+  /**
+   * Returns the business hours when both this day and {@code other} are open.
+   *
+   * @param other the other business hours, not null
+   * @return the common business hours, {@link #CLOSED} if none
+   */
+  public DaySchedule intersection(DaySchedule other) {
+    long[] boundaries = new long[2 * (starts.length + other.starts.length)];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < starts.length && j < other.starts.length) {
+      size = appendWindow(boundaries, size, Math.max(starts[i], other.starts[j]),
+                          Math.min(ends[i], other.ends[j]));
+      // the window closing first cannot overlap any later window of the other day
+      if (ends[i] < other.ends[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return new DaySchedule(Arrays.copyOf(boundaries, size));
+  }
+
+  /**
+   * Appends the window from {@code start} to {@code end} after the first {@code size}
+   * boundaries, merging it into the last window when they overlap or touch and skipping it
+   * when empty, and returns the new number of boundaries.
+   */
+  private static int appendWindow(long[] boundaries, int size, long start, long end) {
+    if (start >= end) {
+      return size;
+    }
+    if (size > 0 && start <= boundaries[size - 1]) {
+      boundaries[size - 1] = Math.max(boundaries[size - 1], end);
+      return size;
+    }
+    boundaries[size] = start;
+    boundaries[size + 1] = end;
+    return size + 2;
+  }
+
+  /**
+   * Returns the business time elapsed in the day at {@code nanosOfDay}, clamped to the business
+   * hours. A time in a break counts as the end of the window before it.
+   */
+  long elapsedAt(long nanosOfDay) {
+    // last window opening at or before the time
+    int window = lastAtOrBefore(starts, nanosOfDay);
+    if (window < 0) {
+      return 0;
+    }
+    return elapsedBefore[window] + Math.min(nanosOfDay, ends[window]) - starts[window];
+  }
+
+  /**
+   * Returns the time of day once {@code elapsed} business nanos, from 0 to the length, have
+   * elapsed in the day. At the end of a window, {@code preferEnd} picks the end of that window
+   * over the start of the next.
+   */
+  long nanosOfDayAt(long elapsed, boolean preferEnd) {
+    if (starts.length == 0) {
+      return 0;
+    }
+    int window;
+    if (preferEnd) {
+      // first window ending at or after the elapsed time
+      window = Math.max(0, lastAtOrBefore(elapsedBefore, elapsed - 1));
+    } else {
+      // last window starting at or before the elapsed time
+      window = Math.min(starts.length - 1, lastAtOrBefore(elapsedBefore, elapsed));
+    }
+    return starts[window] + elapsed - elapsedBefore[window];
+  }
+
+  /**
+   * Returns the index of the last value at or before {@code key} among the first windows of
+   * {@code values}, -1 if none.
+   */
+  private int lastAtOrBefore(long[] values, long key) {
+    int low = 0;
+    int high = starts.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof DaySchedule)) {
+      return false;
+    }
+    DaySchedule other = (DaySchedule) obj;
+    return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("DaySchedule[");
+    for (int i = 0; i < starts.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(starts[i]).append('-').append(ends[i]);
+    }
+    return builder.append(']').toString();
+  }
+}
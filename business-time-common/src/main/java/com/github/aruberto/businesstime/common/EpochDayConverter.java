@@ -0,0 +1,25 @@
+package com.github.aruberto.businesstime.common;
+
+/**
+ * Converts date objects to and from epoch days, the number of days since 1970-01-01.
+ *
+ * @param <E> the type of date object
+ */
+public interface EpochDayConverter<E> {
+
+  /**
+   * Converts {@code date} to epoch days.
+   *
+   * @param date the date to convert
+   * @return days since 1970-01-01
+   */
+  long toEpochDay(E date);
+
+  /**
+   * Converts {@code epochDay} to a date object.
+   *
+   * @param epochDay days since 1970-01-01
+   * @return the date
+   */
+  E fromEpochDay(long epochDay);
+}
@@ -0,0 +1,152 @@
+package com.github.aruberto.businesstime.common;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Compiled, primitive index of holidays as epoch days.
+ * <p>
+ * Holidays are kept as a sorted {@code int[]}, which answers membership and rank queries by
+ * binary search in O(log n) over any range. The first {@link #WINDOW_DAYS} days from the
+ * earliest holiday are additionally covered by a bitset with per-word running counts, so
+ * inside that window membership and rank are O(1) and never touch a boxed date.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class HolidayIndex implements Serializable {
+
+  private static final long serialVersionUID = -6270418135539473254L;
+
+  /**
+   * Number of days covered by the bitset, roughly 180 years.
+   */
+  static final int WINDOW_DAYS = 1 << 16;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final int[] days;
+  private final long windowStart;
+  private final long windowEnd;
+  private final long[] words;
+  private final int[] wordRanks;
+
+  /**
+   * Constructs an index of {@code epochDays}.
+   *
+   * @param epochDays holidays as epoch days, in any order, duplicates allowed
+   * @throws IllegalArgumentException if a holiday does not fit in an {@code int}
+   */
+  public HolidayIndex(long[] epochDays) {
+    int[] sorted = new int[epochDays.length];
+    for (int i = 0; i < epochDays.length; i++) {
+      if (epochDays[i] < Integer.MIN_VALUE || epochDays[i] > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("holiday out of range: epoch day " + epochDays[i]);
+      }
+      sorted[i] = (int) epochDays[i];
+    }
+    Arrays.sort(sorted);
+    int size = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (size == 0 || sorted[size - 1] != sorted[i]) {
+        sorted[size++] = sorted[i];
+      }
+    }
+    days = size == 0 ? EMPTY : Arrays.copyOf(sorted, size);
+
+    if (size == 0) {
+      windowStart = 0;
+      windowEnd = 0;
+      words = new long[0];
+      wordRanks = EMPTY;
+    } else {
+      windowStart = days[0];
+      long span = Math.min((long) days[size - 1] - windowStart + 1, WINDOW_DAYS);
+      words = new long[(int) ((span + 63) >>> 6)];
+      windowEnd = windowStart + ((long) words.length << 6);
+      for (int day : days) {
+        long offset = day - windowStart;
+        if (offset >= windowEnd - windowStart) {
+          break;
+        }
+        words[(int) (offset >>> 6)] |= 1L << offset;
+      }
+      wordRanks = new int[words.length];
+      for (int i = 1; i < words.length; i++) {
+        wordRanks[i] = wordRanks[i - 1] + Long.bitCount(words[i - 1]);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of distinct holidays.
+   *
+   * @return the number of holidays
+   */
+  public int size() {
+    return days.length;
+  }
+
+  /**
+   * Returns the holiday at {@code index} in ascending order.
+   *
+   * @param index position of the holiday, from 0 to {@code size() - 1}
+   * @return the holiday as an epoch day
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public long get(int index) {
+    return days[index];
+  }
+
+  /**
+   * Returns whether {@code epochDay} is a holiday.
+   *
+   * @param epochDay the day to check
+   * @return true if holiday
+   */
+  public boolean contains(long epochDay) {
+    if (epochDay >= windowStart && epochDay < windowEnd) {
+      long offset = epochDay - windowStart;
+      return (words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+    }
+    // nothing precedes the window, so only days after it are left to search
+    return epochDay >= windowEnd
+           && epochDay <= Integer.MAX_VALUE
+           && Arrays.binarySearch(days, (int) epochDay) >= 0;
+  }
+
+  /**
+   * Returns the number of holidays strictly before {@code epochDay}.
+   *
+   * @param epochDay the day to rank
+   * @return the number of holidays before {@code epochDay}
+   */
+  public int rank(long epochDay) {
+    if (days.length == 0 || epochDay <= days[0]) {
+      return 0;
+    }
+    if (epochDay < windowEnd) {
+      long offset = epochDay - windowStart;
+      int word = (int) (offset >>> 6);
+      return wordRanks[word] + Long.bitCount(words[word] & ((1L << offset) - 1));
+    }
+    if (epochDay > days[days.length - 1]) {
+      return days.length;
+    }
+    int index = Arrays.binarySearch(days, (int) epochDay);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Counts the holidays from {@code startInclusive} to {@code endInclusive}.
+   *
+   * @param startInclusive first day counted
+   * @param endInclusive last day counted
+   * @return the number of holidays in range, 0 if end is before start
+   */
+  public int count(long startInclusive, long endInclusive) {
+    if (endInclusive < startInclusive) {
+      return 0;
+    }
+    return rank(endInclusive + 1) - rank(startInclusive);
+  }
+}
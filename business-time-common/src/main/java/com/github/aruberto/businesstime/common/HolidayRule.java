@@ -0,0 +1,244 @@
+package com.github.aruberto.businesstime.common;
+
+import java.io.Serializable;
+
+/**
+ * A holiday that recurs every year, such as a fixed date, the nth weekday of a month or a day
+ * relative to Easter, optionally observed on a weekday when it falls on a weekend.
+ * <p>
+ * Months are numbered 1 to 12 and days of the week follow ISO-8601, 1 for Monday to 7 for
+ * Sunday. Dates are computed in the proleptic Gregorian calendar.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class HolidayRule implements Serializable {
+
+  private static final long serialVersionUID = -1427318532907312815L;
+
+  private static final int FIXED = 0;
+  private static final int NTH_WEEKDAY = 1;
+  private static final int EASTER = 2;
+
+  private static final int NOT_OBSERVED = 0;
+  private static final int OBSERVED_NEAREST = 1;
+  private static final int OBSERVED_MONDAY = 2;
+
+  /**
+   * Days from 0000-03-01, the start of the 400 year cycles of {@link #epochDay(int, int, int)},
+   * to 1970-01-01.
+   */
+  private static final long DAYS_0000_TO_1970 = 719468;
+  private static final long DAYS_PER_CYCLE = 146097;
+
+  private final int kind;
+  private final int month;
+  private final int value;
+  private final int dayOfWeek;
+  private final int observed;
+
+  private HolidayRule(int kind, int month, int value, int dayOfWeek, int observed) {
+    this.kind = kind;
+    this.month = month;
+    this.value = value;
+    this.dayOfWeek = dayOfWeek;
+    this.observed = observed;
+  }
+
+  /**
+   * Returns a holiday on {@code month}/{@code dayOfMonth} every year. A date that does not
+   * exist in a year, such as February 29, gives no holiday that year.
+   *
+   * @param month the month, from 1 to 12
+   * @param dayOfMonth the day of the month, from 1 to 31
+   * @return the rule, not null
+   * @throws IllegalArgumentException if the month or day of the month is out of range
+   */
+  public static HolidayRule fixed(int month, int dayOfMonth) {
+    checkMonth(month);
+    if (dayOfMonth < 1 || dayOfMonth > 31) {
+      throw new IllegalArgumentException("invalid day of month: " + dayOfMonth);
+    }
+    return new HolidayRule(FIXED, month, dayOfMonth, 0, NOT_OBSERVED);
+  }
+
+  /**
+   * Returns a holiday on the {@code n}th {@code dayOfWeek} of {@code month} every year, counted
+   * from the end of the month when {@code n} is negative. The 5th weekday of a month that has
+   * only 4 gives no holiday that year.
+   *
+   * @param month the month, from 1 to 12
+   * @param dayOfWeek the day of the week, from 1 for Monday to 7 for Sunday
+   * @param n the occurrence, from 1 to 5 for the first to fifth, -1 to -5 for the last to fifth
+   *     last
+   * @return the rule, not null
+   * @throws IllegalArgumentException if a value is out of range
+   */
+  public static HolidayRule nthWeekday(int month, int dayOfWeek, int n) {
+    checkMonth(month);
+    if (dayOfWeek < 1 || dayOfWeek > 7) {
+      throw new IllegalArgumentException("invalid day of week: " + dayOfWeek);
+    }
+    if (n == 0 || n < -5 || n > 5) {
+      throw new IllegalArgumentException("invalid occurrence: " + n);
+    }
+    return new HolidayRule(NTH_WEEKDAY, month, n, dayOfWeek, NOT_OBSERVED);
+  }
+
+  /**
+   * Returns a holiday {@code offsetDays} days from Western Easter Sunday every year, such as -2
+   * for Good Friday or 1 for Easter Monday.
+   *
+   * @param offsetDays days from Easter Sunday, may be negative or positive
+   * @return the rule, not null
+   */
+  public static HolidayRule easter(int offsetDays) {
+    return new HolidayRule(EASTER, 0, offsetDays, 0, NOT_OBSERVED);
+  }
+
+  /**
+   * Returns a copy of this rule observed on the nearest weekday, Friday for a Saturday and
+   * Monday for a Sunday.
+   *
+   * @return the observed rule, not null
+   */
+  public HolidayRule observed() {
+    return new HolidayRule(kind, month, value, dayOfWeek, OBSERVED_NEAREST);
+  }
+
+  /**
+   * Returns a copy of this rule observed on the following Monday when it falls on a weekend.
+   *
+   * @return the observed rule, not null
+   */
+  public HolidayRule observedOnMonday() {
+    return new HolidayRule(kind, month, value, dayOfWeek, OBSERVED_MONDAY);
+  }
+
+  /**
+   * Returns the holiday in {@code year}.
+   *
+   * @param year the year
+   * @return the holiday as an epoch day, or {@link Long#MIN_VALUE} if none that year
+   */
+  public long epochDay(int year) {
+    long day;
+    switch (kind) {
+      case FIXED:
+        if (value > lengthOfMonth(year, month)) {
+          return Long.MIN_VALUE;
+        }
+        day = epochDay(year, month, value);
+        break;
+      case NTH_WEEKDAY:
+        day = nthWeekday(year);
+        if (day == Long.MIN_VALUE) {
+          return day;
+        }
+        break;
+      default:
+        day = easterSunday(year) + value;
+        break;
+    }
+    int weekday = dayOfWeek(day);
+    if (observed == OBSERVED_NEAREST && weekday >= 6) {
+      return day + (weekday == 6 ? -1 : 1);
+    }
+    if (observed == OBSERVED_MONDAY && weekday >= 6) {
+      return day + 8 - weekday;
+    }
+    return day;
+  }
+
+  private long nthWeekday(int year) {
+    long first = epochDay(year, month, 1);
+    long last = first + lengthOfMonth(year, month) - 1;
+    long day;
+    if (value > 0) {
+      day = first + Maths.floorMod(dayOfWeek - dayOfWeek(first), 7) + 7 * (value - 1);
+    } else {
+      day = last - Maths.floorMod(dayOfWeek(last) - dayOfWeek, 7) - 7 * (-value - 1);
+    }
+    return day < first || day > last ? Long.MIN_VALUE : day;
+  }
+
+  /**
+   * Returns Easter Sunday of {@code year} with the anonymous Gregorian algorithm.
+   */
+  static long easterSunday(int year) {
+    int a = year % 19;
+    int b = year / 100;
+    int c = year % 100;
+    int d = b / 4;
+    int e = b % 4;
+    int f = (b + 8) / 25;
+    int g = (b - f + 1) / 3;
+    int h = (19 * a + b - d - g + 15) % 30;
+    int i = c / 4;
+    int k = c % 4;
+    int l = (32 + 2 * e + 2 * i - h - k) % 7;
+    int m = (a + 11 * h + 22 * l) / 451;
+    int month = (h + l - 7 * m + 114) / 31;
+    int day = (h + l - 7 * m + 114) % 31 + 1;
+    return epochDay(year, month, day);
+  }
+
+  /**
+   * Returns the epoch day of {@code year}-{@code month}-{@code day}, counting years from March
+   * so that the leap day falls at the end of a year.
+   */
+  static long epochDay(int year, int month, int day) {
+    long y = month <= 2 ? year - 1L : year;
+    long era = Maths.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * Returns the ISO-8601 day of the week of {@code epochDay}, 1970-01-01 being a Thursday.
+   */
+  static int dayOfWeek(long epochDay) {
+    return (int) Maths.floorMod(epochDay + 3, 7) + 1;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    if (month == 2) {
+      boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+      return leap ? 29 : 28;
+    }
+    return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+  }
+
+  private static void checkMonth(int month) {
+    if (month < 1 || month > 12) {
+      throw new IllegalArgumentException("invalid month: " + month);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof HolidayRule)) {
+      return false;
+    }
+    HolidayRule other = (HolidayRule) obj;
+    return kind == other.kind
+           && month == other.month
+           && value == other.value
+           && dayOfWeek == other.dayOfWeek
+           && observed == other.observed;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = kind;
+    result = 31 * result + month;
+    result = 31 * result + value;
+    result = 31 * result + dayOfWeek;
+    result = 31 * result + observed;
+    return result;
+  }
+}
@@ -0,0 +1,192 @@
+package com.github.aruberto.businesstime.common;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holidays defined by {@link HolidayRule}s over a range of years, in place of an explicit set
+ * of dates.
+ * <p>
+ * A calendar keeps only the rules and the range, so it stays small however many years it
+ * covers, and the rules are expanded into epoch days when the calendar is compiled. Each year is
+ * expanded once on first request and cached, so recompiling copies of a calendar, or different
+ * calendars sharing the rules, reuses the expansions.
+ * <p>
+ * The holidays of the rules are only known within the range of years, so a calendar with rules
+ * covers only the days from {@link #getFirstEpochDay()} to {@link #getLastEpochDay()} and
+ * throws on days outside them, rather than treating them as days without rule holidays.
+ * <p>
+ * Instances are immutable, apart from the cache, and thread safe.
+ */
+public final class HolidayRules implements Serializable {
+
+  private static final long serialVersionUID = 6083120757470924301L;
+
+  private final int fromYear;
+  private final int toYear;
+  private final HolidayRule[] rules;
+  private final transient ConcurrentMap<Integer, long[]> years;
+
+  /**
+   * Constructs holidays following {@code rules} from {@code fromYear} to {@code toYear}.
+   *
+   * @param fromYear the first year with holidays
+   * @param toYear the last year with holidays, inclusive
+   * @param rules the holiday rules, not null
+   * @throws IllegalArgumentException if {@code toYear} is before {@code fromYear}
+   */
+  public HolidayRules(int fromYear, int toYear, HolidayRule... rules) {
+    if (toYear < fromYear) {
+      throw new IllegalArgumentException(
+          "last year " + toYear + " must not be before first year " + fromYear);
+    }
+    this.fromYear = fromYear;
+    this.toYear = toYear;
+    this.rules = rules.clone();
+    this.years = new ConcurrentHashMap<Integer, long[]>();
+  }
+
+  /**
+   * Returns the first year with holidays.
+   *
+   * @return the first year
+   */
+  public int getFromYear() {
+    return fromYear;
+  }
+
+  /**
+   * Returns the last year with holidays.
+   *
+   * @return the last year, inclusive
+   */
+  public int getToYear() {
+    return toYear;
+  }
+
+  /**
+   * Returns the first day of the first year with holidays.
+   *
+   * @return January 1 of the first year as an epoch day
+   */
+  public long getFirstEpochDay() {
+    return HolidayRule.epochDay(fromYear, 1, 1);
+  }
+
+  /**
+   * Returns the last day of the last year with holidays.
+   *
+   * @return December 31 of the last year as an epoch day
+   */
+  public long getLastEpochDay() {
+    return HolidayRule.epochDay(toYear, 12, 31);
+  }
+
+  /**
+   * Returns the holiday rules.
+   *
+   * @return an unmodifiable list of rules, not null
+   */
+  public List<HolidayRule> getRules() {
+    return Collections.unmodifiableList(Arrays.asList(rules));
+  }
+
+  /**
+   * Returns the holidays of {@code year}, expanding the rules on the first request for the
+   * year.
+   *
+   * @param year the year
+   * @return the holidays as epoch days in rule order, empty outside the range of years
+   */
+  public long[] epochDays(int year) {
+    return yearDays(year).clone();
+  }
+
+  /**
+   * Returns the holidays falling on the days of the range, from {@link #getFirstEpochDay()} to
+   * {@link #getLastEpochDay()}. The years either side of the range are expanded too, as a
+   * holiday observed on a weekday may move into a neighbouring year, such as a New Year's Day
+   * on a Saturday observed on the Friday before.
+   *
+   * @return the holidays as epoch days, in year order
+   */
+  public long[] epochDays() {
+    long first = getFirstEpochDay();
+    long last = getLastEpochDay();
+    long[] days = new long[0];
+    int size = 0;
+    long lastYear = Math.min(toYear + 1L, Integer.MAX_VALUE);
+    for (long year = Math.max(fromYear - 1L, Integer.MIN_VALUE); year <= lastYear; year++) {
+      long[] expanded = expandedDays((int) year);
+      if (size + expanded.length > days.length) {
+        days = Arrays.copyOf(days, Math.max(2 * days.length, size + expanded.length));
+      }
+      for (long day : expanded) {
+        if (day >= first && day <= last) {
+          days[size++] = day;
+        }
+      }
+    }
+    return Arrays.copyOf(days, size);
+  }
+
+  /**
+   * Returns the cached holidays of {@code year}, not to be modified.
+   */
+  long[] yearDays(int year) {
+    return year < fromYear || year > toYear ? new long[0] : expandedDays(year);
+  }
+
+  /**
+   * Returns the cached holidays the rules give for {@code year}, in or out of the range.
+   */
+  private long[] expandedDays(int year) {
+    long[] days = years.get(year);
+    if (days != null) {
+      return days;
+    }
+    days = new long[rules.length];
+    int size = 0;
+    for (HolidayRule rule : rules) {
+      long day = rule.epochDay(year);
+      if (day != Long.MIN_VALUE) {
+        days[size++] = day;
+      }
+    }
+    days = Arrays.copyOf(days, size);
+    // threads expanding the same year together agree on the first expansion cached
+    long[] previous = years.putIfAbsent(year, days);
+    return previous == null ? days : previous;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof HolidayRules)) {
+      return false;
+    }
+    HolidayRules other = (HolidayRules) obj;
+    return fromYear == other.fromYear
+           && toYear == other.toYear
+           && Arrays.equals(rules, other.rules);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = fromYear;
+    result = 31 * result + toYear;
+    result = 31 * result + Arrays.hashCode(rules);
+    return result;
+  }
+
+  private Object readResolve() {
+    // recreate the transient cache
+    return new HolidayRules(fromYear, toYear, rules);
+  }
+}
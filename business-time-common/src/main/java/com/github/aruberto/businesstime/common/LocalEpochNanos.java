@@ -0,0 +1,67 @@
+package com.github.aruberto.businesstime.common;
+
+/**
+ * Packs a date and time of day into a single {@code long} of nanos elapsed since
+ * 1970-01-01T00:00 on the local time-line, so that results of primitive calculations can be
+ * returned without allocating.
+ * <p>
+ * The packed value covers the epoch days from {@link #MIN_EPOCH_DAY} to {@link #MAX_EPOCH_DAY},
+ * roughly the years 1677 to 2262, and packing a date time outside them throws rather than wraps.
+ */
+public final class LocalEpochNanos {
+
+  /**
+   * First epoch day that can be packed, 1677-09-22.
+   */
+  public static final long MIN_EPOCH_DAY = Long.MIN_VALUE / Constants.NANOS_PER_DAY;
+
+  /**
+   * Last epoch day that can be packed, 2262-04-10.
+   */
+  public static final long MAX_EPOCH_DAY = Long.MAX_VALUE / Constants.NANOS_PER_DAY - 1;
+
+  private LocalEpochNanos() {
+  }
+
+  /**
+   * Packs {@code epochDay} and {@code nanosOfDay}.
+   *
+   * @param epochDay days since 1970-01-01
+   * @param nanosOfDay nanos since midnight
+   * @return nanos since 1970-01-01T00:00
+   * @throws ArithmeticException if the date time is too far from 1970 to pack
+   */
+  public static long of(long epochDay, long nanosOfDay) {
+    return Maths.addExact(Maths.multiplyExact(epochDay, Constants.NANOS_PER_DAY), nanosOfDay);
+  }
+
+  /**
+   * Returns whether every time of day on {@code epochDay} can be packed.
+   *
+   * @param epochDay days since 1970-01-01
+   * @return true if {@code epochDay} is from {@link #MIN_EPOCH_DAY} to {@link #MAX_EPOCH_DAY}
+   */
+  public static boolean isSupported(long epochDay) {
+    return epochDay >= MIN_EPOCH_DAY && epochDay <= MAX_EPOCH_DAY;
+  }
+
+  /**
+   * Extracts the epoch day from {@code localEpochNanos}.
+   *
+   * @param localEpochNanos nanos since 1970-01-01T00:00
+   * @return days since 1970-01-01
+   */
+  public static long toEpochDay(long localEpochNanos) {
+    return Maths.floorDiv(localEpochNanos, Constants.NANOS_PER_DAY);
+  }
+
+  /**
+   * Extracts the nanos of day from {@code localEpochNanos}.
+   *
+   * @param localEpochNanos nanos since 1970-01-01T00:00
+   * @return nanos since midnight
+   */
+  public static long toNanosOfDay(long localEpochNanos) {
+    return Maths.floorMod(localEpochNanos, Constants.NANOS_PER_DAY);
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.aruberto.businesstime.common;
+
+/**
+ * Integer arithmetic helpers not available before Java 8.
+ */
+final class Maths {
+
+  private Maths() {
+  }
+
+  /**
+   * Returns the largest value less than or equal to the algebraic quotient {@code x / y}.
+   */
+  static long floorDiv(long x, long y) {
+    long q = x / y;
+    return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+  }
+
+  /**
+   * Returns {@code x - floorDiv(x, y) * y}, which has the same sign as {@code y}.
+   */
+  static long floorMod(long x, long y) {
+    return x - floorDiv(x, y) * y;
+  }
+
+  /**
+   * Returns {@code x * y}, throwing if the result overflows a long.
+   */
+  static long multiplyExact(long x, long y) {
+    long r = x * y;
+    if (y != 0 && (r / y != x || x == Long.MIN_VALUE && y == -1)) {
+      throw new ArithmeticException("long overflow");
+    }
+    return r;
+  }
+
+  /**
+   * Returns {@code x + y}, throwing if the result overflows a long.
+   */
+  static long addExact(long x, long y) {
+    long r = x + y;
+    if (((x ^ r) & (y ^ r)) < 0) {
+      throw new ArithmeticException("long overflow");
+    }
+    return r;
+  }
+}
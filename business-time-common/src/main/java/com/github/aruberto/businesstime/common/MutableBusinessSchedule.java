@@ -0,0 +1,309 @@
+package com.github.aruberto.businesstime.common;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Business time arithmetic over a {@link BusinessSchedule} whose days can be closed or given
+ * other business hours after it is built, such as closures declared during the day.
+ * <p>
+ * The days from {@code firstEpochDay} on, for {@code dayCount} days, are mutable. Their business
+ * nanos are kept in a Fenwick tree, so the ordinal at the start of a day is the base ordinal of
+ * the first day plus a prefix sum, changing a day updates O(log days) tree nodes, and the day
+ * holding an ordinal is found by descending the tree. Days before the range follow the base
+ * schedule and days after it follow the base schedule shifted by the business nanos the changes
+ * added or removed, so moves and durations cost O(log days) wherever they go.
+ * <p>
+ * Date times are packed as {@link LocalEpochNanos}. Instances are thread safe: changes are
+ * visible to every query that starts after they return.
+ */
+public final class MutableBusinessSchedule {
+
+  private final BusinessSchedule base;
+  private final long firstEpochDay;
+  private final long firstOrdinal;
+  private final DaySchedule[] hours;
+  private final long[] tree;
+  private final int highestStep;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Constructs a schedule following {@code base}, where the {@code dayCount} days from
+   * {@code firstEpochDay} on can be changed.
+   *
+   * @param base the schedule to start from, not null
+   * @param firstEpochDay the first day that can be changed
+   * @param dayCount the number of days that can be changed
+   * @throws NullPointerException if {@code base} is null
+   * @throws IllegalArgumentException if {@code dayCount} is negative
+   */
+  public MutableBusinessSchedule(BusinessSchedule base, long firstEpochDay, int dayCount) {
+    if (base == null) {
+      throw new NullPointerException(
+          "base schedule cannot be null, use the compiled schedule of a calendar");
+    }
+    if (dayCount < 0) {
+      throw new IllegalArgumentException("day count must not be negative but was " + dayCount);
+    }
+    this.base = base;
+    this.firstEpochDay = firstEpochDay;
+    firstOrdinal = base.businessNanosBefore(firstEpochDay);
+    hours = new DaySchedule[dayCount];
+    tree = new long[dayCount + 1];
+    for (int i = 0; i < dayCount; i++) {
+      hours[i] = base.getDaySchedule(firstEpochDay + i);
+      tree[i + 1] = hours[i].getLength();
+    }
+    // each node adds itself to its parent once, building the tree in linear time
+    for (int i = 1; i <= dayCount; i++) {
+      int parent = i + (i & -i);
+      if (parent <= dayCount) {
+        tree[parent] += tree[i];
+      }
+    }
+    highestStep = Integer.highestOneBit(Math.max(1, dayCount));
+  }
+
+  /**
+   * Returns the schedule this one started from.
+   *
+   * @return the base schedule, not null
+   */
+  public BusinessSchedule getBase() {
+    return base;
+  }
+
+  /**
+   * Returns the business hours of {@code epochDay}.
+   *
+   * @param epochDay the day
+   * @return the business hours, {@link DaySchedule#CLOSED} if closed
+   */
+  public DaySchedule getDaySchedule(long epochDay) {
+    long index = epochDay - firstEpochDay;
+    if (index < 0 || index >= hours.length) {
+      return base.getDaySchedule(epochDay);
+    }
+    lock.readLock().lock();
+    try {
+      return hours[(int) index];
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Sets the business hours of {@code epochDay}.
+   *
+   * @param epochDay the day, within the mutable range
+   * @param dayHours the business hours of the day, null means closed
+   * @throws IllegalArgumentException if {@code epochDay} is outside the mutable range
+   */
+  public void setDaySchedule(long epochDay, DaySchedule dayHours) {
+    int index = indexOf(epochDay);
+    DaySchedule value = dayHours == null ? DaySchedule.CLOSED : dayHours;
+    lock.writeLock().lock();
+    try {
+      long change = value.getLength() - hours[index].getLength();
+      hours[index] = value;
+      for (int i = index + 1; i < tree.length; i += i & -i) {
+        tree[i] += change;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Closes {@code epochDay}, like a holiday.
+   *
+   * @param epochDay the day, within the mutable range
+   * @throws IllegalArgumentException if {@code epochDay} is outside the mutable range
+   */
+  public void close(long epochDay) {
+    setDaySchedule(epochDay, DaySchedule.CLOSED);
+  }
+
+  /**
+   * Gives {@code epochDay} back the business hours of the base schedule.
+   *
+   * @param epochDay the day, within the mutable range
+   * @throws IllegalArgumentException if {@code epochDay} is outside the mutable range
+   */
+  public void reset(long epochDay) {
+    setDaySchedule(epochDay, base.getDaySchedule(epochDay));
+  }
+
+  /**
+   * Returns the business ordinal at the start of {@code epochDay}.
+   *
+   * @param epochDay the day
+   * @return business nanos elapsed before the day
+   */
+  public long businessNanosBefore(long epochDay) {
+    lock.readLock().lock();
+    try {
+      return nanosBefore(epochDay);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the business ordinal of {@code localEpochNanos}. Times outside business hours map
+   * to the ordinal of the closest earlier business instant.
+   *
+   * @param localEpochNanos the date time, packed as {@link LocalEpochNanos}
+   * @return business nanos elapsed since the schedule epoch
+   */
+  public long toOrdinal(long localEpochNanos) {
+    lock.readLock().lock();
+    try {
+      return ordinalOf(localEpochNanos);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the date time at business ordinal {@code ordinal}, inverse of
+   * {@link #toOrdinal(long)} over business hours.
+   *
+   * @param ordinal business nanos elapsed since the schedule epoch
+   * @param preferEnd whether an ordinal between two business days maps to the end of the
+   *     earlier day rather than the start of the later one
+   * @return the date time, packed as {@link LocalEpochNanos}
+   */
+  public long fromOrdinal(long ordinal, boolean preferEnd) {
+    lock.readLock().lock();
+    try {
+      return dateTimeAt(ordinal, preferEnd);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Moves {@code localEpochNanos} by {@code nanos} business nanos, see
+   * {@link BusinessSchedule#move(long, long)}.
+   *
+   * @param localEpochNanos the date time, packed as {@link LocalEpochNanos}
+   * @param nanos business nanos to move, may be negative or positive
+   * @return the moved date time, packed as {@link LocalEpochNanos}
+   */
+  public long move(long localEpochNanos, long nanos) {
+    lock.readLock().lock();
+    try {
+      long ordinal = ordinalOf(localEpochNanos);
+      if (nanos != 0) {
+        return dateTimeAt(ordinal + nanos, nanos > 0);
+      }
+      long end = dateTimeAt(ordinal, true);
+      return end == localEpochNanos ? end : dateTimeAt(ordinal, false);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the business nanos from {@code startLocalEpochNanos} to {@code endLocalEpochNanos}.
+   *
+   * @param startLocalEpochNanos the start, packed as {@link LocalEpochNanos}
+   * @param endLocalEpochNanos the end, packed as {@link LocalEpochNanos}
+   * @return business nanos, negative if end is before start
+   */
+  public long businessNanosBetween(long startLocalEpochNanos, long endLocalEpochNanos) {
+    lock.readLock().lock();
+    try {
+      return ordinalOf(endLocalEpochNanos) - ordinalOf(startLocalEpochNanos);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int indexOf(long epochDay) {
+    long index = epochDay - firstEpochDay;
+    if (index < 0 || index >= hours.length) {
+      throw new IllegalArgumentException(
+          "epoch day " + epochDay + " is outside " + firstEpochDay + " to "
+          + (firstEpochDay + hours.length - 1));
+    }
+    return (int) index;
+  }
+
+  private long nanosBefore(long epochDay) {
+    long index = epochDay - firstEpochDay;
+    if (index <= 0) {
+      return base.businessNanosBefore(epochDay);
+    }
+    if (index <= hours.length) {
+      return firstOrdinal + prefix((int) index);
+    }
+    return base.businessNanosBefore(epochDay) + shift();
+  }
+
+  private long ordinalOf(long localEpochNanos) {
+    long day = LocalEpochNanos.toEpochDay(localEpochNanos);
+    long index = day - firstEpochDay;
+    if (index < 0) {
+      return base.toOrdinal(localEpochNanos);
+    }
+    if (index >= hours.length) {
+      return base.toOrdinal(localEpochNanos) + shift();
+    }
+    return firstOrdinal + prefix((int) index)
+           + hours[(int) index].elapsedAt(LocalEpochNanos.toNanosOfDay(localEpochNanos));
+  }
+
+  private long dateTimeAt(long ordinal, boolean preferEnd) {
+    // the boundary belongs to the earlier day exactly when one nano before it does
+    long key = preferEnd ? ordinal - 1 : ordinal;
+    if (key < firstOrdinal) {
+      return base.fromOrdinal(ordinal, preferEnd);
+    }
+    long shift = shift();
+    if (key - firstOrdinal >= prefix(hours.length)) {
+      return base.fromOrdinal(ordinal - shift, preferEnd);
+    }
+    int index = lastDayAtOrBefore(key - firstOrdinal);
+    long elapsed = ordinal - firstOrdinal - prefix(index);
+    return LocalEpochNanos.of(firstEpochDay + index,
+                              hours[index].nanosOfDayAt(elapsed, preferEnd));
+  }
+
+  /**
+   * Returns the business nanos the changes added to every day after the mutable range.
+   */
+  private long shift() {
+    return firstOrdinal + prefix(hours.length)
+           - base.businessNanosBefore(firstEpochDay + hours.length);
+  }
+
+  /**
+   * Returns the business nanos of the first {@code count} days of the range.
+   */
+  private long prefix(int count) {
+    long sum = 0;
+    for (int i = count; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the index of the latest day of the range whose ordinal at start, relative to the
+   * first day, is at most {@code relative}, descending the tree one level per step.
+   */
+  private int lastDayAtOrBefore(long relative) {
+    int position = 0;
+    long remaining = relative;
+    for (int step = highestStep; step > 0; step >>>= 1) {
+      int next = position + step;
+      if (next < tree.length && tree[next] <= remaining) {
+        position = next;
+        remaining -= tree[next];
+      }
+    }
+    return position;
+  }
+}
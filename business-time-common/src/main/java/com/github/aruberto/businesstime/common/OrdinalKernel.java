@@ -0,0 +1,62 @@
+package com.github.aruberto.businesstime.common;
+
+/**
+ * Maps packed date times to business ordinals and back in bulk, over the business day start
+ * and end time of a {@link BusinessDayCalculator}. This is the loop behind
+ * {@link BusinessDateTimeCalculator#toOrdinalAll(long[], int, int, long, long,
+ * BusinessDayCalculator, long[])} and {@link BusinessDateTimeCalculator#fromOrdinalAll(long[],
+ * int, int, long, long, BusinessDayCalculator, boolean, long[])}, which check the ranges and
+ * run the kernel {@link OrdinalKernels#preferred()} returns.
+ * <p>
+ * Implementations hold no state and may be shared between threads.
+ */
+public interface OrdinalKernel {
+
+  /**
+   * Maps the {@code length} date times of {@code localEpochNanos} from {@code offset} to their
+   * business ordinals, writing them to the same positions of {@code ordinals}, each the same as
+   * {@link BusinessDateTimeCalculator#toOrdinal(long, long, long, long, BusinessDayCalculator)}
+   * would return. {@code ordinals} may be {@code localEpochNanos}.
+   *
+   * @param calc {@link BusinessDayCalculator} to use to count days
+   * @param localEpochNanos date times, packed as {@link LocalEpochNanos}
+   * @param offset position of the first date time to map, checked by the caller
+   * @param length number of date times to map, checked by the caller
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param ordinals array to write the business ordinals to
+   * @throws IllegalArgumentException if a day is not covered
+   */
+  void toOrdinals(BusinessDayCalculator calc,
+                  long[] localEpochNanos,
+                  int offset,
+                  int length,
+                  long dayStartNanosOfDay,
+                  long dayEndNanosOfDay,
+                  long[] ordinals);
+
+  /**
+   * Maps the {@code length} business ordinals of {@code ordinals} from {@code offset} back to
+   * date times, writing them to the same positions of {@code localEpochNanos}, each the same as
+   * {@link BusinessDateTimeCalculator#fromOrdinal(long, long, long, BusinessDayCalculator,
+   * boolean)} would return. {@code localEpochNanos} may be {@code ordinals}.
+   *
+   * @param calc {@link BusinessDayCalculator} to use to find days
+   * @param ordinals business nanos since the calendar epoch
+   * @param offset position of the first ordinal to map, checked by the caller
+   * @param length number of ordinals to map, checked by the caller
+   * @param dayStartNanosOfDay business day start time as nanos since midnight
+   * @param dayEndNanosOfDay business day end time as nanos since midnight
+   * @param preferEnd whether a day boundary maps to the end of the earlier business day
+   * @param localEpochNanos array to write the date times to, packed as {@link LocalEpochNanos}
+   * @throws IllegalArgumentException if a business day is not covered
+   */
+  void fromOrdinals(BusinessDayCalculator calc,
+                    long[] ordinals,
+                    int offset,
+                    int length,
+                    long dayStartNanosOfDay,
+                    long dayEndNanosOfDay,
+                    boolean preferEnd,
+                    long[] localEpochNanos);
+}
@@ -0,0 +1,90 @@
+package com.github.aruberto.businesstime.common;
+
+/**
+ * The {@link OrdinalKernel}s available to this JVM.
+ * <p>
+ * The scalar kernel always is. The vector kernel lives in the optional business-time-vector
+ * module, built on {@code jdk.incubator.vector}, and is loaded by name on first use, so this
+ * module keeps running on Java 6. It is only available when that module is on the class path
+ * and the JVM resolves the incubator module, on JDK 16 or later started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise the scalar kernel is used.
+ */
+public final class OrdinalKernels {
+
+  /**
+   * Name of the vector kernel class in the business-time-vector module.
+   */
+  static final String VECTOR_KERNEL =
+      "com.github.aruberto.businesstime.vector.VectorOrdinalKernel";
+
+  private static final OrdinalKernel SCALAR = new OrdinalKernel() {
+    public void toOrdinals(BusinessDayCalculator calc,
+                           long[] localEpochNanos,
+                           int offset,
+                           int length,
+                           long dayStartNanosOfDay,
+                           long dayEndNanosOfDay,
+                           long[] ordinals) {
+      calc.toOrdinals(localEpochNanos, offset, length,
+                      dayStartNanosOfDay, dayEndNanosOfDay, ordinals);
+    }
+
+    public void fromOrdinals(BusinessDayCalculator calc,
+                             long[] ordinals,
+                             int offset,
+                             int length,
+                             long dayStartNanosOfDay,
+                             long dayEndNanosOfDay,
+                             boolean preferEnd,
+                             long[] localEpochNanos) {
+      calc.fromOrdinals(ordinals, offset, length,
+                        dayStartNanosOfDay, dayEndNanosOfDay, preferEnd, localEpochNanos);
+    }
+  };
+
+  private static final OrdinalKernel VECTOR = load(VECTOR_KERNEL);
+
+  private OrdinalKernels() {
+  }
+
+  /**
+   * Returns the scalar kernel, whose loops avoid data dependent branches.
+   *
+   * @return the scalar kernel, not null
+   */
+  public static OrdinalKernel scalar() {
+    return SCALAR;
+  }
+
+  /**
+   * Returns the vector kernel if this JVM can run it.
+   *
+   * @return the vector kernel, null if unavailable
+   */
+  public static OrdinalKernel vector() {
+    return VECTOR;
+  }
+
+  /**
+   * Returns the vector kernel if this JVM can run it, otherwise the scalar kernel.
+   *
+   * @return the kernel to use, not null
+   */
+  public static OrdinalKernel preferred() {
+    return VECTOR != null ? VECTOR : SCALAR;
+  }
+
+  /**
+   * Returns an instance of the kernel class {@code className}, or null if it is missing or
+   * cannot be linked, such as when the incubator module it needs is not resolved.
+   */
+  static OrdinalKernel load(String className) {
+    try {
+      return (OrdinalKernel) Class.forName(className).newInstance();
+    } catch (Exception e) {
+      return null;
+    } catch (LinkageError e) {
+      return null;
+    }
+  }
+}
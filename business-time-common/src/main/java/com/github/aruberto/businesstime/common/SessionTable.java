@@ -0,0 +1,418 @@
+package com.github.aruberto.businesstime.common;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Business time arithmetic over business sessions in absolute time, as nanos since the epoch
+ * 1970-01-01T00:00Z.
+ * <p>
+ * Where a {@link BusinessSchedule} keeps business hours on a local clock, a session table keeps
+ * the instants each session opens and closes, so sessions of calendars in different time zones
+ * can be combined, and daylight saving time, including weeks where the zones change their
+ * clocks on different dates, is resolved once when the sessions are listed. The business nanos
+ * before each session are kept as a cumulative column, so mapping an instant to its business
+ * ordinal, and back, is a binary search over the sessions.
+ * <p>
+ * A table covers a finite range of time, from {@link #getStartEpochNanos()} to
+ * {@link #getEndEpochNanos()}, and only answers queries within it.
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class SessionTable implements Serializable {
+
+  private static final long serialVersionUID = -6950183215484772049L;
+
+  private final long startEpochNanos;
+  private final long endEpochNanos;
+  private final long[] opens;
+  private final long[] closes;
+  private final long[] nanosBefore;
+
+  /**
+   * Constructs a table covering {@code startEpochNanos} to {@code endEpochNanos} with the
+   * sessions delimited by {@code sessions}, given as the open and close of each session in
+   * order of opening. Overlapping and touching sessions are merged into one.
+   *
+   * @param startEpochNanos start of the range covered, as nanos since the epoch
+   * @param endEpochNanos end of the range covered, as nanos since the epoch
+   * @param sessions opens and closes as nanos since the epoch, within the range covered
+   * @throws IllegalArgumentException if the range ends before it starts, there is an odd number
+   *     of boundaries, a session is outside the range, closes before it opens or opens before
+   *     the previous session
+   */
+  public SessionTable(long startEpochNanos, long endEpochNanos, long... sessions) {
+    if (endEpochNanos < startEpochNanos) {
+      throw new IllegalArgumentException(
+          "range must not end before it starts but was " + startEpochNanos + " to "
+          + endEpochNanos);
+    }
+    if (sessions.length % 2 != 0) {
+      throw new IllegalArgumentException(
+          "expected an open and close per session but found " + sessions.length
+          + " boundaries");
+    }
+    long[] merged = new long[sessions.length];
+    int size = 0;
+    long previous = startEpochNanos;
+    for (int i = 0; i < sessions.length; i += 2) {
+      long open = sessions[i];
+      long close = sessions[i + 1];
+      if (open < previous || close < open || close > endEpochNanos) {
+        throw new IllegalArgumentException(
+            "sessions must be in order within the range but found " + open + " to " + close
+            + " after " + previous);
+      }
+      previous = open;
+      if (open == close) {
+        continue;
+      }
+      if (size > 0 && open <= merged[size - 1]) {
+        merged[size - 1] = Math.max(merged[size - 1], close);
+      } else {
+        merged[size++] = open;
+        merged[size++] = close;
+      }
+    }
+    this.startEpochNanos = startEpochNanos;
+    this.endEpochNanos = endEpochNanos;
+    int count = size / 2;
+    opens = new long[count];
+    closes = new long[count];
+    nanosBefore = new long[count + 1];
+    for (int i = 0; i < count; i++) {
+      opens[i] = merged[2 * i];
+      closes[i] = merged[2 * i + 1];
+      nanosBefore[i + 1] = nanosBefore[i] + closes[i] - opens[i];
+    }
+  }
+
+  /**
+   * Returns a table open whenever any of {@code tables} is open, over the range all of them
+   * cover, such as the hours at least one of several desks is staffed.
+   *
+   * @param tables the tables to combine, at least one
+   * @return the combined table, not null
+   * @throws IllegalArgumentException if no tables are given or their ranges do not overlap
+   */
+  public static SessionTable union(SessionTable... tables) {
+    return combine(tables, true);
+  }
+
+  /**
+   * Returns a table open only when all of {@code tables} are open, over the range all of them
+   * cover, such as the hours two desks in different time zones are staffed together.
+   *
+   * @param tables the tables to combine, at least one
+   * @return the combined table, not null
+   * @throws IllegalArgumentException if no tables are given or their ranges do not overlap
+   */
+  public static SessionTable intersection(SessionTable... tables) {
+    return combine(tables, false);
+  }
+
+  private static SessionTable combine(SessionTable[] tables, boolean union) {
+    if (tables.length == 0) {
+      throw new IllegalArgumentException("expected at least one table");
+    }
+    long start = Long.MIN_VALUE;
+    long end = Long.MAX_VALUE;
+    for (SessionTable table : tables) {
+      start = Math.max(start, table.startEpochNanos);
+      end = Math.min(end, table.endEpochNanos);
+    }
+    if (end < start) {
+      throw new IllegalArgumentException("tables must cover a common range");
+    }
+    // start from the identity of the combination, the range is open throughout or never
+    long[] sessions = union ? new long[0] : new long[] {start, end};
+    for (SessionTable table : tables) {
+      long[] clipped = table.sessionsWithin(start, end);
+      sessions = union ? unionOf(sessions, clipped) : intersectionOf(sessions, clipped);
+    }
+    return new SessionTable(start, end, sessions);
+  }
+
+  /**
+   * Returns the sessions, cut to {@code start} and {@code end}, as opens and closes.
+   */
+  private long[] sessionsWithin(long start, long end) {
+    long[] sessions = new long[2 * opens.length];
+    int size = 0;
+    for (int i = 0; i < opens.length; i++) {
+      long open = Math.max(opens[i], start);
+      long close = Math.min(closes[i], end);
+      if (open < close) {
+        sessions[size++] = open;
+        sessions[size++] = close;
+      }
+    }
+    return Arrays.copyOf(sessions, size);
+  }
+
+  private static long[] unionOf(long[] a, long[] b) {
+    long[] sessions = new long[a.length + b.length];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length || j < b.length) {
+      if (j == b.length || i < a.length && a[i] <= b[j]) {
+        sessions[size++] = a[i++];
+        sessions[size++] = a[i++];
+      } else {
+        sessions[size++] = b[j++];
+        sessions[size++] = b[j++];
+      }
+    }
+    // sessions in order of opening, the constructor merges those overlapping
+    return sessions;
+  }
+
+  private static long[] intersectionOf(long[] a, long[] b) {
+    long[] sessions = new long[a.length + b.length];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      long open = Math.max(a[i], b[j]);
+      long close = Math.min(a[i + 1], b[j + 1]);
+      if (open < close) {
+        sessions[size++] = open;
+        sessions[size++] = close;
+      }
+      // the session closing first cannot overlap any later session of the other table
+      if (a[i + 1] < b[j + 1]) {
+        i += 2;
+      } else {
+        j += 2;
+      }
+    }
+    return Arrays.copyOf(sessions, size);
+  }
+
+  /**
+   * Returns the start of the range covered.
+   *
+   * @return nanos since the epoch
+   */
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  /**
+   * Returns the end of the range covered.
+   *
+   * @return nanos since the epoch
+   */
+  public long getEndEpochNanos() {
+    return endEpochNanos;
+  }
+
+  /**
+   * Returns the number of sessions.
+   *
+   * @return the number of sessions, 0 if never open
+   */
+  public int getSessionCount() {
+    return opens.length;
+  }
+
+  /**
+   * Returns the open of session {@code index}.
+   *
+   * @param index the session, from 0 to {@code getSessionCount() - 1}
+   * @return nanos since the epoch
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public long getOpenEpochNanos(int index) {
+    return opens[index];
+  }
+
+  /**
+   * Returns the close of session {@code index}.
+   *
+   * @param index the session, from 0 to {@code getSessionCount() - 1}
+   * @return nanos since the epoch
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public long getCloseEpochNanos(int index) {
+    return closes[index];
+  }
+
+  /**
+   * Returns the business nanos of the whole range covered.
+   *
+   * @return business nanos
+   */
+  public long getBusinessNanos() {
+    return nanosBefore[opens.length];
+  }
+
+  /**
+   * Returns the business ordinal of {@code epochNanos}, the business nanos elapsed since the
+   * start of the range. Instants outside sessions map to the ordinal of the closest earlier
+   * business instant.
+   *
+   * @param epochNanos the instant, as nanos since the epoch
+   * @return business nanos elapsed since the start of the range
+   * @throws IllegalArgumentException if the instant is outside the range
+   */
+  public long toOrdinal(long epochNanos) {
+    checkWithin(epochNanos);
+    // last session opening at or before the instant
+    int session = lastAtOrBefore(opens, epochNanos);
+    if (session < 0) {
+      return 0;
+    }
+    return nanosBefore[session] + Math.min(epochNanos, closes[session]) - opens[session];
+  }
+
+  /**
+   * Returns the instant at business ordinal {@code ordinal}, inverse of
+   * {@link #toOrdinal(long)} within sessions.
+   *
+   * @param ordinal business nanos elapsed since the start of the range
+   * @param preferEnd whether an ordinal between two sessions maps to the close of the earlier
+   *     session rather than the open of the later one
+   * @return the instant, as nanos since the epoch
+   * @throws IllegalArgumentException if the ordinal is outside the range
+   */
+  public long fromOrdinal(long ordinal, boolean preferEnd) {
+    if (ordinal < 0 || ordinal > getBusinessNanos() || opens.length == 0) {
+      throw new IllegalArgumentException(
+          "business ordinal " + ordinal + " is outside 0 to " + getBusinessNanos());
+    }
+    int session;
+    if (preferEnd) {
+      // first session closing at or after the ordinal
+      session = Math.max(0, lastAtOrBefore(nanosBefore, ordinal - 1));
+    } else {
+      // last session opening at or before the ordinal
+      session = Math.min(opens.length - 1, lastAtOrBefore(nanosBefore, ordinal));
+    }
+    return opens[session] + ordinal - nanosBefore[session];
+  }
+
+  /**
+   * Moves {@code epochNanos} by {@code nanos} business nanos, see
+   * {@link BusinessSchedule#move(long, long)}.
+   *
+   * @param epochNanos the instant, as nanos since the epoch
+   * @param nanos business nanos to move, may be negative or positive
+   * @return the moved instant, as nanos since the epoch
+   * @throws IllegalArgumentException if the instant or the result is outside the range
+   */
+  public long move(long epochNanos, long nanos) {
+    if (nanos == 0) {
+      return normalize(epochNanos);
+    }
+    return fromOrdinal(toOrdinal(epochNanos) + nanos, nanos > 0);
+  }
+
+  /**
+   * Returns {@code epochNanos} if it is within a session, otherwise the open of the next
+   * session, or the close of the last session if none follows. Same as moving by 0 business
+   * nanos, with a single search over the sessions.
+   *
+   * @param epochNanos the instant, as nanos since the epoch
+   * @return the business instant, as nanos since the epoch
+   * @throws IllegalArgumentException if the instant is outside the range or there are no
+   *     sessions
+   */
+  public long normalize(long epochNanos) {
+    checkWithin(epochNanos);
+    if (opens.length == 0) {
+      throw new IllegalArgumentException("no sessions from " + startEpochNanos + " to "
+                                         + endEpochNanos);
+    }
+    int session = lastAtOrBefore(opens, epochNanos);
+    if (session >= 0 && epochNanos <= closes[session]) {
+      return epochNanos;
+    }
+    return session + 1 < opens.length ? opens[session + 1] : closes[opens.length - 1];
+  }
+
+  /**
+   * Moves every instant in {@code epochNanos} by {@code nanos} business nanos, writing the
+   * results to the same positions of {@code results}. Each result is the same as
+   * {@link #move(long, long)} would return and no objects are allocated per element, so
+   * timestamps arriving as nanos since the epoch are moved without being turned into date times.
+   * {@code results} may be {@code epochNanos} to move in place.
+   *
+   * @param epochNanos the instants, as nanos since the epoch
+   * @param nanos business nanos to move each instant, may be negative or positive
+   * @param results array to write the moved instants to, as nanos since the epoch
+   * @throws IllegalArgumentException if {@code results} is shorter than {@code epochNanos}, or
+   *     an instant or a result is outside the range
+   */
+  public void moveAll(long[] epochNanos, long nanos, long[] results) {
+    if (results.length < epochNanos.length) {
+      throw new IllegalArgumentException(
+          "expected room for " + epochNanos.length + " values but found " + results.length);
+    }
+    for (int i = 0; i < epochNanos.length; i++) {
+      results[i] = move(epochNanos[i], nanos);
+    }
+  }
+
+  /**
+   * Returns the business nanos from {@code startEpochNanos} to {@code endEpochNanos}.
+   *
+   * @param startEpochNanos the start, as nanos since the epoch
+   * @param endEpochNanos the end, as nanos since the epoch
+   * @return business nanos, negative if end is before start
+   * @throws IllegalArgumentException if an instant is outside the range
+   */
+  public long businessNanosBetween(long startEpochNanos, long endEpochNanos) {
+    return toOrdinal(endEpochNanos) - toOrdinal(startEpochNanos);
+  }
+
+  private void checkWithin(long epochNanos) {
+    if (epochNanos < startEpochNanos || epochNanos > endEpochNanos) {
+      throw new IllegalArgumentException(
+          "instant " + epochNanos + " is outside " + startEpochNanos + " to " + endEpochNanos);
+    }
+  }
+
+  /**
+   * Returns the index of the last value at or before {@code key} among the first sessions of
+   * {@code values}, -1 if none.
+   */
+  private int lastAtOrBefore(long[] values, long key) {
+    int low = 0;
+    int high = opens.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof SessionTable)) {
+      return false;
+    }
+    SessionTable other = (SessionTable) obj;
+    return startEpochNanos == other.startEpochNanos
+           && endEpochNanos == other.endEpochNanos
+           && Arrays.equals(opens, other.opens)
+           && Arrays.equals(closes, other.closes);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = (int) (startEpochNanos ^ (startEpochNanos >>> 32));
+    result = 31 * result + (int) (endEpochNanos ^ (endEpochNanos >>> 32));
+    result = 31 * result + Arrays.hashCode(opens);
+    result = 31 * result + Arrays.hashCode(closes);
+    return result;
+  }
+}
@@ -0,0 +1,306 @@
+package com.github.aruberto.businesstime.common;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BusinessDateTimeCalculatorTest {
+
+  // 2014-12-11, a Thursday
+  private static final long THURSDAY = 16415;
+  private static final long NINE = 9 * Constants.NANOS_PER_HOUR;
+  private static final long FIVE = 17 * Constants.NANOS_PER_HOUR;
+
+  private final BusinessDateTimeCalculator<Long> calculator =
+      new BusinessDateTimeCalculator<Long>();
+  private final BusinessDayCalculator days =
+      new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[] {THURSDAY + 4});
+
+  @Test
+  public void move_3HoursEndOfWeek_3HoursLaterAfterWeekendAndHoliday() {
+    long result = calculator.move(THURSDAY + 1,
+                                  16 * Constants.NANOS_PER_HOUR,
+                                  3,
+                                  Constants.NANOS_PER_HOUR,
+                                  NINE,
+                                  FIVE,
+                                  days);
+
+    assertEquals("Friday 16:00 plus 3 hours should skip weekend and holiday Monday",
+                 LocalEpochNanos.of(THURSDAY + 5, 11 * Constants.NANOS_PER_HOUR),
+                 result);
+  }
+
+  @Test
+  public void move_Minus3HoursStartOfWeek_3HoursBeforeHolidayAndWeekend() {
+    long result = calculator.move(THURSDAY + 5,
+                                  10 * Constants.NANOS_PER_HOUR,
+                                  -3,
+                                  Constants.NANOS_PER_HOUR,
+                                  NINE,
+                                  FIVE,
+                                  days);
+
+    assertEquals("Tuesday 10:00 minus 3 hours should skip holiday Monday and weekend",
+                 LocalEpochNanos.of(THURSDAY + 1, 15 * Constants.NANOS_PER_HOUR),
+                 result);
+  }
+
+  @Test
+  public void businessNanosBetween_AcrossWeekendAndHoliday_BusinessHoursOnly() {
+    long nanos = calculator.businessNanosBetween(THURSDAY + 1,
+                                                 16 * Constants.NANOS_PER_HOUR,
+                                                 THURSDAY + 5,
+                                                 11 * Constants.NANOS_PER_HOUR,
+                                                 NINE,
+                                                 FIVE,
+                                                 days);
+
+    assertEquals("Friday 16:00 to Tuesday 11:00 should be 3 business hours",
+                 3 * Constants.NANOS_PER_HOUR,
+                 nanos);
+  }
+
+  @Test
+  public void businessDaysBetween_AcrossWeekendAndHoliday_WholeAndHalfDays() {
+    assertEquals("Thursday 10:00 to Tuesday 14:00 should be 2 business days",
+                 2,
+                 calculator.businessDaysBetween(THURSDAY, 10 * Constants.NANOS_PER_HOUR,
+                                                THURSDAY + 5, 14 * Constants.NANOS_PER_HOUR,
+                                                1, NINE, FIVE, days));
+    assertEquals("Thursday 10:00 to Tuesday 14:00 should be 5 half days",
+                 5,
+                 calculator.businessDaysBetween(THURSDAY, 10 * Constants.NANOS_PER_HOUR,
+                                                THURSDAY + 5, 14 * Constants.NANOS_PER_HOUR,
+                                                2, NINE, FIVE, days));
+    assertEquals("Tuesday 14:00 back to Thursday 10:00 should be minus 5 half days",
+                 -5,
+                 calculator.businessDaysBetween(THURSDAY + 5, 14 * Constants.NANOS_PER_HOUR,
+                                                THURSDAY, 10 * Constants.NANOS_PER_HOUR,
+                                                2, NINE, FIVE, days));
+  }
+
+  @Test
+  public void businessNanosBetween_OutsideBusinessHours_ClampedToBoundaries() {
+    long nanos = calculator.businessNanosBetween(THURSDAY + 5,
+                                                 20 * Constants.NANOS_PER_HOUR,
+                                                 THURSDAY + 2,
+                                                 3 * Constants.NANOS_PER_HOUR,
+                                                 NINE,
+                                                 FIVE,
+                                                 days);
+
+    assertEquals("Tuesday 20:00 back to Saturday 03:00 should be minus 1 business day",
+                 -8 * Constants.NANOS_PER_HOUR,
+                 nanos);
+  }
+
+  @Test
+  public void businessNanosBetween_MoveResult_SameAsUnitsMoved() {
+    for (long minutes = -3000; minutes <= 3000; minutes += 37) {
+      long start = 10 * Constants.NANOS_PER_HOUR + 15 * Constants.NANOS_PER_MINUTE;
+      long end = calculator.move(THURSDAY, start, minutes, Constants.NANOS_PER_MINUTE,
+                                 NINE, FIVE, days);
+
+      assertEquals("Moving " + minutes + " minutes and measuring back",
+                   minutes * Constants.NANOS_PER_MINUTE,
+                   calculator.businessNanosBetween(THURSDAY,
+                                                   start,
+                                                   LocalEpochNanos.toEpochDay(end),
+                                                   LocalEpochNanos.toNanosOfDay(end),
+                                                   NINE,
+                                                   FIVE,
+                                                   days));
+    }
+  }
+
+  @Test
+  public void move_HoursOnUnevenDay_ExactBusinessTime() {
+    long end = 16 * Constants.NANOS_PER_HOUR + 45 * Constants.NANOS_PER_MINUTE;
+    long result = calculator.move(THURSDAY,
+                                  10 * Constants.NANOS_PER_HOUR,
+                                  8,
+                                  Constants.NANOS_PER_HOUR,
+                                  NINE,
+                                  end,
+                                  days);
+
+    long quarterPastTen = 10 * Constants.NANOS_PER_HOUR + 15 * Constants.NANOS_PER_MINUTE;
+
+    assertEquals("Thursday 10:00 plus 8 hours of a 7:45 business day should be Friday 10:15",
+                 LocalEpochNanos.of(THURSDAY + 1, quarterPastTen),
+                 result);
+  }
+
+  @Test
+  public void toOrdinal_Epoch_Zero() {
+    assertEquals("Monday 1970-01-05 9:00 should be the calendar epoch",
+                 0,
+                 calculator.toOrdinal(4, NINE, NINE, FIVE, days));
+    assertEquals("Friday 1970-01-02 16:00 should be 1 business hour before the epoch",
+                 -Constants.NANOS_PER_HOUR,
+                 calculator.toOrdinal(1, 16 * Constants.NANOS_PER_HOUR, NINE, FIVE, days));
+  }
+
+  @Test
+  public void fromOrdinal_DayBoundary_EndOrStartByPreference() {
+    long ordinal = calculator.toOrdinal(THURSDAY + 1, FIVE, NINE, FIVE, days);
+
+    assertEquals("Boundary preferring end should be Friday 17:00",
+                 LocalEpochNanos.of(THURSDAY + 1, FIVE),
+                 calculator.fromOrdinal(ordinal, NINE, FIVE, days, true));
+    assertEquals("Boundary preferring start should skip weekend and holiday to Tuesday 9:00",
+                 LocalEpochNanos.of(THURSDAY + 5, NINE),
+                 calculator.fromOrdinal(ordinal, NINE, FIVE, days, false));
+  }
+
+  @Test
+  public void fromOrdinal_ToOrdinal_RoundTrip() {
+    for (long minutes = -100000; minutes <= 100000; minutes += 997) {
+      long ordinal = minutes * Constants.NANOS_PER_MINUTE;
+      long dateTime = calculator.fromOrdinal(ordinal, NINE, FIVE, days, false);
+
+      assertEquals("Round trip of " + minutes + " business minutes",
+                   ordinal,
+                   calculator.toOrdinal(LocalEpochNanos.toEpochDay(dateTime),
+                                        LocalEpochNanos.toNanosOfDay(dateTime),
+                                        NINE,
+                                        FIVE,
+                                        days));
+    }
+  }
+
+  @Test
+  public void moveAll_RandomStartsAndUnits_SameAsMove() {
+    Random random = new Random(11);
+    long[] starts = new long[5000];
+    long[] units = new long[starts.length];
+    for (int i = 0; i < starts.length; i++) {
+      long time = random.nextInt(4) == 0
+                  ? (random.nextBoolean() ? NINE : FIVE)
+                  : random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE;
+      // sorted runs of days, as batches usually are, with the odd jump back
+      starts[i] = LocalEpochNanos.of(THURSDAY - 20 + i / 100 - (i % 97 == 0 ? 30 : 0), time);
+      units[i] = random.nextInt(5) == 0 ? 0 : random.nextInt(4001) - 2000;
+    }
+    long[] sameUnits = new long[starts.length];
+    long[] perElement = new long[starts.length];
+    calculator.moveAll(starts, 45, Constants.NANOS_PER_MINUTE, NINE, FIVE, days, sameUnits);
+    calculator.moveAll(starts, units, Constants.NANOS_PER_MINUTE, NINE, FIVE, days, perElement);
+
+    for (int i = 0; i < starts.length; i++) {
+      long day = LocalEpochNanos.toEpochDay(starts[i]);
+      long time = LocalEpochNanos.toNanosOfDay(starts[i]);
+      assertEquals("Moving element " + i + " by 45 minutes",
+                   calculator.move(day, time, 45, Constants.NANOS_PER_MINUTE, NINE, FIVE, days),
+                   sameUnits[i]);
+      assertEquals("Moving element " + i + " by " + units[i] + " minutes",
+                   calculator.move(day, time, units[i], Constants.NANOS_PER_MINUTE,
+                                   NINE, FIVE, days),
+                   perElement[i]);
+    }
+  }
+
+  @Test
+  public void moveAll_DirectBuffers_SameAsArrays() {
+    long[] starts = new long[3000];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = LocalEpochNanos.of(THURSDAY + i / 50, (i % 24) * Constants.NANOS_PER_HOUR);
+    }
+    long[] expected = new long[starts.length];
+    calculator.moveAll(starts, -7, Constants.NANOS_PER_HOUR, NINE, FIVE, days, expected);
+
+    LongBuffer in = ByteBuffer.allocateDirect(starts.length * 8).asLongBuffer();
+    in.put(starts).flip();
+    LongBuffer out = LongBuffer.allocate(starts.length);
+    calculator.moveAll(in, -7, Constants.NANOS_PER_HOUR, NINE, FIVE, days, out);
+
+    assertEquals("Start buffer should be consumed", 0, in.remaining());
+    assertArrayEquals("Buffers should match arrays", expected, out.array());
+  }
+
+  @Test
+  public void toOrdinalAll_NearAndFarDays_SameAsToOrdinal() {
+    Random random = new Random(13);
+    long[] dateTimes = new long[4000];
+    for (int i = 0; i < dateTimes.length; i++) {
+      // half around the holiday, half spread well beyond the precomputed tables
+      long day = i % 2 == 0 ? THURSDAY - 50 + random.nextInt(100) : random.nextInt(200000) - 100000;
+      dateTimes[i] = LocalEpochNanos.of(day, random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+    }
+    BusinessDayCalculator noHolidays = new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[0]);
+
+    for (BusinessDayCalculator calc : new BusinessDayCalculator[] {days, noHolidays}) {
+      long[] ordinals = new long[dateTimes.length];
+      calculator.toOrdinalAll(dateTimes, 0, dateTimes.length, NINE, FIVE, calc, ordinals);
+      for (int i = 0; i < dateTimes.length; i++) {
+        assertEquals("Ordinal of element " + i,
+                     calculator.toOrdinal(LocalEpochNanos.toEpochDay(dateTimes[i]),
+                                          LocalEpochNanos.toNanosOfDay(dateTimes[i]),
+                                          NINE,
+                                          FIVE,
+                                          calc),
+                     ordinals[i]);
+      }
+    }
+  }
+
+  @Test
+  public void fromOrdinalAll_BoundariesAndFarOrdinals_SameAsFromOrdinal() {
+    Random random = new Random(17);
+    long day = FIVE - NINE;
+    long[] ordinals = new long[4000];
+    for (int i = 0; i < ordinals.length; i++) {
+      // every fourth ordinal on a day boundary, some beyond the precomputed tables
+      long index = i % 3 == 0 ? random.nextInt(140000) - 70000 : random.nextInt(200) - 100;
+      long nanos = i % 4 == 0 ? 0 : random.nextInt(8 * 60) * Constants.NANOS_PER_MINUTE;
+      ordinals[i] = index * day + nanos;
+    }
+
+    for (boolean preferEnd : new boolean[] {false, true}) {
+      long[] results = new long[ordinals.length];
+      calculator.fromOrdinalAll(ordinals, 0, ordinals.length, NINE, FIVE, days, preferEnd, results);
+      for (int i = 0; i < ordinals.length; i++) {
+        assertEquals("Date time of ordinal " + ordinals[i] + " preferring end " + preferEnd,
+                     calculator.fromOrdinal(ordinals[i], NINE, FIVE, days, preferEnd),
+                     results[i]);
+      }
+    }
+  }
+
+  @Test
+  public void moveDays_3Days_SameAsGenericResult() {
+    EpochDayConverter<Long> converter = new EpochDayConverter<Long>() {
+      public long toEpochDay(Long date) {
+        return date;
+      }
+
+      public Long fromEpochDay(long epochDay) {
+        return epochDay;
+      }
+    };
+    long start = 12 * Constants.NANOS_PER_HOUR;
+    long result = calculator.moveDays(THURSDAY, start, 3, NINE, FIVE, days);
+    BusinessDateTimeCalculatorResult<Long> expected =
+        calculator.moveDays(THURSDAY, start, 3, NINE, FIVE, days, converter);
+
+    assertEquals("Primitive and generic dates should agree",
+                 LocalEpochNanos.of(expected.getEndDate(), expected.getNanosOfDay()),
+                 result);
+  }
+
+  @Test
+  public void localEpochNanos_BeforeEpoch_RoundTrips() {
+    long packed = LocalEpochNanos.of(-3, 5);
+
+    assertEquals("Epoch day should round trip", -3, LocalEpochNanos.toEpochDay(packed));
+    assertEquals("Nanos of day should round trip", 5, LocalEpochNanos.toNanosOfDay(packed));
+  }
+}
@@ -0,0 +1,189 @@
+package com.github.aruberto.businesstime.common;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BusinessDayCalculatorTest {
+
+  // 2014-12-11, a Thursday
+  private static final long THURSDAY = 16415;
+
+  @Test
+  public void isBusinessDay_Weekend_False() {
+    BusinessDayCalculator calc = new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[0]);
+
+    assertTrue("Thursday should be a business day", calc.isBusinessDay(THURSDAY));
+    assertFalse("Saturday should not be a business day", calc.isBusinessDay(THURSDAY + 2));
+    assertFalse("Sunday should not be a business day", calc.isBusinessDay(THURSDAY + 3));
+  }
+
+  @Test
+  public void isBusinessDay_Holiday_False() {
+    BusinessDayCalculator calc =
+        new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[] {THURSDAY});
+
+    assertFalse("Holiday Thursday should not be a business day", calc.isBusinessDay(THURSDAY));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void withCoverage_MovingPastLastDay_Exception() {
+    BusinessDayCalculator calc = new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[0])
+        .withCoverage(THURSDAY - 10, THURSDAY + 3);
+
+    // Friday is the last business day covered, Monday after it is not
+    calc.plusBusinessDays(THURSDAY, 2);
+  }
+
+  @Test
+  public void plusBusinessDays_OverWeekendAndHolidays_SkipsNonBusinessDays() {
+    BusinessDayCalculator calc = new BusinessDayCalculator(
+        WorkingWeek.DEFAULT, new long[] {THURSDAY + 4, THURSDAY + 1, THURSDAY + 4});
+
+    assertEquals("Thursday plus 1 business day should skip holiday Friday, weekend "
+                 + "and holiday Monday to return Tuesday",
+                 THURSDAY + 5,
+                 calc.plusBusinessDays(THURSDAY, 1));
+    assertEquals("Tuesday minus 1 business day should return Thursday",
+                 THURSDAY,
+                 calc.plusBusinessDays(THURSDAY + 5, -1));
+  }
+
+  @Test
+  public void nextOrSameBusinessDay_Weekend_Monday() {
+    BusinessDayCalculator calc = new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[0]);
+
+    assertEquals("Saturday should adjust to Monday",
+                 THURSDAY + 4,
+                 calc.nextOrSameBusinessDay(THURSDAY + 2));
+    assertEquals("Thursday should stay Thursday",
+                 THURSDAY,
+                 calc.nextOrSameBusinessDay(THURSDAY));
+  }
+
+  @Test
+  public void plusBusinessDays_RandomCalendars_SameAsDayByDay() {
+    Random random = new Random(42);
+    for (int calendar = 0; calendar < 50; calendar++) {
+      WorkingWeek week = WorkingWeek.DEFAULT;
+      if (calendar % 3 == 1) {
+        week = WorkingWeek.ARABIC_WEEK;
+      } else if (calendar % 3 == 2) {
+        week = week.withWorkingDayFromCalendar(true, Calendar.SATURDAY)
+            .withWorkingDayFromCalendar(false, Calendar.WEDNESDAY);
+      }
+      long[] holidays = new long[random.nextInt(200)];
+      for (int i = 0; i < holidays.length; i++) {
+        holidays[i] = THURSDAY - 500 + random.nextInt(1000);
+      }
+      BusinessDayCalculator calc = new BusinessDayCalculator(week, holidays);
+
+      for (int i = 0; i < 200; i++) {
+        long start = THURSDAY - 400 + random.nextInt(800);
+        int days = random.nextInt(401) - 200;
+
+        assertEquals("Moving " + days + " business days from " + start,
+                     walk(calc, start, days),
+                     calc.plusBusinessDays(start, days));
+        assertEquals("Counting business days from " + start,
+                     count(calc, start, start + days),
+                     calc.businessDaysBetween(start, start + days));
+      }
+    }
+  }
+
+  @Test
+  public void plusBusinessDays_HolidaysOverCenturies_SameAsDayByDay() {
+    // one holiday every 3 years over 2 centuries, spread over many lazily built chunks
+    long[] holidays = new long[70];
+    for (int i = 0; i < holidays.length; i++) {
+      holidays[i] = THURSDAY - 36500 + i * 3 * 365;
+    }
+    BusinessDayCalculator calc = new BusinessDayCalculator(WorkingWeek.DEFAULT, holidays);
+    Random random = new Random(3);
+
+    for (int i = 0; i < 500; i++) {
+      long start = THURSDAY - 36600 + random.nextInt(73500);
+      int days = random.nextInt(101) - 50;
+
+      assertEquals("Moving " + days + " business days from " + start,
+                   walk(calc, start, days),
+                   calc.plusBusinessDays(start, days));
+      assertEquals("Business day at the rank of " + start,
+                   calc.nextOrSameBusinessDay(start),
+                   calc.businessDayAt(calc.businessDaysBefore(start)));
+    }
+  }
+
+  @Test
+  public void businessDayAt_ConcurrentFirstTouch_SameAsClosedForm() throws Exception {
+    final long[] holidays = new long[50];
+    for (int i = 0; i < holidays.length; i++) {
+      holidays[i] = THURSDAY + i * 200;
+    }
+    final BusinessDayCalculator shared = new BusinessDayCalculator(WorkingWeek.DEFAULT, holidays);
+    final AtomicInteger mismatches = new AtomicInteger();
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(new Runnable() {
+        public void run() {
+          // a fresh calculator per thread builds its own chunks as the reference
+          BusinessDayCalculator reference =
+              new BusinessDayCalculator(WorkingWeek.DEFAULT, holidays);
+          for (long day = THURSDAY; day < THURSDAY + 50 * 200; day += 7) {
+            long index = shared.businessDaysBefore(day);
+            if (index != reference.businessDaysBefore(day)
+                || shared.businessDayAt(index) != reference.businessDayAt(index)) {
+              mismatches.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals("Every thread should see the same ordinals", 0, mismatches.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_NoWorkingDays_Exception() {
+    WorkingWeek week = WorkingWeek.DEFAULT;
+    for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+      week = week.withWorkingDayFromCalendar(false, day);
+    }
+    new BusinessDayCalculator(week, new long[0]);
+  }
+
+  private static long walk(BusinessDayCalculator calc, long day, int days) {
+    int step = days < 0 ? -1 : 1;
+    for (int i = 0; i < Math.abs(days); i++) {
+      do {
+        day += step;
+      } while (!calc.isBusinessDay(day));
+    }
+    return day;
+  }
+
+  private static long count(BusinessDayCalculator calc, long start, long end) {
+    long count = 0;
+    for (long day = Math.min(start, end); day < Math.max(start, end); day++) {
+      if (calc.isBusinessDay(day)) {
+        count++;
+      }
+    }
+    return start <= end ? count : -count;
+  }
+}
@@ -0,0 +1,352 @@
+package com.github.aruberto.businesstime.common;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BusinessScheduleTest {
+
+  // 2014-12-11, a Thursday
+  private static final long THURSDAY = 16415;
+  private static final long HOUR = Constants.NANOS_PER_HOUR;
+
+  // 9-17 Monday to Thursday, 9-13 Friday, 10-14 Saturday
+  private static final DaySchedule[] SITE_WEEK = {
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 13 * HOUR),
+      new DaySchedule(10 * HOUR, 14 * HOUR),
+      null
+  };
+
+  // 8-12 and 13-17 weekdays, 9-11 and 11:30-12:30 Saturday
+  private static final DaySchedule[] LUNCH_WEEK = {
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 11 * HOUR, 23 * HOUR / 2, 25 * HOUR / 2),
+      DaySchedule.CLOSED
+  };
+
+  // Christmas 2014 on a Thursday and Boxing day on a Friday
+  private final BusinessSchedule schedule =
+      new BusinessSchedule(SITE_WEEK, new long[] {THURSDAY + 14, THURSDAY + 15});
+  private final BusinessSchedule lunchSchedule =
+      new BusinessSchedule(LUNCH_WEEK, new long[] {THURSDAY + 14, THURSDAY + 15});
+  // early close on Christmas eve, a late open, a longer Friday and a closure
+  private final BusinessSchedule overrideSchedule = new BusinessSchedule(
+      SITE_WEEK,
+      new long[] {THURSDAY + 14, THURSDAY + 15},
+      new long[] {THURSDAY + 13, THURSDAY - 10, THURSDAY + 8, THURSDAY - 20},
+      new DaySchedule[] {new DaySchedule(9 * HOUR, 13 * HOUR),
+                         new DaySchedule(11 * HOUR, 17 * HOUR),
+                         new DaySchedule(8 * HOUR, 18 * HOUR),
+                         null});
+
+  @Test
+  public void move_FridayAfternoon_ContinuesOnSaturdayHours() {
+    assertEquals("Friday 12:00 plus 3 hours should be Saturday 12:00",
+                 LocalEpochNanos.of(THURSDAY + 2, 12 * HOUR),
+                 schedule.move(LocalEpochNanos.of(THURSDAY + 1, 12 * HOUR), 3 * HOUR));
+  }
+
+  @Test
+  public void move_ExactlyToEndOfDay_EndOfDayNotNextStart() {
+    assertEquals("Friday 12:00 plus 1 hour should stop at Friday 13:00",
+                 LocalEpochNanos.of(THURSDAY + 1, 13 * HOUR),
+                 schedule.move(LocalEpochNanos.of(THURSDAY + 1, 12 * HOUR), HOUR));
+    assertEquals("Saturday 11:00 minus 1 hour should stop at Saturday 10:00",
+                 LocalEpochNanos.of(THURSDAY + 2, 10 * HOUR),
+                 schedule.move(LocalEpochNanos.of(THURSDAY + 2, 11 * HOUR), -HOUR));
+  }
+
+  @Test
+  public void move_Zero_KeepsEndOfDayAndNormalizesOutsideHours() {
+    long fridayClose = LocalEpochNanos.of(THURSDAY + 1, 13 * HOUR);
+
+    assertEquals("End of day should be kept", fridayClose, schedule.move(fridayClose, 0));
+    assertEquals("Friday evening should move to Saturday open",
+                 LocalEpochNanos.of(THURSDAY + 2, 10 * HOUR),
+                 schedule.move(LocalEpochNanos.of(THURSDAY + 1, 20 * HOUR), 0));
+  }
+
+  @Test
+  public void moveDays_SameHoursAsPlainCalculator_SameResults() {
+    long[] holidays = {THURSDAY + 4, THURSDAY + 14};
+    DaySchedule nineToFive = new DaySchedule(9 * HOUR, 17 * HOUR);
+    BusinessSchedule nineToFiveSchedule = new BusinessSchedule(
+        new DaySchedule[] {nineToFive, nineToFive, nineToFive, nineToFive, nineToFive, null, null},
+        holidays);
+    BusinessDayCalculator days = new BusinessDayCalculator(WorkingWeek.DEFAULT, holidays);
+    BusinessDateTimeCalculator<Long> calculator = new BusinessDateTimeCalculator<Long>();
+
+    // every quarter hour over three weeks, including weekends, holidays and the day boundaries
+    for (long day = THURSDAY - 3; day < THURSDAY + 18; day++) {
+      for (long time = 0; time < Constants.NANOS_PER_DAY; time += HOUR / 4) {
+        for (int move = -8; move <= 8; move++) {
+          assertEquals("Moving day " + day + " at minute " + time / Constants.NANOS_PER_MINUTE
+                       + " by " + move,
+                       calculator.moveDays(day, time, move, 9 * HOUR, 17 * HOUR, days),
+                       nineToFiveSchedule.moveDays(LocalEpochNanos.of(day, time), move));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void move_500HoursAcrossHolidays_SameAsDayByDayWalk() {
+    long start = LocalEpochNanos.of(THURSDAY - 3, 15 * HOUR);
+
+    assertEquals("Arithmetic move should match walking the days",
+                 walk(schedule, start, 500 * HOUR),
+                 schedule.move(start, 500 * HOUR));
+  }
+
+  @Test
+  public void move_RandomForwardMoves_SameAsDayByDayWalk() {
+    Random random = new Random(3);
+    for (BusinessSchedule week :
+        new BusinessSchedule[] {schedule, lunchSchedule, overrideSchedule}) {
+      for (int i = 0; i < 500; i++) {
+        long start = LocalEpochNanos.of(THURSDAY - 30 + random.nextInt(60),
+                                        random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+        long nanos = (1 + random.nextInt(100 * 60)) * Constants.NANOS_PER_MINUTE;
+
+        assertEquals("Move " + i + " should match walking the days",
+                     walk(week, start, nanos),
+                     week.move(start, nanos));
+      }
+    }
+  }
+
+  @Test
+  public void move_AcrossLunchBreak_BreakSkipped() {
+    long monday = THURSDAY + 4;
+
+    assertEquals("Monday 11:00 plus 1 hour should stop at the 12:00 break",
+                 LocalEpochNanos.of(monday, 12 * HOUR),
+                 lunchSchedule.move(LocalEpochNanos.of(monday, 11 * HOUR), HOUR));
+    assertEquals("Monday 11:00 plus 2 hours should skip the break to 14:00",
+                 LocalEpochNanos.of(monday, 14 * HOUR),
+                 lunchSchedule.move(LocalEpochNanos.of(monday, 11 * HOUR), 2 * HOUR));
+    assertEquals("Monday 12:30 in the break should normalize to 13:00",
+                 LocalEpochNanos.of(monday, 13 * HOUR),
+                 lunchSchedule.move(LocalEpochNanos.of(monday, 25 * HOUR / 2), 0));
+  }
+
+  @Test
+  public void fromOrdinal_ToOrdinal_RoundTrip() {
+    for (BusinessSchedule week :
+        new BusinessSchedule[] {schedule, lunchSchedule, overrideSchedule}) {
+      for (long minutes = -200000; minutes <= 200000; minutes += 613) {
+        long ordinal = minutes * Constants.NANOS_PER_MINUTE;
+
+        assertEquals("Round trip of " + minutes + " business minutes preferring start",
+                     ordinal,
+                     week.toOrdinal(week.fromOrdinal(ordinal, false)));
+        assertEquals("Round trip of " + minutes + " business minutes preferring end",
+                     ordinal,
+                     week.toOrdinal(week.fromOrdinal(ordinal, true)));
+      }
+    }
+  }
+
+  @Test
+  public void move_ChristmasEveEarlyClose_ContinuesOnSaturday() {
+    assertEquals("Wednesday 12:00 plus 2 hours should close at 13:00 and go on Saturday",
+                 LocalEpochNanos.of(THURSDAY + 16, 11 * HOUR),
+                 overrideSchedule.move(LocalEpochNanos.of(THURSDAY + 13, 12 * HOUR), 2 * HOUR));
+    assertEquals("Overridden hours should be those of the day",
+                 new DaySchedule(9 * HOUR, 13 * HOUR),
+                 overrideSchedule.getDaySchedule(THURSDAY + 13));
+    assertEquals("Closed override should not be a business day",
+                 false,
+                 overrideSchedule.getDayCalculator().isBusinessDay(THURSDAY - 20));
+  }
+
+  @Test
+  public void businessNanosBetween_Overrides_ShortAndLongDaysCounted() {
+    // Monday 15th to Monday 29th: a 10 hour Friday, 4 hour Wednesday and Saturdays, 2 holidays
+    assertEquals("Overridden days should count their own hours",
+                 (32 + 10 + 4 + 8 + 8 + 4 + 4) * HOUR,
+                 overrideSchedule.businessNanosBetween(LocalEpochNanos.of(THURSDAY + 4, 0),
+                                                       LocalEpochNanos.of(THURSDAY + 18, 0)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_OverrideOpensClosedWeekday_Exception() {
+    new BusinessSchedule(SITE_WEEK, new long[0], new long[] {THURSDAY + 3},
+                         new DaySchedule[] {new DaySchedule(9 * HOUR, 17 * HOUR)});
+  }
+
+  @Test
+  public void businessNanosBetween_AcrossChristmas_HolidaysSkipped() {
+    // Wednesday 24th 9:00 to Monday 29th 9:00: Wednesday 8 hours, Saturday 4 hours
+    assertEquals("Holidays should not count",
+                 12 * HOUR,
+                 schedule.businessNanosBetween(LocalEpochNanos.of(THURSDAY + 13, 9 * HOUR),
+                                               LocalEpochNanos.of(THURSDAY + 18, 9 * HOUR)));
+  }
+
+  @Test
+  public void getWeekNanos_SiteWeek_WeeklyTotal() {
+    assertEquals("4 long days, Friday and Saturday", 40 * HOUR, schedule.getWeekNanos());
+  }
+
+  @Test
+  public void ofWeekWindows_SundayToFriday_SplitAtMidnight() {
+    long day = Constants.NANOS_PER_DAY;
+    // Sunday 17:00 to Friday 17:00, wrapping from the end of the week to its start
+    BusinessSchedule forex =
+        BusinessSchedule.ofWeekWindows(new long[] {6 * day + 17 * HOUR, 11 * day + 17 * HOUR},
+                                       new long[0]);
+
+    assertEquals("5 days of 24 hours", 120 * HOUR, forex.getWeekNanos());
+    assertEquals("Monday should be open all day",
+                 new DaySchedule(0, day),
+                 forex.getDaySchedule(THURSDAY + 4));
+    assertEquals("Friday should close at 17:00",
+                 new DaySchedule(0, 17 * HOUR),
+                 forex.getDaySchedule(THURSDAY + 1));
+    assertEquals("Friday 16:00 plus 2 hours should be Sunday 18:00",
+                 LocalEpochNanos.of(THURSDAY + 3, 18 * HOUR),
+                 forex.move(LocalEpochNanos.of(THURSDAY + 1, 16 * HOUR), 2 * HOUR));
+  }
+
+  @Test
+  public void ofWeekWindows_NightShifts_OneBusinessDayPerShift() {
+    long day = Constants.NANOS_PER_DAY;
+    long[] windows = new long[10];
+    for (int i = 0; i < 5; i++) {
+      // Monday to Friday 22:00 to 6:00 the next morning
+      windows[2 * i] = i * day + 22 * HOUR;
+      windows[2 * i + 1] = (i + 1) * day + 6 * HOUR;
+    }
+    BusinessSchedule nights = BusinessSchedule.ofWeekWindows(windows, new long[0]);
+
+    assertFalse("Saturday morning should belong to the Friday shift",
+                nights.getDayCalculator().isBusinessDay(THURSDAY + 2));
+    assertEquals("Saturday should continue the Friday shift until 6:00",
+                 6 * HOUR,
+                 nights.getSessionTails()[5]);
+    assertEquals("Friday 23:00 plus 1 day should be Monday 23:00",
+                 LocalEpochNanos.of(THURSDAY + 4, 23 * HOUR),
+                 nights.moveDays(LocalEpochNanos.of(THURSDAY + 1, 23 * HOUR), 1));
+    assertEquals("Saturday 3:00 plus 1 day should be Tuesday 3:00",
+                 LocalEpochNanos.of(THURSDAY + 5, 3 * HOUR),
+                 nights.moveDays(LocalEpochNanos.of(THURSDAY + 2, 3 * HOUR), 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ofWeekWindows_OverlapAcrossWeekEnd_Exception() {
+    long day = Constants.NANOS_PER_DAY;
+    // Sunday 22:00 to Monday 6:00 runs into Monday 5:00 to 12:00
+    BusinessSchedule.ofWeekWindows(new long[] {5 * HOUR, 12 * HOUR, 6 * day + 22 * HOUR,
+                                               7 * day + 6 * HOUR},
+                                   new long[0]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_ClosedWeek_Exception() {
+    new BusinessSchedule(new DaySchedule[7], new long[0]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void daySchedule_EndBeforeStart_Exception() {
+    new DaySchedule(17 * HOUR, 9 * HOUR);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void daySchedule_OverlappingWindows_Exception() {
+    new DaySchedule(8 * HOUR, 12 * HOUR, 11 * HOUR, 17 * HOUR);
+  }
+
+  @Test
+  public void daySchedule_LunchBreak_BreakMapsToEitherSide() {
+    DaySchedule day = LUNCH_WEEK[0];
+
+    assertEquals("Time in the break should count the whole morning",
+                 4 * HOUR,
+                 day.elapsedAt(25 * HOUR / 2));
+    assertEquals("4 hours preferring end should be the start of the break",
+                 12 * HOUR,
+                 day.nanosOfDayAt(4 * HOUR, true));
+    assertEquals("4 hours preferring start should be the end of the break",
+                 13 * HOUR,
+                 day.nanosOfDayAt(4 * HOUR, false));
+    assertEquals("Length should leave out the break", 8 * HOUR, day.getLength());
+  }
+
+  @Test
+  public void daySchedule_UnionAndIntersection_WindowsMerged() {
+    DaySchedule lunch = LUNCH_WEEK[0];
+    DaySchedule site = SITE_WEEK[0];
+
+    assertEquals("Union should cover the break with the other day's hours",
+                 new DaySchedule(8 * HOUR, 17 * HOUR),
+                 lunch.union(site));
+    assertEquals("Intersection should keep the break and the later opening",
+                 new DaySchedule(9 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+                 lunch.intersection(site));
+    assertEquals("Touching windows should merge",
+                 new DaySchedule(9 * HOUR, 17 * HOUR),
+                 new DaySchedule(9 * HOUR, 12 * HOUR).union(new DaySchedule(12 * HOUR, 17 * HOUR)));
+    assertEquals("Disjoint windows should have nothing in common",
+                 DaySchedule.CLOSED,
+                 SITE_WEEK[5].intersection(new DaySchedule(15 * HOUR, 18 * HOUR)));
+  }
+
+  @Test
+  public void unionAndIntersection_OverrideAndLunchSchedules_SameAsCombiningEachDay() {
+    BusinessSchedule union = BusinessSchedule.union(overrideSchedule, lunchSchedule);
+    BusinessSchedule intersection = BusinessSchedule.intersection(overrideSchedule, lunchSchedule);
+    Random random = new Random(13);
+    for (long day = THURSDAY - 40; day < THURSDAY + 40; day++) {
+      DaySchedule a = overrideSchedule.getDaySchedule(day);
+      DaySchedule b = lunchSchedule.getDaySchedule(day);
+
+      assertEquals("Union of day " + day, a.union(b), union.getDaySchedule(day));
+      assertEquals("Intersection of day " + day, a.intersection(b),
+                   intersection.getDaySchedule(day));
+    }
+    for (BusinessSchedule combined : new BusinessSchedule[] {union, intersection}) {
+      for (int i = 0; i < 300; i++) {
+        long start = LocalEpochNanos.of(THURSDAY - 30 + random.nextInt(60),
+                                        random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+        long nanos = (1 + random.nextInt(100 * 60)) * Constants.NANOS_PER_MINUTE;
+
+        assertEquals("Move " + i + " should match walking the days",
+                     walk(combined, start, nanos),
+                     combined.move(start, nanos));
+      }
+    }
+  }
+
+  /**
+   * Moves forward one day at a time, the reference the arithmetic must match.
+   */
+  private static long walk(BusinessSchedule schedule, long start, long nanos) {
+    long day = LocalEpochNanos.toEpochDay(start);
+    long elapsed = schedule.getDaySchedule(day).elapsedAt(LocalEpochNanos.toNanosOfDay(start));
+    long remaining = nanos;
+    while (true) {
+      DaySchedule hours = schedule.getDaySchedule(day);
+      long available = hours.getLength() - elapsed;
+      if (remaining <= available) {
+        return LocalEpochNanos.of(day, hours.nanosOfDayAt(elapsed + remaining, true));
+      }
+      remaining -= available;
+      day++;
+      elapsed = 0;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.github.aruberto.businesstime.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HolidayIndexTest {
+
+  @Test
+  public void constructor_UnsortedWithDuplicates_SortedDistinct() {
+    HolidayIndex index = new HolidayIndex(new long[] {30, 10, 20, 10, -5});
+
+    assertEquals("Duplicates should be dropped", 4, index.size());
+    assertEquals("First holiday should be the earliest", -5, index.get(0));
+    assertEquals("Last holiday should be the latest", 30, index.get(3));
+  }
+
+  @Test
+  public void rank_Empty_Zero() {
+    HolidayIndex index = new HolidayIndex(new long[0]);
+
+    assertFalse("Empty index should contain nothing", index.contains(0));
+    assertEquals("Empty index should rank everything 0", 0, index.rank(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void count_InclusiveRange_BothEndsCounted() {
+    HolidayIndex index = new HolidayIndex(new long[] {10, 20, 30});
+
+    assertEquals("[10, 30] should hold 3 holidays", 3, index.count(10, 30));
+    assertEquals("[11, 29] should hold 1 holiday", 1, index.count(11, 29));
+    assertEquals("Reversed range should hold no holidays", 0, index.count(30, 10));
+  }
+
+  @Test
+  public void rank_RandomHolidaysInsideAndOutsideWindow_SameAsSortedArray() {
+    Random random = new Random(7);
+    for (int run = 0; run < 20; run++) {
+      long[] holidays = new long[random.nextInt(500)];
+      for (int i = 0; i < holidays.length; i++) {
+        // spread past the end of the bitset window to exercise the sparse path
+        holidays[i] = random.nextInt(HolidayIndex.WINDOW_DAYS * 2) - 1000;
+      }
+      HolidayIndex index = new HolidayIndex(holidays);
+      long[] sorted = holidays.clone();
+      Arrays.sort(sorted);
+
+      for (int i = 0; i < 2000; i++) {
+        long day = random.nextInt(HolidayIndex.WINDOW_DAYS * 2 + 4000) - 2000;
+        int expected = 0;
+        while (expected < sorted.length && sorted[expected] < day) {
+          expected++;
+        }
+        expected = distinct(sorted, expected);
+
+        assertEquals("Rank of " + day, expected, index.rank(day));
+        assertEquals("Contains " + day,
+                     Arrays.binarySearch(sorted, day) >= 0,
+                     index.contains(day));
+      }
+    }
+  }
+
+  @Test
+  public void contains_FarOutsideWindow_BinarySearch() {
+    HolidayIndex index = new HolidayIndex(new long[] {0, 1000000});
+
+    assertTrue("Holiday past the window should be found", index.contains(1000000));
+    assertFalse("Non holiday past the window should not be found", index.contains(999999));
+    assertEquals("Rank past the window", 1, index.rank(1000000));
+    assertEquals("Rank after the last holiday", 2, index.rank(Long.MAX_VALUE));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_OutOfIntRange_Exception() {
+    new HolidayIndex(new long[] {Integer.MAX_VALUE + 1L});
+  }
+
+  /**
+   * Number of distinct values among the first {@code length} entries of {@code sorted}.
+   */
+  private static int distinct(long[] sorted, int length) {
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1]) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
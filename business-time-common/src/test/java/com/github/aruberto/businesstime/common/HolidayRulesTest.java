@@ -0,0 +1,129 @@
+package com.github.aruberto.businesstime.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class HolidayRulesTest {
+
+  private static final int MONDAY = 1;
+  private static final int THURSDAY = 4;
+
+  // United States federal holidays, with Good Friday
+  private static final HolidayRules US = new HolidayRules(
+      1900, 2100,
+      HolidayRule.fixed(1, 1).observed(),
+      HolidayRule.nthWeekday(1, MONDAY, 3),
+      HolidayRule.nthWeekday(2, MONDAY, 3),
+      HolidayRule.easter(-2),
+      HolidayRule.nthWeekday(5, MONDAY, -1),
+      HolidayRule.fixed(7, 4).observed(),
+      HolidayRule.nthWeekday(9, MONDAY, 1),
+      HolidayRule.nthWeekday(11, THURSDAY, 4),
+      HolidayRule.fixed(12, 25).observed());
+
+  @Test
+  public void epochDays_Us2015_SameAsPublishedDates() {
+    long[] expected = {
+        HolidayRule.epochDay(2015, 1, 1),
+        HolidayRule.epochDay(2015, 1, 19),
+        HolidayRule.epochDay(2015, 2, 16),
+        HolidayRule.epochDay(2015, 4, 3),
+        HolidayRule.epochDay(2015, 5, 25),
+        // July 4th on a Saturday is observed on Friday
+        HolidayRule.epochDay(2015, 7, 3),
+        HolidayRule.epochDay(2015, 9, 7),
+        HolidayRule.epochDay(2015, 11, 26),
+        HolidayRule.epochDay(2015, 12, 25)};
+
+    assertArrayEquals("2015 holidays", expected, US.epochDays(2015));
+  }
+
+  @Test
+  public void easter_KnownYears_SameAsPublishedDates() {
+    int[][] easters = {{2014, 4, 20}, {2016, 3, 27}, {2019, 4, 21}, {2038, 4, 25}, {2285, 3, 22}};
+    for (int[] easter : easters) {
+      assertEquals("Easter " + easter[0],
+                   HolidayRule.epochDay(easter[0], easter[1], easter[2]),
+                   HolidayRule.easter(0).epochDay(easter[0]));
+    }
+  }
+
+  @Test
+  public void epochDay_KnownDates_SameAsEpochDays() {
+    assertEquals("1970-01-01 is epoch day 0", 0, HolidayRule.epochDay(1970, 1, 1));
+    assertEquals("2014-12-11 is epoch day 16415", 16415, HolidayRule.epochDay(2014, 12, 11));
+    assertEquals("1969-12-31 is epoch day -1", -1, HolidayRule.epochDay(1969, 12, 31));
+    assertEquals("2014-12-11 is a Thursday", THURSDAY, HolidayRule.dayOfWeek(16415));
+  }
+
+  @Test
+  public void epochDay_MissingDates_NoHoliday() {
+    assertEquals("February 29th 2015 does not exist",
+                 Long.MIN_VALUE,
+                 HolidayRule.fixed(2, 29).epochDay(2015));
+    assertEquals("February 2015 has only 4 Mondays",
+                 Long.MIN_VALUE,
+                 HolidayRule.nthWeekday(2, MONDAY, 5).epochDay(2015));
+  }
+
+  @Test
+  public void observedOnMonday_SundayAndSaturday_NextMonday() {
+    // Christmas 2016 on a Sunday and 2021 on a Saturday
+    assertEquals("Sunday should move to Monday",
+                 HolidayRule.epochDay(2016, 12, 26),
+                 HolidayRule.fixed(12, 25).observedOnMonday().epochDay(2016));
+    assertEquals("Saturday should move to Monday",
+                 HolidayRule.epochDay(2021, 12, 27),
+                 HolidayRule.fixed(12, 25).observedOnMonday().epochDay(2021));
+  }
+
+  @Test
+  public void epochDays_SameYearTwice_ExpandedOnce() {
+    assertSame("Second request should reuse the cached expansion",
+               US.yearDays(2030),
+               US.yearDays(2030));
+  }
+
+  @Test
+  public void epochDays_WholeRange_EveryYearInOrder() {
+    long[] days = US.epochDays();
+
+    // 2101-01-01 is a Saturday, observed on the last day of the range
+    assertEquals("9 holidays a year for 201 years and the observed 2101-01-01",
+                 9 * 201 + 1, days.length);
+    assertArrayEquals("First year should come first",
+                      US.epochDays(1900),
+                      Arrays.copyOf(days, 9));
+  }
+
+  @Test
+  public void epochDays_NewYearOnSaturdayAfterRange_ObservedOnLastDay() {
+    HolidayRules rules = new HolidayRules(2021, 2021, HolidayRule.fixed(1, 1).observed());
+
+    // 2022-01-01 is a Saturday, observed on Friday 2021-12-31
+    assertArrayEquals("Friday 2021-01-01 and the observed 2022-01-01 should be holidays",
+                      new long[] {18628, 18992},
+                      rules.epochDays());
+  }
+
+  @Test
+  public void epochDays_LastDayOnSundayBeforeRange_ObservedOnFirstDay() {
+    HolidayRules rules =
+        new HolidayRules(2018, 2018, HolidayRule.fixed(12, 31).observedOnMonday());
+
+    // 2017-12-31 is a Sunday, observed on Monday 2018-01-01
+    assertArrayEquals("The observed 2017-12-31 and Monday 2018-12-31 should be holidays",
+                      new long[] {17532, 17896},
+                      rules.epochDays());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nthWeekday_ZeroOccurrence_Exception() {
+    HolidayRule.nthWeekday(1, MONDAY, 0);
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.aruberto.businesstime.common;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MutableBusinessScheduleTest {
+
+  // 2014-12-11, a Thursday
+  private static final long THURSDAY = 16415;
+  private static final long HOUR = Constants.NANOS_PER_HOUR;
+
+  private static final DaySchedule[] WEEK = {
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 17 * HOUR),
+      new DaySchedule(8 * HOUR, 12 * HOUR, 13 * HOUR, 17 * HOUR),
+      new DaySchedule(9 * HOUR, 13 * HOUR),
+      null,
+      null
+  };
+  private static final long[] HOLIDAYS = {THURSDAY + 14, THURSDAY + 15};
+
+  private final BusinessSchedule base = new BusinessSchedule(WEEK, HOLIDAYS);
+
+  @Test
+  public void move_Unchanged_SameAsBase() {
+    MutableBusinessSchedule schedule = new MutableBusinessSchedule(base, THURSDAY - 20, 50);
+
+    assertSameMoves(base, schedule, new Random(5));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void constructor_NoBaseSchedule_Exception() {
+    new MutableBusinessSchedule(null, THURSDAY, 50);
+  }
+
+  @Test
+  public void close_DayInRange_SameAsRebuiltWithHoliday() {
+    MutableBusinessSchedule schedule = new MutableBusinessSchedule(base, THURSDAY - 20, 50);
+    schedule.close(THURSDAY);
+    schedule.close(THURSDAY - 20);
+
+    assertSameMoves(
+        new BusinessSchedule(WEEK, new long[] {THURSDAY + 14, THURSDAY + 15, THURSDAY,
+                                               THURSDAY - 20}),
+        schedule,
+        new Random(7));
+  }
+
+  @Test
+  public void setDaySchedule_EarlyClose_SameAsRebuiltWithOverride() {
+    MutableBusinessSchedule schedule = new MutableBusinessSchedule(base, THURSDAY - 20, 50);
+    schedule.setDaySchedule(THURSDAY + 13, new DaySchedule(9 * HOUR, 12 * HOUR));
+    schedule.setDaySchedule(THURSDAY + 29, new DaySchedule(10 * HOUR, 11 * HOUR));
+
+    assertSameMoves(
+        new BusinessSchedule(WEEK, HOLIDAYS,
+                             new long[] {THURSDAY + 13, THURSDAY + 29},
+                             new DaySchedule[] {new DaySchedule(9 * HOUR, 12 * HOUR),
+                                                new DaySchedule(10 * HOUR, 11 * HOUR)}),
+        schedule,
+        new Random(11));
+  }
+
+  @Test
+  public void move_ClosedDuringTheDay_DeadlineMovesAtOnce() {
+    MutableBusinessSchedule schedule = new MutableBusinessSchedule(base, THURSDAY - 20, 50);
+    long tuesday = LocalEpochNanos.of(THURSDAY + 5, 15 * HOUR);
+
+    assertEquals("Tuesday 15:00 plus 8 hours should be Wednesday 15:00",
+                 LocalEpochNanos.of(THURSDAY + 6, 15 * HOUR),
+                 schedule.move(tuesday, 8 * HOUR));
+    schedule.close(THURSDAY + 6);
+    assertEquals("Closing Wednesday should push the deadline to Thursday 15:00",
+                 LocalEpochNanos.of(THURSDAY + 7, 15 * HOUR),
+                 schedule.move(tuesday, 8 * HOUR));
+    schedule.reset(THURSDAY + 6);
+    assertEquals("Reopening Wednesday should bring the deadline back",
+                 LocalEpochNanos.of(THURSDAY + 6, 15 * HOUR),
+                 schedule.move(tuesday, 8 * HOUR));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void close_DayOutsideRange_Exception() {
+    new MutableBusinessSchedule(base, THURSDAY - 20, 50).close(THURSDAY + 30);
+  }
+
+  private static void assertSameMoves(BusinessSchedule expected,
+                                      MutableBusinessSchedule actual,
+                                      Random random) {
+    for (int i = 0; i < 500; i++) {
+      // starts before, in and after the mutable range
+      long start = LocalEpochNanos.of(THURSDAY - 40 + random.nextInt(90),
+                                      random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+      long nanos = (random.nextInt(400 * 60) - 200 * 60) * Constants.NANOS_PER_MINUTE;
+
+      assertEquals("Ordinal " + i + " should match", expected.toOrdinal(start),
+                   actual.toOrdinal(start));
+      assertEquals("Move " + i + " should match", expected.move(start, nanos),
+                   actual.move(start, nanos));
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.github.aruberto.businesstime.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OrdinalKernelsTest {
+
+  @Test
+  public void load_MissingClass_Null() {
+    assertNull("A missing kernel class should not load",
+               OrdinalKernels.load(OrdinalKernels.VECTOR_KERNEL + "Missing"));
+  }
+
+  @Test
+  public void load_NotAKernel_Null() {
+    assertNull("A class that is not a kernel should not load",
+               OrdinalKernels.load("java.lang.Object"));
+  }
+
+  @Test
+  public void preferred_VectorModuleAbsent_Scalar() {
+    assertNull("Vector kernel should be unavailable without the vector module",
+               OrdinalKernels.vector());
+    assertNotNull("Scalar kernel should always be available", OrdinalKernels.scalar());
+    assertSame("Scalar kernel should be preferred without the vector module",
+               OrdinalKernels.scalar(), OrdinalKernels.preferred());
+  }
+}
@@ -0,0 +1,95 @@
+package com.github.aruberto.businesstime.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SessionTableTest {
+
+  private static final long HOUR = Constants.NANOS_PER_HOUR;
+
+  // open 1-3, 5-8 and 10-12 within 0 to 24
+  private final SessionTable table =
+      new SessionTable(0, 24 * HOUR, HOUR, 3 * HOUR, 5 * HOUR, 8 * HOUR, 10 * HOUR, 12 * HOUR);
+
+  @Test
+  public void move_AcrossClosedGap_ContinuesAtNextOpen() {
+    assertEquals("2:00 plus 2 hours should be 6:00",
+                 6 * HOUR,
+                 table.move(2 * HOUR, 2 * HOUR));
+    assertEquals("Moving exactly to a close should end there",
+                 3 * HOUR,
+                 table.move(2 * HOUR, HOUR));
+    assertEquals("6:00 minus 2 hours should be 2:00",
+                 2 * HOUR,
+                 table.move(6 * HOUR, -2 * HOUR));
+    assertEquals("Moving by 0 outside sessions should go to the next open",
+                 5 * HOUR,
+                 table.move(4 * HOUR, 0));
+  }
+
+  @Test
+  public void businessNanosBetween_WholeRange_SumOfSessions() {
+    assertEquals("Sessions should add up to 7 hours",
+                 7 * HOUR,
+                 table.businessNanosBetween(0, 24 * HOUR));
+    assertEquals("Whole range should match the total", 7 * HOUR, table.getBusinessNanos());
+  }
+
+  @Test
+  public void constructor_TouchingSessions_Merged() {
+    SessionTable merged = new SessionTable(0, 24 * HOUR, HOUR, 3 * HOUR, 3 * HOUR, 4 * HOUR);
+
+    assertEquals("Touching sessions should be one", 1, merged.getSessionCount());
+    assertEquals("Merged session should close at the later close",
+                 4 * HOUR,
+                 merged.getCloseEpochNanos(0));
+  }
+
+  @Test
+  public void unionAndIntersection_TwoTables_CombinedSessions() {
+    SessionTable other = new SessionTable(2 * HOUR, 30 * HOUR, 2 * HOUR, 6 * HOUR, 11 * HOUR,
+                                          20 * HOUR);
+
+    assertEquals("Intersection should keep the common sessions within the common range",
+                 new SessionTable(2 * HOUR, 24 * HOUR, 2 * HOUR, 3 * HOUR, 5 * HOUR, 6 * HOUR,
+                                  11 * HOUR, 12 * HOUR),
+                 SessionTable.intersection(table, other));
+    assertEquals("Union should merge overlapping sessions within the common range",
+                 new SessionTable(2 * HOUR, 24 * HOUR, 2 * HOUR, 8 * HOUR, 10 * HOUR, 20 * HOUR),
+                 SessionTable.union(table, other));
+  }
+
+  @Test
+  public void normalize_InstantsInAndOutOfSessions_SameAsMovingBy0() {
+    long[] instants = {0, HOUR, 2 * HOUR, 3 * HOUR, 4 * HOUR, 9 * HOUR, 12 * HOUR, 20 * HOUR};
+    long[] expected = {HOUR, HOUR, 2 * HOUR, 3 * HOUR, 5 * HOUR, 10 * HOUR, 12 * HOUR, 12 * HOUR};
+    for (int i = 0; i < instants.length; i++) {
+      assertEquals("Normalizing " + instants[i], expected[i], table.normalize(instants[i]));
+    }
+  }
+
+  @Test
+  public void moveAll_InPlace_SameAsMove() {
+    long[] instants = {0, 2 * HOUR, 4 * HOUR, 6 * HOUR, 9 * HOUR};
+    long[] expected = new long[instants.length];
+    for (int i = 0; i < instants.length; i++) {
+      expected[i] = table.move(instants[i], 2 * HOUR);
+    }
+
+    table.moveAll(instants, 2 * HOUR, instants);
+
+    assertArrayEquals("Batch should match one move at a time", expected, instants);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void move_PastEndOfRange_Exception() {
+    table.move(11 * HOUR, 2 * HOUR);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_SessionsOutOfOrder_Exception() {
+    new SessionTable(0, 24 * HOUR, 5 * HOUR, 8 * HOUR, HOUR, 3 * HOUR);
+  }
+}
@@ -0,0 +1,728 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.BusinessDayCalculator;
+import com.github.aruberto.businesstime.common.BusinessSchedule;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.DaySchedule;
+import com.github.aruberto.businesstime.common.HolidayRules;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
+import net.objectlab.kit.datecalc.common.HolidayHandlerType;
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+import net.objectlab.kit.datecalc.jdk8.LocalDateKitCalculatorsFactory;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * BusinessCalendar is an unmodifiable definition of business hours, holidays and working week.
+ * <p>
+ * Every working day has the business day start and end time, unless a day of the week is given
+ * its own business hours with {@link #withHours(DayOfWeek, LocalTime...)}, which may include
+ * breaks. Business hours may run past midnight, for overnight shifts or markets open around the
+ * clock from Sunday evening to Friday evening. Single dates, such as early closes, can be given
+ * their own business hours with {@link #withHours(LocalDate, LocalTime...)}.
+ * <p>
+ * Holidays that recur every year can be given as {@link HolidayRules} with
+ * {@link #withHolidayRules(HolidayRules)}, in addition to the set of holidays, and are expanded
+ * over the years of the rules when the calendar is compiled. A calendar with holiday rules covers
+ * only their years, and business time calculations reaching a date outside them throw rather
+ * than miss the holidays there.
+ * <p>
+ * Calendars can be combined with {@link #union(BusinessCalendar...)}, open when any of them is,
+ * and {@link #intersection(BusinessCalendar...)}, open when all of them are.
+ * <p>
+ * A calendar is compiled once when constructed and is meant to be shared by every
+ * {@link BusinessDateTime} that uses it. The holidays are copied on construction, so later
+ * changes to the set passed in do not affect the calendar.
+ *
+ * @author Antonio Ruberto
+ */
+public final class BusinessCalendar implements Serializable {
+
+  private static final long serialVersionUID = 5189352390842337012L;
+
+  private static final LocalTime DEFAULT_BUSINESS_DAY_START = LocalTime.of(9, 0, 0, 0);
+  private static final LocalTime DEFAULT_BUSINESS_DAY_END = LocalTime.of(17, 0, 0, 0);
+
+  /**
+   * Calendar with business day starting at 9am, business day ending at 5pm,
+   * no holidays and working week of Monday to Friday.
+   */
+  public static final BusinessCalendar DEFAULT = new BusinessCalendar(null, null, null, null);
+
+  private final LocalTime dayStartTime;
+  private final LocalTime dayEndTime;
+  private final Set<LocalDate> holidays;
+  private final Jdk8WorkingWeek workingWeek;
+  private final Map<DayOfWeek, List<LocalTime>> weekdayHours;
+  private final Map<LocalDate, List<LocalTime>> dateHours;
+  private final HolidayRules holidayRules;
+  private final transient long dayStartNanosOfDay;
+  private final transient long dayEndNanosOfDay;
+  private final transient BusinessSchedule schedule;
+  private final transient BusinessDayCalculator dayCalculator;
+  private transient volatile ThreadLocal<DateCalculator<LocalDate>> dateCalculators;
+  private final transient ConcurrentMap<ZoneId, StartOfDays> startOfDays;
+
+  /**
+   * Constructs a calendar with business day starting at {@code dayStartTime}, business day
+   * ending at {@code dayEndTime}, holiday list of {@code holidays} and working week of
+   * {@code workingWeek}
+   * <p>
+   * An end time at or before the start time makes every business day run past midnight into
+   * the next day, so 22:00 to 6:00 is an overnight shift starting on each working day and equal
+   * times make business days 24 hours long.
+   *
+   * @param dayStartTime business day start time, null means 9am
+   * @param dayEndTime business day end time, null means 5pm
+   * @param holidays holidays, null means no holidays
+   * @param workingWeek the working week, null means Monday to Friday
+   */
+  public BusinessCalendar(LocalTime dayStartTime,
+                          LocalTime dayEndTime,
+                          Set<LocalDate> holidays,
+                          WorkingWeek workingWeek) {
+    this(dayStartTime, dayEndTime, holidays, workingWeek, null, null, null);
+  }
+
+  private BusinessCalendar(LocalTime dayStartTime,
+                           LocalTime dayEndTime,
+                           Set<LocalDate> holidays,
+                           WorkingWeek workingWeek,
+                           Map<DayOfWeek, List<LocalTime>> weekdayHours,
+                           Map<LocalDate, List<LocalTime>> dateHours,
+                           HolidayRules holidayRules) {
+    if (dayStartTime == null) {
+      dayStartTime = DEFAULT_BUSINESS_DAY_START;
+    }
+    if (dayEndTime == null) {
+      dayEndTime = DEFAULT_BUSINESS_DAY_END;
+    }
+    if (holidays == null) {
+      holidays = Collections.emptySet();
+    }
+    if (workingWeek == null) {
+      workingWeek = WorkingWeek.DEFAULT;
+    }
+    this.dayStartTime = dayStartTime;
+    this.dayEndTime = dayEndTime;
+    this.holidays = Collections.unmodifiableSet(new HashSet<>(holidays));
+    this.workingWeek = workingWeek instanceof Jdk8WorkingWeek
+                       ? (Jdk8WorkingWeek) workingWeek
+                       : new Jdk8WorkingWeek(workingWeek);
+    this.weekdayHours = weekdayHours == null || weekdayHours.isEmpty()
+                        ? Collections.emptyMap()
+                        : Collections.unmodifiableMap(new EnumMap<>(weekdayHours));
+    this.dateHours = dateHours == null || dateHours.isEmpty()
+                     ? Collections.emptyMap()
+                     : Collections.unmodifiableMap(new TreeMap<>(dateHours));
+    this.holidayRules = holidayRules;
+    this.startOfDays = new ConcurrentHashMap<>();
+    this.dayStartNanosOfDay = dayStartTime.toNanoOfDay();
+    this.dayEndNanosOfDay = dayEndTime.toNanoOfDay();
+
+    long[] dates = holidayEpochDays();
+    if (this.weekdayHours.isEmpty()
+        && this.dateHours.isEmpty()
+        && dayEndNanosOfDay > dayStartNanosOfDay) {
+      this.schedule = null;
+      BusinessDayCalculator calculator = new BusinessDayCalculator(this.workingWeek, dates);
+      this.dayCalculator = holidayRules == null
+                           ? calculator
+                           : calculator.withCoverage(holidayRules.getFirstEpochDay(),
+                                                     holidayRules.getLastEpochDay());
+    } else {
+      long[] overrideDays = new long[this.dateHours.size()];
+      DaySchedule[] overrideHours = new DaySchedule[overrideDays.length];
+      int j = 0;
+      for (Map.Entry<LocalDate, List<LocalTime>> entry : this.dateHours.entrySet()) {
+        overrideDays[j] = entry.getKey().toEpochDay();
+        overrideHours[j++] = dateSchedule(entry.getValue());
+      }
+      this.schedule = covered(BusinessSchedule.ofWeekWindows(weekWindows(), dates, overrideDays,
+                                                             overrideHours));
+      this.dayCalculator = schedule.getDayCalculator();
+    }
+  }
+
+  /**
+   * Returns a calendar open whenever any of {@code calendars} is open, such as the hours
+   * covered by at least one of several regional desks.
+   * <p>
+   * The combination is compiled once into a calendar of its own, with the combined business
+   * hours of every day of the week, the dates no calendar is open as holidays and the dates
+   * with other combined hours as date hours, so it costs the same to query as any other
+   * calendar. The calendars are combined on the same local clock and the business day start
+   * and end time, which only set the length of a business day, come from the first calendar.
+   * Holidays given by holiday rules become holidays of the combination, whose holiday rules only
+   * keep the years all calendars with rules cover.
+   *
+   * @param calendars the calendars to combine, at least one
+   * @return the combined calendar, not null
+   * @throws IllegalArgumentException if no calendars are given
+   */
+  public static BusinessCalendar union(BusinessCalendar... calendars) {
+    return combine(calendars, true);
+  }
+
+  /**
+   * Returns a calendar open only when all of {@code calendars} are open, such as the hours two
+   * markets trade together, see {@link #union(BusinessCalendar...)}.
+   *
+   * @param calendars the calendars to combine, at least one
+   * @return the combined calendar, not null
+   * @throws IllegalArgumentException if no calendars are given, they have no business hours
+   *     in common in a week, or a date is open on a day of the week without common hours
+   */
+  public static BusinessCalendar intersection(BusinessCalendar... calendars) {
+    return combine(calendars, false);
+  }
+
+  private static BusinessCalendar combine(BusinessCalendar[] calendars, boolean union) {
+    BusinessSchedule[] schedules = new BusinessSchedule[calendars.length];
+    for (int i = 0; i < calendars.length; i++) {
+      schedules[i] = calendars[i].compiledSchedule();
+    }
+    BusinessSchedule combined = union
+                                ? BusinessSchedule.union(schedules)
+                                : BusinessSchedule.intersection(schedules);
+    Map<DayOfWeek, List<LocalTime>> hours = new EnumMap<>(DayOfWeek.class);
+    DaySchedule[] weekdays = combined.getWeekdays();
+    long[] tails = combined.getSessionTails();
+    for (DayOfWeek day : DayOfWeek.values()) {
+      hours.put(day, weekdayTimes(weekdays, tails, day.ordinal()));
+    }
+    // holiday rules are expanded into the combination, which keeps only the years they cover
+    BusinessDayCalculator covered = combined.getDayCalculator();
+    long firstDay = covered.getFirstCoveredDay();
+    long lastDay = covered.getLastCoveredDay();
+    HolidayRules years = firstDay == Long.MIN_VALUE
+                         ? null
+                         : new HolidayRules(LocalDate.ofEpochDay(firstDay).getYear(),
+                                            LocalDate.ofEpochDay(lastDay).getYear());
+    Set<LocalDate> closed = new HashSet<>();
+    Map<LocalDate, List<LocalTime>> dates = new TreeMap<>();
+    for (long day : combined.getExceptionDays()) {
+      if (day < firstDay || day > lastDay) {
+        continue;
+      }
+      DaySchedule dayHours = combined.getDaySchedule(day);
+      if (dayHours.getLength() == 0) {
+        closed.add(LocalDate.ofEpochDay(day));
+      } else {
+        dates.put(LocalDate.ofEpochDay(day), times(dayHours));
+      }
+    }
+    BusinessCalendar first = calendars[0];
+    return new BusinessCalendar(first.dayStartTime, first.dayEndTime, closed,
+                                combined.getWorkingWeek(), hours, dates, years);
+  }
+
+  /**
+   * Constructs a calendar with business day starting at {@code dayStartTime}, business day
+   * ending at {@code dayEndTime}, holiday list of {@code holidays} and working week of
+   * Monday to Friday
+   *
+   * @param dayStartTime business day start time, null means 9am
+   * @param dayEndTime business day end time, null means 5pm
+   * @param holidays holidays, null means no holidays
+   */
+  public BusinessCalendar(LocalTime dayStartTime, LocalTime dayEndTime, Set<LocalDate> holidays) {
+    this(dayStartTime, dayEndTime, holidays, null);
+  }
+
+  /**
+   * Constructs a calendar with business day starting at 9am, business day ending at 5pm,
+   * holiday list of {@code holidays} and working week of Monday to Friday
+   *
+   * @param holidays holidays, null means no holidays
+   */
+  public BusinessCalendar(Set<LocalDate> holidays) {
+    this(null, null, holidays, null);
+  }
+
+  /**
+   * Gets the business day start time.
+   *
+   * @return the business day start time, not null
+   */
+  public LocalTime getDayStartTime() {
+    return dayStartTime;
+  }
+
+  /**
+   * Gets the business day end time.
+   *
+   * @return the business day end time, not null
+   */
+  public LocalTime getDayEndTime() {
+    return dayEndTime;
+  }
+
+  /**
+   * Gets the holidays.
+   *
+   * @return an unmodifiable set of holidays, not null
+   */
+  public Set<LocalDate> getHolidays() {
+    return holidays;
+  }
+
+  /**
+   * Gets the working week.
+   *
+   * @return the working week, not null
+   */
+  public WorkingWeek getWorkingWeek() {
+    return workingWeek;
+  }
+
+  /**
+   * Gets the business hours given to days of the week with
+   * {@link #withHours(DayOfWeek, LocalTime...)}, as the start and end time of each window.
+   *
+   * @return an unmodifiable map of days of the week to business hours, not null
+   */
+  public Map<DayOfWeek, List<LocalTime>> getWeekdayHours() {
+    return weekdayHours;
+  }
+
+  /**
+   * Gets the length of a business day running from the business day start to end time.
+   *
+   * @return the business day length in nanos, a full day if start and end time are equal
+   */
+  long getDayLengthNanos() {
+    long length = dayEndNanosOfDay - dayStartNanosOfDay;
+    return length > 0 ? length : length + Constants.NANOS_PER_DAY;
+  }
+
+  /**
+   * Gets the business hours given to dates with {@link #withHours(LocalDate, LocalTime...)}, as
+   * the start and end time of each window.
+   *
+   * @return an unmodifiable map of dates to business hours, not null
+   */
+  public Map<LocalDate, List<LocalTime>> getDateHours() {
+    return dateHours;
+  }
+
+  /**
+   * Gets the holiday rules.
+   *
+   * @return the holiday rules, null if none
+   */
+  public HolidayRules getHolidayRules() {
+    return holidayRules;
+  }
+
+  /**
+   * Gets the business day start time as nanos since midnight, for use with the primitive
+   * methods of {@link com.github.aruberto.businesstime.common.BusinessDateTimeCalculator}.
+   *
+   * @return the business day start time as nanos of day
+   */
+  public long getDayStartNanosOfDay() {
+    return dayStartNanosOfDay;
+  }
+
+  /**
+   * Gets the business day end time as nanos since midnight, for use with the primitive
+   * methods of {@link com.github.aruberto.businesstime.common.BusinessDateTimeCalculator}.
+   *
+   * @return the business day end time as nanos of day
+   */
+  public long getDayEndNanosOfDay() {
+    return dayEndNanosOfDay;
+  }
+
+  /**
+   * Gets the compiled holidays and working week of this calendar, for use with the primitive
+   * methods of {@link com.github.aruberto.businesstime.common.BusinessDateTimeCalculator}.
+   *
+   * @return the business day calculator, not null
+   */
+  public BusinessDayCalculator getDayCalculator() {
+    return dayCalculator;
+  }
+
+  /**
+   * Gets the compiled business hours of this calendar when days of the week or dates have their
+   * own business hours or business days cross midnight, for use with the primitive methods of
+   * {@link BusinessSchedule}.
+   *
+   * @return the business schedule, null if every working day has the same business hours
+   *     within the day, see {@link #compiledSchedule()} for one in every case
+   */
+  public BusinessSchedule getSchedule() {
+    return schedule;
+  }
+
+  /**
+   * Gets the start of day instants of {@code zone}, cached with this calendar for the days
+   * results fall on.
+   *
+   * @param zone the time zone, not null
+   * @return the start of day instants, not null
+   */
+  StartOfDays getStartOfDays(ZoneId zone) {
+    return startOfDays.computeIfAbsent(zone, StartOfDays::new);
+  }
+
+  /**
+   * Gets a {@link DateCalculator} configured with the holidays and working week of this
+   * calendar, using {@link HolidayHandlerType#FORWARD_UNLESS_MOVING_BACK}.
+   * <p>
+   * The calculator is created once per thread and handed back on every later call from the
+   * same thread, so it must not be shared with other threads. Its start date is left as the
+   * previous caller on this thread set it; set it before use.
+   *
+   * @return the date calculator of the calling thread, not null
+   */
+  public DateCalculator<LocalDate> getDateCalculator() {
+    ThreadLocal<DateCalculator<LocalDate>> calculators = dateCalculators;
+    if (calculators == null) {
+      // racing threads at worst build equivalent calculators twice
+      calculators = newDateCalculators();
+      dateCalculators = calculators;
+    }
+    return calculators.get();
+  }
+
+  /**
+   * Returns date calculators, one per thread, with the days off and working week of this
+   * calendar. Built on the first call of {@link #getDateCalculator()} rather than with every
+   * calendar and copy, as business time calculations do not use them.
+   */
+  private ThreadLocal<DateCalculator<LocalDate>> newDateCalculators() {
+    Set<LocalDate> daysOff = holidays;
+    if (holidayRules != null || !dateHours.isEmpty()) {
+      daysOff = new HashSet<>();
+      for (long date : holidayEpochDays()) {
+        daysOff.add(LocalDate.ofEpochDay(date));
+      }
+      for (Map.Entry<LocalDate, List<LocalTime>> entry : dateHours.entrySet()) {
+        if (dateSchedule(entry.getValue()).getLength() == 0) {
+          daysOff.add(entry.getKey());
+        }
+      }
+    }
+    WorkingWeek effectiveWeek = schedule == null ? workingWeek : schedule.getWorkingWeek();
+    Jdk8WorkingWeek week = effectiveWeek instanceof Jdk8WorkingWeek
+                           ? (Jdk8WorkingWeek) effectiveWeek
+                           : new Jdk8WorkingWeek(effectiveWeek);
+    // outside the years of the holiday rules the calculators throw, like the day calculator
+    DefaultHolidayCalendar<LocalDate> calendar = holidayRules == null
+        ? new DefaultHolidayCalendar<>(daysOff)
+        : new DefaultHolidayCalendar<>(daysOff,
+                                       LocalDate.ofEpochDay(holidayRules.getFirstEpochDay()),
+                                       LocalDate.ofEpochDay(holidayRules.getLastEpochDay()));
+    LocalDateKitCalculatorsFactory factory = new LocalDateKitCalculatorsFactory();
+    factory.registerHolidays(Constants.HOLIDAY_KEY, calendar);
+    return ThreadLocal.withInitial(() -> factory
+        .getDateCalculator(Constants.HOLIDAY_KEY, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK)
+        .setWorkingWeek(week));
+  }
+
+  /**
+   * Returns a copy of this calendar with the business day start time updated.
+   *
+   * @param time the time of day to set
+   * @return a copy of this calendar with the start time set
+   * @throws IllegalArgumentException if the value is invalid
+   */
+  public BusinessCalendar withDayStartTime(LocalTime time) {
+    return new BusinessCalendar(time, dayEndTime, holidays, workingWeek, weekdayHours, dateHours,
+                                holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar with the business day end time updated.
+   *
+   * @param time the time of day to set
+   * @return a copy of this calendar with the end time set
+   * @throws IllegalArgumentException if the value is invalid
+   */
+  public BusinessCalendar withDayEndTime(LocalTime time) {
+    return new BusinessCalendar(dayStartTime, time, holidays, workingWeek, weekdayHours, dateHours,
+                                holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar with the holidays updated.
+   *
+   * @param dates the set of holidays to set
+   * @return a copy of this calendar with the holidays set
+   */
+  public BusinessCalendar withHolidays(Set<LocalDate> dates) {
+    return new BusinessCalendar(dayStartTime, dayEndTime, dates, workingWeek, weekdayHours,
+                                dateHours, holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar with the working week updated.
+   *
+   * @param week the week to set
+   * @return a copy of this calendar with the working week set
+   */
+  public BusinessCalendar withWorkingWeek(WorkingWeek week) {
+    return new BusinessCalendar(dayStartTime, dayEndTime, holidays, week, weekdayHours, dateHours,
+                                holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar where {@code day} has its own business hours, in place of
+   * the business day start and end time and whether the working week includes it.
+   * <p>
+   * The hours are given as the start and end time of each window of business hours in order,
+   * so {@code withHours(MONDAY, 8:00, 12:00, 13:00, 17:00)} has a lunch break. A time at or
+   * before the time before it falls on the next day, so {@code withHours(FRIDAY, 22:00, 6:00)}
+   * is a shift ending on Saturday morning and {@code withHours(SUNDAY, 17:00, 17:00)} is open
+   * until Monday 17:00. No times make the day a non working day.
+   *
+   * @param day the day of the week, not null
+   * @param times start and end time of each window starting on that day, in order, not null
+   * @return a copy of this calendar with the business hours of the day set
+   * @throws IllegalArgumentException if there is an odd number of times, windows overlap those
+   *     of another day, or no day of the week is left with business hours
+   */
+  public BusinessCalendar withHours(DayOfWeek day, LocalTime... times) {
+    Map<DayOfWeek, List<LocalTime>> hours = new EnumMap<>(DayOfWeek.class);
+    hours.putAll(weekdayHours);
+    hours.put(day, Collections.unmodifiableList(Arrays.asList(times.clone())));
+    return new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek, hours, dateHours,
+                                holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar where {@code date} has its own business hours, in place of
+   * those of its day of the week, such as an early close before a holiday or a late open.
+   * <p>
+   * The hours are given as the start and end time of each window of business hours in order,
+   * within the date; 0:00 as the last time means midnight at the end of the date. No times
+   * close the date like a holiday, and a holiday stays closed whatever its hours.
+   *
+   * @param date the date, not null
+   * @param times start and end time of each window on that date, in order, not null
+   * @return a copy of this calendar with the business hours of the date set
+   * @throws IllegalArgumentException if there is an odd number of times, the times are not in
+   *     order, or the date falls on a day of the week without business hours
+   */
+  public BusinessCalendar withHours(LocalDate date, LocalTime... times) {
+    Map<LocalDate, List<LocalTime>> hours = new TreeMap<>(dateHours);
+    hours.put(date, Collections.unmodifiableList(Arrays.asList(times.clone())));
+    return new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek, weekdayHours,
+                                hours, holidayRules);
+  }
+
+  /**
+   * Returns a copy of this calendar with the holiday rules updated. The holidays the rules give
+   * are in addition to the set of holidays.
+   *
+   * @param rules the holiday rules to set, null means no holiday rules
+   * @return a copy of this calendar with the holiday rules set
+   */
+  public BusinessCalendar withHolidayRules(HolidayRules rules) {
+    return new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek, weekdayHours,
+                                dateHours, rules);
+  }
+
+  /**
+   * Returns the business hours of the week as the start and end of each window in nanos since
+   * Monday midnight, where a window crossing midnight ends on a later day than it starts.
+   */
+  private long[] weekWindows() {
+    long[] windows = new long[0];
+    int size = 0;
+    for (DayOfWeek day : DayOfWeek.values()) {
+      List<LocalTime> hours = weekdayHours.get(day);
+      long[] times;
+      if (hours != null) {
+        if (hours.size() % 2 != 0) {
+          throw new IllegalArgumentException(
+              "expected a start and end per window but found " + hours.size() + " times");
+        }
+        times = new long[hours.size()];
+        for (int j = 0; j < times.length; j++) {
+          times[j] = hours.get(j).toNanoOfDay();
+        }
+      } else if (workingWeek.isWorkingDayFromCalendar(day.getValue() % 7 + 1)) {
+        // java.util.Calendar numbers Sunday as 1 and Monday as 2
+        times = new long[] {dayStartNanosOfDay, dayEndNanosOfDay};
+      } else {
+        continue;
+      }
+      windows = Arrays.copyOf(windows, size + times.length);
+      long midnight = day.ordinal() * Constants.NANOS_PER_DAY;
+      long previous = -1;
+      for (long time : times) {
+        if (midnight + time <= previous) {
+          midnight += Constants.NANOS_PER_DAY;
+        }
+        previous = midnight + time;
+        windows[size++] = previous;
+      }
+    }
+    long week = DayOfWeek.values().length * Constants.NANOS_PER_DAY;
+    for (int i = 0; i < size; i += 2) {
+      // windows starting after Sunday midnight belong to the start of the week
+      if (windows[i] >= week) {
+        windows[i] -= week;
+        windows[i + 1] -= week;
+      }
+    }
+    return windows;
+  }
+
+  /**
+   * Returns the holidays, those given by the holiday rules first, as epoch days.
+   */
+  private long[] holidayEpochDays() {
+    long[] ruleDates = holidayRules == null ? new long[0] : holidayRules.epochDays();
+    long[] dates = Arrays.copyOf(ruleDates, ruleDates.length + holidays.size());
+    int i = ruleDates.length;
+    for (LocalDate holiday : holidays) {
+      dates[i++] = holiday.toEpochDay();
+    }
+    return dates;
+  }
+
+  /**
+   * Gets the business hours of this calendar as a {@link BusinessSchedule} in every case, for
+   * use with {@link com.github.aruberto.businesstime.common.MutableBusinessSchedule} and other
+   * primitive methods that need one. Unlike {@link #getSchedule()}, which is null when every
+   * working day has the same hours, a schedule is compiled from the business day start and end
+   * time on each call when this calendar does not keep one.
+   *
+   * @return the business schedule, not null
+   */
+  public BusinessSchedule compiledSchedule() {
+    return schedule != null
+           ? schedule
+           : covered(BusinessSchedule.ofWeekWindows(weekWindows(), holidayEpochDays()));
+  }
+
+  /**
+   * Returns {@code schedule} covering only the years of the holiday rules, if any.
+   */
+  private BusinessSchedule covered(BusinessSchedule schedule) {
+    return holidayRules == null
+           ? schedule
+           : schedule.withCoverage(holidayRules.getFirstEpochDay(),
+                                   holidayRules.getLastEpochDay());
+  }
+
+  /**
+   * Returns the start and end time of each window of day {@code day} of {@code weekdays}, where
+   * a session running on into the tail of the next day ends on that day instead of at midnight,
+   * so it stays one business day once the calendar compiles it again.
+   */
+  private static List<LocalTime> weekdayTimes(DaySchedule[] weekdays, long[] tails, int day) {
+    int next = (day + 1) % weekdays.length;
+    List<LocalTime> times = new ArrayList<>(times(weekdays[day]));
+    if (runsOnInto(weekdays, tails, next)) {
+      times.set(times.size() - 1, LocalTime.ofNanoOfDay(tails[next]));
+    }
+    if (runsOnInto(weekdays, tails, day)) {
+      times = times.subList(2, times.size());
+    }
+    return Collections.unmodifiableList(times);
+  }
+
+  /**
+   * Returns whether the first window of day {@code day} of {@code weekdays} is the tail of a
+   * session ending the day before at midnight.
+   */
+  private static boolean runsOnInto(DaySchedule[] weekdays, long[] tails, int day) {
+    DaySchedule hours = weekdays[day];
+    DaySchedule previous = weekdays[(day + weekdays.length - 1) % weekdays.length];
+    return tails[day] > 0
+           && hours.getWindowEndNanosOfDay(0) == tails[day]
+           && previous.getWindowCount() > 0
+           && previous.getWindowEndNanosOfDay(previous.getWindowCount() - 1)
+              == Constants.NANOS_PER_DAY;
+  }
+
+  /**
+   * Returns the start and end time of each window of {@code hours}, midnight ending the last
+   * window at the end of the day.
+   */
+  private static List<LocalTime> times(DaySchedule hours) {
+    LocalTime[] times = new LocalTime[2 * hours.getWindowCount()];
+    for (int i = 0; i < hours.getWindowCount(); i++) {
+      times[2 * i] = LocalTime.ofNanoOfDay(hours.getWindowStartNanosOfDay(i));
+      times[2 * i + 1] = LocalTime.ofNanoOfDay(
+          hours.getWindowEndNanosOfDay(i) % Constants.NANOS_PER_DAY);
+    }
+    return Collections.unmodifiableList(Arrays.asList(times));
+  }
+
+  /**
+   * Returns the business hours of a date given as the start and end time of each window.
+   */
+  private static DaySchedule dateSchedule(List<LocalTime> times) {
+    long[] boundaries = new long[times.size()];
+    for (int i = 0; i < boundaries.length; i++) {
+      boundaries[i] = times.get(i).toNanoOfDay();
+    }
+    // midnight closing the last window is the end of the date
+    int last = boundaries.length - 1;
+    if (last > 0 && boundaries[last] == 0) {
+      boundaries[last] = Constants.NANOS_PER_DAY;
+    }
+    return new DaySchedule(boundaries);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof BusinessCalendar) {
+      BusinessCalendar other = (BusinessCalendar) obj;
+      return dayStartTime.equals(other.dayStartTime)
+             && dayEndTime.equals(other.dayEndTime)
+             && holidays.equals(other.holidays)
+             && workingWeek.getWorkingDays() == other.workingWeek.getWorkingDays()
+             && weekdayHours.equals(other.weekdayHours)
+             && dateHours.equals(other.dateHours)
+             && Objects.equals(holidayRules, other.holidayRules);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = dayStartTime.hashCode();
+    result = 31 * result + dayEndTime.hashCode();
+    result = 31 * result + holidays.hashCode();
+    result = 31 * result + workingWeek.getWorkingDays();
+    result = 31 * result + weekdayHours.hashCode();
+    result = 31 * result + dateHours.hashCode();
+    result = 31 * result + Objects.hashCode(holidayRules);
+    return result;
+  }
+
+  private Object readResolve() {
+    // recompile the transient state
+    return new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek, weekdayHours,
+                                dateHours, holidayRules);
+  }
+}
@@ -2,15 +2,16 @@ package com.github.aruberto.businesstime.jdk8;
 
 import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
 import com.github.aruberto.businesstime.common.BusinessDateTimeCalculatorResult;
+import com.github.aruberto.businesstime.common.BusinessSchedule;
 import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
 
-import net.objectlab.kit.datecalc.common.DateCalculator;
-import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
-import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
-import net.objectlab.kit.datecalc.jdk8.LocalDateKitCalculatorsFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
@@ -22,7 +23,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalField;
 import java.time.temporal.TemporalUnit;
-import java.util.Collections;
+import java.time.temporal.UnsupportedTemporalTypeException;
 import java.util.Set;
 
 /**
@@ -33,6 +34,16 @@ import java.util.Set;
  * <li>is limited to the precision of nanoseconds</li>
  * <li>only includes points that fall between start and end of business day</li>
  * </ul>
+ * <p>
+ * Calculations run on date times packed as {@link LocalEpochNanos}, from 1677 to 2262. Date
+ * times outside those years are moved day by day with the calendar's
+ * {@link BusinessCalendar#getDateCalculator() date calculator} instead, unless the calendar has
+ * its own business hours, in which case they throw {@link ArithmeticException}, as do
+ * calculations whose result falls outside those years.
+ * <p>
+ * Instances are serialized as the date time and its {@link BusinessCalendar}. Instances
+ * serialized by versions before calendars, with the business hours, holidays and working week
+ * held directly, are still read and get a calendar of their own.
  *
  * @author Antonio Ruberto
  */
@@ -41,14 +52,13 @@ public final class BusinessDateTime
 
   private static final long serialVersionUID = -7158714391819702156L;
 
-  private static final LocalTime DEFAULT_BUSINESS_DAY_START = LocalTime.of(9, 0, 0, 0);
-  private static final LocalTime DEFAULT_BUSINESS_DAY_END = LocalTime.of(17, 0, 0, 0);
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
 
   private final ZonedDateTime dateTime;
-  private final Set<LocalDate> holidays;
-  private final LocalTime dayStartTime;
-  private final LocalTime dayEndTime;
-  private final Jdk8WorkingWeek workingWeek;
+  private final BusinessCalendar calendar;
+  private transient ZonedDateTime normalized;
+  private transient BusinessDateTime resolved;
 
   /**
    * Constructs an instance of BusinessDateTime at point of time of {@code dateTime}
@@ -66,29 +76,35 @@ public final class BusinessDateTime
                           LocalTime dayEndTime,
                           Set<LocalDate> holidays,
                           WorkingWeek workingWeek) {
+    this(dateTime, new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek));
+  }
+
+  /**
+   * Constructs an instance of BusinessDateTime at point of time of {@code dateTime}
+   * with business day, holidays and working week of {@code calendar}
+   *
+   * @param dateTime date time, null means current time with default time zone
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   */
+  public BusinessDateTime(ZonedDateTime dateTime, BusinessCalendar calendar) {
     if (dateTime == null) {
       throw new NullPointerException("date time cannot be null");
     }
-    if (dayStartTime == null) {
-      dayStartTime = DEFAULT_BUSINESS_DAY_START;
-    }
-    if (dayEndTime == null) {
-      dayEndTime = DEFAULT_BUSINESS_DAY_END;
-    }
-    if (holidays == null) {
-      holidays = Collections.emptySet();
-    }
-    if (workingWeek == null) {
-      workingWeek = WorkingWeek.DEFAULT;
-    }
-    if (dayEndTime.equals(dayStartTime) || dayEndTime.isBefore(dayStartTime)) {
-      throw new IllegalArgumentException("business day end time must be after start time");
+    if (calendar == null) {
+      calendar = BusinessCalendar.DEFAULT;
     }
     this.dateTime = dateTime;
-    this.dayStartTime = dayStartTime;
-    this.dayEndTime = dayEndTime;
-    this.holidays = holidays;
-    this.workingWeek = new Jdk8WorkingWeek(workingWeek);
+    this.calendar = calendar;
+  }
+
+  /**
+   * Constructs an instance of BusinessDateTime at current time in system time zone
+   * with business day, holidays and working week of {@code calendar}
+   *
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   */
+  public BusinessDateTime(BusinessCalendar calendar) {
+    this(ZonedDateTime.now(), calendar);
   }
 
   /**
@@ -177,7 +193,7 @@ public final class BusinessDateTime
    * @param dateTime date time, null means current time with default time zone
    */
   public BusinessDateTime(ZonedDateTime dateTime) {
-    this(dateTime, null, null, null, null);
+    this(dateTime, BusinessCalendar.DEFAULT);
   }
 
   /**
@@ -186,57 +202,135 @@ public final class BusinessDateTime
    * no holidays and working week of Monday to Friday
    */
   public BusinessDateTime() {
-    this(ZonedDateTime.now(), null, null, null, null);
+    this(ZonedDateTime.now(), BusinessCalendar.DEFAULT);
+  }
+
+  /**
+   * Obtains the BusinessDateTime with business ordinal {@code businessNanos} under
+   * {@code calendar}, the inverse of {@link #toBusinessNanos()}. An ordinal on a day boundary
+   * maps to the start of the later business day.
+   *
+   * @param businessNanos business nanos since the start of business hours on 1970-01-05
+   * @param zone the time zone, not null
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the business date time, not null
+   */
+  public static BusinessDateTime ofBusinessNanos(long businessNanos,
+                                                 ZoneId zone,
+                                                 BusinessCalendar calendar) {
+    if (calendar == null) {
+      calendar = BusinessCalendar.DEFAULT;
+    }
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return of(schedule.fromOrdinal(businessNanos, false), zone, calendar);
+    }
+    long result = CALCULATOR.fromOrdinal(
+        businessNanos,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator(),
+        false);
+    return of(result, zone, calendar);
   }
 
-  private DateCalculator<LocalDate> getDateCalculator() {
-    return new LocalDateKitCalculatorsFactory()
-        .registerHolidays(Constants.HOLIDAY_KEY, new DefaultHolidayCalendar<>(holidays))
-        .getDateCalculator(Constants.HOLIDAY_KEY, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK)
-        .setWorkingWeek(workingWeek);
+  private static BusinessDateTime of(long localEpochNanos,
+                                     ZoneId zone,
+                                     BusinessCalendar calendar) {
+    return new BusinessDateTime(calendar.getStartOfDays(zone).toZonedDateTime(localEpochNanos),
+                                calendar);
+  }
+
+  private BusinessDateTime fromResult(long result) {
+    return of(result, dateTime.getZone(), calendar);
   }
 
   private BusinessDateTime fromResult(BusinessDateTimeCalculatorResult<LocalDate> result) {
     ZonedDateTime endDateTime = result.getEndDate()
         .atStartOfDay(dateTime.getZone())
         .plusNanos(result.getNanosOfDay());
-    return new BusinessDateTime(endDateTime, dayStartTime, dayEndTime, holidays, workingWeek);
+    return new BusinessDateTime(endDateTime, calendar);
   }
 
-  private BusinessDateTime move(long unitsToMove, long unitFactor) {
-    DateCalculator<LocalDate> calc = getDateCalculator();
+  /**
+   * Returns whether this date time is too far from 1970 to be packed as
+   * {@link LocalEpochNanos}, and has to be moved by dates instead.
+   */
+  private boolean isUnpackable() {
+    return !LocalEpochNanos.isSupported(dateTime.toLocalDate().toEpochDay());
+  }
 
-    BusinessDateTimeCalculator<LocalDate> businessCalc = new BusinessDateTimeCalculator<>();
-    BusinessDateTimeCalculatorResult<LocalDate> result = businessCalc.move(
-        dateTime.toLocalDate(),
+  private long toLocalEpochNanos() {
+    return LocalEpochNanos.of(dateTime.toLocalDate().toEpochDay(),
+                              dateTime.toLocalTime().toNanoOfDay());
+  }
+
+  private BusinessDateTime move(long unitsToMove, long unitFactor) {
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return fromResult(schedule.move(toLocalEpochNanos(), unitsToMove * unitFactor));
+    }
+    if (isUnpackable()) {
+      return fromResult(CALCULATOR.move(dateTime.toLocalDate(),
+                                        dateTime.toLocalTime().toNanoOfDay(),
+                                        unitsToMove,
+                                        unitFactor,
+                                        calendar.getDayStartNanosOfDay(),
+                                        calendar.getDayEndNanosOfDay(),
+                                        calendar.getDateCalculator()));
+    }
+    long result = CALCULATOR.move(
+        dateTime.toLocalDate().toEpochDay(),
         dateTime.toLocalTime().toNanoOfDay(),
         unitsToMove,
         unitFactor,
-        dayStartTime.toNanoOfDay(),
-        dayEndTime.toNanoOfDay(),
-        calc);
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
 
     return fromResult(result);
   }
 
   private BusinessDateTime moveDays(int days) {
-    DateCalculator<LocalDate> calc = getDateCalculator();
-
-    BusinessDateTimeCalculator<LocalDate> businessCalc = new BusinessDateTimeCalculator<>();
-    BusinessDateTimeCalculatorResult<LocalDate> result = businessCalc.moveDays(
-        dateTime.toLocalDate(),
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return fromResult(schedule.moveDays(toLocalEpochNanos(), days));
+    }
+    if (isUnpackable()) {
+      return fromResult(CALCULATOR.moveDays(dateTime.toLocalDate(),
+                                            dateTime.toLocalTime().toNanoOfDay(),
+                                            days,
+                                            calendar.getDayStartNanosOfDay(),
+                                            calendar.getDayEndNanosOfDay(),
+                                            calendar.getDateCalculator()));
+    }
+    long result = CALCULATOR.moveDays(
+        dateTime.toLocalDate().toEpochDay(),
         dateTime.toLocalTime().toNanoOfDay(),
         days,
-        dayStartTime.toNanoOfDay(),
-        dayEndTime.toNanoOfDay(),
-        calc);
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
 
     return fromResult(result);
   }
 
+  /**
+   * Returns {@code dateTime} adjusted into business hours. Computed on first use and cached;
+   * ZonedDateTime is immutable so threads racing here at worst compute the same value twice.
+   */
+  private ZonedDateTime normalized() {
+    ZonedDateTime result = normalized;
+    if (result == null) {
+      result = move(0, Constants.NANOS_PER_NANO).dateTime;
+      normalized = result;
+    }
+    return result;
+  }
+
   @Override
   public ChronoLocalDateTime<LocalDate> toLocalDateTime() {
-    return move(0, Constants.NANOS_PER_NANO).dateTime.toLocalDateTime();
+    return normalized().toLocalDateTime();
   }
 
   @Override
@@ -251,57 +345,27 @@ public final class BusinessDateTime
 
   @Override
   public ChronoZonedDateTime<LocalDate> withEarlierOffsetAtOverlap() {
-    return new BusinessDateTime(
-        dateTime.withEarlierOffsetAtOverlap(),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withEarlierOffsetAtOverlap(), calendar);
   }
 
   @Override
   public ChronoZonedDateTime<LocalDate> withLaterOffsetAtOverlap() {
-    return new BusinessDateTime(
-        dateTime.withLaterOffsetAtOverlap(),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withLaterOffsetAtOverlap(), calendar);
   }
 
   @Override
   public ChronoZonedDateTime<LocalDate> withZoneSameLocal(ZoneId zone) {
-    return new BusinessDateTime(
-        dateTime.withZoneSameLocal(zone),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withZoneSameLocal(zone), calendar);
   }
 
   @Override
   public ChronoZonedDateTime<LocalDate> withZoneSameInstant(ZoneId zone) {
-    return new BusinessDateTime(
-        dateTime.withZoneSameInstant(zone),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withZoneSameInstant(zone), calendar);
   }
 
   @Override
   public ChronoZonedDateTime<LocalDate> with(TemporalField field, long newValue) {
-    return new BusinessDateTime(
-        dateTime.with(field, newValue),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.with(field, newValue), calendar);
   }
 
   @Override
@@ -319,18 +383,12 @@ public final class BusinessDateTime
         case DAYS: return moveDays((int)amountToAdd);
       }
     }
-    return new BusinessDateTime(
-        dateTime.plus(amountToAdd, unit),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.plus(amountToAdd, unit), calendar);
   }
 
   @Override
   public long until(Temporal endExclusive, TemporalUnit unit) {
-    return move(0, Constants.NANOS_PER_NANO).dateTime.until(endExclusive, unit);
+    return normalized().until(endExclusive, unit);
   }
 
   @Override
@@ -345,24 +403,124 @@ public final class BusinessDateTime
     }
     if (obj instanceof BusinessDateTime) {
       BusinessDateTime other = (BusinessDateTime) obj;
-      return move(0, Constants.NANOS_PER_NANO).dateTime
-          .equals(other.move(0, Constants.NANOS_PER_NANO).dateTime);
+      return normalized().equals(other.normalized());
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return move(0, Constants.NANOS_PER_NANO).dateTime.hashCode();
+    return normalized().hashCode();
   }
 
   @Override
   public String toString() {
-    return move(0, Constants.NANOS_PER_NANO).dateTime.toString();
+    return normalized().toString();
   }
 
   public ZonedDateTime toZonedDateTime() {
-    return move(0, Constants.NANOS_PER_NANO).dateTime;
+    return normalized();
+  }
+
+  /**
+   * Returns the business ordinal of this date time: the business nanos elapsed since the start
+   * of business hours on Monday 1970-01-05 under its calendar. Ordinals of date times sharing a
+   * calendar can be compared, subtracted and offset as plain longs.
+   *
+   * @return business nanos since the calendar epoch, negative before it
+   */
+  public long toBusinessNanos() {
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return schedule.toOrdinal(toLocalEpochNanos());
+    }
+    return CALCULATOR.toOrdinal(
+        dateTime.toLocalDate().toEpochDay(),
+        dateTime.toLocalTime().toNanoOfDay(),
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
+  }
+
+  /**
+   * Calculates the amount of business time until {@code endExclusive} in terms of
+   * {@code unit}. Only time within business hours on business days is counted, so unlike
+   * {@link #until(Temporal, TemporalUnit)} nights, weekends and holidays do not add up.
+   * {@code DAYS} and {@code HALF_DAYS} count the business days {@link #plusDays(long)} moves
+   * by, and halves of them, so a day with shorter hours still counts as a whole day.
+   *
+   * @param endExclusive the end date time, exclusive
+   * @param unit the unit to measure the amount in, from {@code NANOS} to {@code DAYS}
+   * @return the amount of business time, negative if end is before this date time
+   * @throws UnsupportedTemporalTypeException if the unit is not supported
+   */
+  public long businessUntil(ChronoZonedDateTime<?> endExclusive, TemporalUnit unit) {
+    if (unit instanceof ChronoUnit) {
+      ChronoUnit f = (ChronoUnit) unit;
+      if (f == ChronoUnit.HALF_DAYS || f == ChronoUnit.DAYS) {
+        return businessDaysUntil(endExclusive, f == ChronoUnit.HALF_DAYS ? 2 : 1);
+      }
+      long nanos = businessNanosUntil(endExclusive);
+      switch (f) {
+        case NANOS: return nanos / Constants.NANOS_PER_NANO;
+        case MICROS: return nanos / Constants.NANOS_PER_MICRO;
+        case MILLIS: return nanos / Constants.NANOS_PER_MILLI;
+        case SECONDS: return nanos / Constants.NANOS_PER_SECOND;
+        case MINUTES: return nanos / Constants.NANOS_PER_MINUTE;
+        case HOURS: return nanos / Constants.NANOS_PER_HOUR;
+      }
+    }
+    throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+  }
+
+  /**
+   * Calculates the business time until {@code endExclusive}. Only time within business hours
+   * on business days is counted.
+   *
+   * @param endExclusive the end date time, exclusive
+   * @return the business duration, negative if end is before this date time
+   */
+  public Duration businessDurationUntil(ChronoZonedDateTime<?> endExclusive) {
+    return Duration.ofNanos(businessNanosUntil(endExclusive));
+  }
+
+  private long businessNanosUntil(ChronoZonedDateTime<?> endExclusive) {
+    ZonedDateTime end = ZonedDateTime.ofInstant(endExclusive.toInstant(), dateTime.getZone());
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return schedule.businessNanosBetween(
+          toLocalEpochNanos(),
+          LocalEpochNanos.of(end.toLocalDate().toEpochDay(), end.toLocalTime().toNanoOfDay()));
+    }
+    return CALCULATOR.businessNanosBetween(
+        dateTime.toLocalDate().toEpochDay(),
+        dateTime.toLocalTime().toNanoOfDay(),
+        end.toLocalDate().toEpochDay(),
+        end.toLocalTime().toNanoOfDay(),
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
+  }
+
+  private long businessDaysUntil(ChronoZonedDateTime<?> endExclusive, int partsPerDay) {
+    ZonedDateTime end = ZonedDateTime.ofInstant(endExclusive.toInstant(), dateTime.getZone());
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return CALCULATOR.businessDaysBetween(
+          toLocalEpochNanos(),
+          LocalEpochNanos.of(end.toLocalDate().toEpochDay(), end.toLocalTime().toNanoOfDay()),
+          partsPerDay,
+          schedule);
+    }
+    return CALCULATOR.businessDaysBetween(
+        dateTime.toLocalDate().toEpochDay(),
+        dateTime.toLocalTime().toNanoOfDay(),
+        end.toLocalDate().toEpochDay(),
+        end.toLocalTime().toNanoOfDay(),
+        partsPerDay,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
   }
 
   /**
@@ -376,13 +534,7 @@ public final class BusinessDateTime
     if (years == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusYears(years),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.plusYears(years), calendar);
     }
   }
 
@@ -397,13 +549,7 @@ public final class BusinessDateTime
     if (years == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusYears(years),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.minusYears(years), calendar);
     }
   }
 
@@ -418,13 +564,7 @@ public final class BusinessDateTime
     if (months == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusMonths(months),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.plusMonths(months), calendar);
     }
   }
 
@@ -439,13 +579,7 @@ public final class BusinessDateTime
     if (months == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusMonths(months),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.minusMonths(months), calendar);
     }
   }
 
@@ -460,13 +594,7 @@ public final class BusinessDateTime
     if (weeks == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusWeeks(weeks),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.plusWeeks(weeks), calendar);
     }
   }
 
@@ -481,13 +609,7 @@ public final class BusinessDateTime
     if (weeks == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusWeeks(weeks),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek
-      );
+      return new BusinessDateTime(dateTime.minusWeeks(weeks), calendar);
     }
   }
 
@@ -645,13 +767,7 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the year value is invalid
    */
   public BusinessDateTime withYear(int year) {
-    return new BusinessDateTime(
-        dateTime.withYear(year),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withYear(year), calendar);
   }
 
   /**
@@ -662,13 +778,7 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the month-of-year value is invalid
    */
   public BusinessDateTime withMonth(int month) {
-    return new BusinessDateTime(
-        dateTime.withMonth(month),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withMonth(month), calendar);
   }
 
   /**
@@ -680,13 +790,7 @@ public final class BusinessDateTime
    *         or if the day-of-month is invalid for the month-year
    */
   public BusinessDateTime withDayOfMonth(int dayOfMonth) {
-    return new BusinessDateTime(
-        dateTime.withDayOfMonth(dayOfMonth),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withDayOfMonth(dayOfMonth), calendar);
   }
 
   /**
@@ -698,13 +802,7 @@ public final class BusinessDateTime
    *         or if the day-of-year is invalid for the year
    */
   public BusinessDateTime withDayOfYear(int dayOfYear) {
-    return new BusinessDateTime(
-        dateTime.withDayOfYear(dayOfYear),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withDayOfYear(dayOfYear), calendar);
   }
 
   /**
@@ -715,13 +813,7 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the hour value is invalid
    */
   public BusinessDateTime withHour(int hour) {
-    return new BusinessDateTime(
-        dateTime.withHour(hour),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withHour(hour), calendar);
   }
 
   /**
@@ -732,13 +824,7 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the minute value is invalid
    */
   public BusinessDateTime withMinute(int minute) {
-    return new BusinessDateTime(
-        dateTime.withMinute(minute),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withMinute(minute), calendar);
   }
 
   /**
@@ -749,13 +835,7 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the second value is invalid
    */
   public BusinessDateTime withSecond(int second) {
-    return new BusinessDateTime(
-        dateTime.withSecond(second),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withSecond(second), calendar);
   }
 
   /**
@@ -767,13 +847,26 @@ public final class BusinessDateTime
    * @throws java.time.DateTimeException if the nano value is invalid
    */
   public BusinessDateTime withNano(int nanoOfSecond) {
-    return new BusinessDateTime(
-        dateTime.withNano(nanoOfSecond),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek
-    );
+    return new BusinessDateTime(dateTime.withNano(nanoOfSecond), calendar);
+  }
+
+  /**
+   * Gets the business calendar of this datetime.
+   *
+   * @return the business calendar, not null
+   */
+  public BusinessCalendar getCalendar() {
+    return calendar;
+  }
+
+  /**
+   * Returns a copy of this datetime with the business calendar updated.
+   *
+   * @param calendar the calendar to set, null means {@link BusinessCalendar#DEFAULT}
+   * @return a copy of this object with the calendar set
+   */
+  public BusinessDateTime withCalendar(BusinessCalendar calendar) {
+    return new BusinessDateTime(dateTime, calendar);
   }
 
   /**
@@ -784,12 +877,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withBusinessDayStartTime(LocalTime time) {
-    return new BusinessDateTime(
-        dateTime,
-        time,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withDayStartTime(time));
   }
 
   /**
@@ -800,12 +888,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withBusinessDayEndTime(LocalTime time) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        time,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withDayEndTime(time));
   }
 
   /**
@@ -815,12 +898,7 @@ public final class BusinessDateTime
    * @return a copy of this object with the field set
    */
   public BusinessDateTime withHolidays(Set<LocalDate> dates) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        dayEndTime,
-        dates,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withHolidays(dates));
   }
 
   /**
@@ -830,11 +908,28 @@ public final class BusinessDateTime
    * @return a copy of this object with the field set
    */
   public BusinessDateTime withWorkingWeek(WorkingWeek week) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        week);
+    return new BusinessDateTime(dateTime, calendar.withWorkingWeek(week));
+  }
+
+  /**
+   * Reads the date time and its calendar, or, in the form written before calendars, the date time
+   * with the business day start and end time, holidays and working week it was built from.
+   */
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    BusinessCalendar businessCalendar = (BusinessCalendar) fields.get("calendar", null);
+    if (fields.defaulted("calendar")) {
+      businessCalendar = new BusinessCalendar((LocalTime) fields.get("dayStartTime", null),
+                                              (LocalTime) fields.get("dayEndTime", null),
+                                              (Set<LocalDate>) fields.get("holidays", null),
+                                              (WorkingWeek) fields.get("workingWeek", null));
+    }
+    resolved = new BusinessDateTime((ZonedDateTime) fields.get("dateTime", null),
+                                    businessCalendar);
+  }
+
+  private Object readResolve() {
+    return resolved;
   }
 }
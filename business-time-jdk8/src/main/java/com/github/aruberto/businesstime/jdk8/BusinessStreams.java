@@ -0,0 +1,219 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.BusinessDayCalculator;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * BusinessStreams streams the business days and business hour slots of a range.
+ * <p>
+ * Every business day and slot has an index in its calendar, so a range is an interval of
+ * indexes whose length is known up front. Streams are backed by a {@link Spliterator} that
+ * reports its exact size and splits the interval in halves, which keeps {@code parallel()}
+ * streams balanced and lets {@code count()} and {@code toArray()} skip iteration.
+ *
+ * @author Antonio Ruberto
+ */
+public final class BusinessStreams {
+
+  private BusinessStreams() {
+  }
+
+  /**
+   * Streams the business days from {@code startInclusive} to {@code endExclusive}, in order.
+   *
+   * @param startInclusive first date, not null
+   * @param endExclusive date after the last, not null
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the business days as epoch days, empty if end is not after start
+   */
+  public static LongStream businessEpochDays(LocalDate startInclusive,
+                                             LocalDate endExclusive,
+                                             BusinessCalendar calendar) {
+    BusinessDayCalculator days = orDefault(calendar).getDayCalculator();
+    long first = days.businessDaysBefore(startInclusive.toEpochDay());
+    long fence = Math.max(first, days.businessDaysBefore(endExclusive.toEpochDay()));
+    return StreamSupport.longStream(new IndexSpliterator(first, fence, days::businessDayAt),
+                                    false);
+  }
+
+  /**
+   * Streams the business days from {@code startInclusive} to {@code endExclusive}, in order.
+   *
+   * @param startInclusive first date, not null
+   * @param endExclusive date after the last, not null
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the business days, empty if end is not after start
+   */
+  public static Stream<LocalDate> businessDays(LocalDate startInclusive,
+                                               LocalDate endExclusive,
+                                               BusinessCalendar calendar) {
+    return businessEpochDays(startInclusive, endExclusive, calendar)
+        .mapToObj(LocalDate::ofEpochDay);
+  }
+
+  /**
+   * Streams the starts of the business hour slots from {@code startInclusive} to
+   * {@code endExclusive}, in order.
+   * <p>
+   * Every business day is cut into slots of length {@code slot} from its start time. When the
+   * business day is not a whole number of slots long, the last slot of each day is cut short
+   * at the end time.
+   *
+   * @param startInclusive earliest slot start, not null
+   * @param endExclusive date time after the latest slot start, not null
+   * @param slot length of a slot, positive
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the slot starts packed as {@link LocalEpochNanos}, empty if end is not after start
+   * @throws IllegalArgumentException if {@code slot} is not positive or the calendar has a
+   *     {@link BusinessCalendar#getSchedule() schedule}, as slots need every business day to
+   *     have the same hours within the day
+   */
+  public static LongStream businessSlotEpochNanos(LocalDateTime startInclusive,
+                                                  LocalDateTime endExclusive,
+                                                  Duration slot,
+                                                  BusinessCalendar calendar) {
+    BusinessCalendar cal = orDefault(calendar);
+    long slotNanos = slot.toNanos();
+    if (slotNanos <= 0) {
+      throw new IllegalArgumentException("slot must be positive but was " + slot);
+    }
+    if (cal.getSchedule() != null) {
+      throw new IllegalArgumentException(
+          "slots need the same business hours every day but calendar has a schedule");
+    }
+    BusinessDayCalculator days = cal.getDayCalculator();
+    long dayStart = cal.getDayStartNanosOfDay();
+    long dayEnd = cal.getDayEndNanosOfDay();
+    long slotsPerDay = Math.floorDiv(dayEnd - dayStart + slotNanos - 1, slotNanos);
+    long first = slotsBefore(startInclusive, dayStart, dayEnd, slotNanos, slotsPerDay, days);
+    long fence = Math.max(first,
+                          slotsBefore(endExclusive, dayStart, dayEnd, slotNanos, slotsPerDay,
+                                      days));
+    return StreamSupport.longStream(new IndexSpliterator(first, fence, index -> {
+      long day = days.businessDayAt(Math.floorDiv(index, slotsPerDay));
+      return LocalEpochNanos.of(day, dayStart + Math.floorMod(index, slotsPerDay) * slotNanos);
+    }), false);
+  }
+
+  /**
+   * Streams the starts of the business hour slots from {@code startInclusive} to
+   * {@code endExclusive}, in order, see {@link #businessSlotEpochNanos(LocalDateTime,
+   * LocalDateTime, Duration, BusinessCalendar)}.
+   *
+   * @param startInclusive earliest slot start, not null
+   * @param endExclusive date time after the latest slot start, not null
+   * @param slot length of a slot, positive
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the slot starts, empty if end is not after start
+   * @throws IllegalArgumentException if {@code slot} is not positive or the calendar has a
+   *     schedule
+   */
+  public static Stream<LocalDateTime> businessSlots(LocalDateTime startInclusive,
+                                                    LocalDateTime endExclusive,
+                                                    Duration slot,
+                                                    BusinessCalendar calendar) {
+    return businessSlotEpochNanos(startInclusive, endExclusive, slot, calendar)
+        .mapToObj(BusinessStreams::toLocalDateTime);
+  }
+
+  private static long slotsBefore(LocalDateTime dateTime,
+                                  long dayStart,
+                                  long dayEnd,
+                                  long slotNanos,
+                                  long slotsPerDay,
+                                  BusinessDayCalculator days) {
+    long day = dateTime.toLocalDate().toEpochDay();
+    long slots = days.businessDaysBefore(day) * slotsPerDay;
+    if (days.isBusinessDay(day)) {
+      long time = Math.min(Math.max(dateTime.toLocalTime().toNanoOfDay(), dayStart), dayEnd);
+      // slots of this day starting strictly before the time
+      slots += Math.floorDiv(time - dayStart + slotNanos - 1, slotNanos);
+    }
+    return slots;
+  }
+
+  private static LocalDateTime toLocalDateTime(long localEpochNanos) {
+    return LocalDateTime.of(LocalDate.ofEpochDay(LocalEpochNanos.toEpochDay(localEpochNanos)),
+                            LocalTime.ofNanoOfDay(LocalEpochNanos.toNanosOfDay(localEpochNanos)));
+  }
+
+  private static BusinessCalendar orDefault(BusinessCalendar calendar) {
+    return calendar == null ? BusinessCalendar.DEFAULT : calendar;
+  }
+
+  /**
+   * Spliterator over the indexes from {@code index} to {@code fence}, mapped to values by
+   * {@code mapping}.
+   */
+  private static final class IndexSpliterator implements Spliterator.OfLong {
+
+    private static final int CHARACTERISTICS =
+        ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+
+    private long index;
+    private final long fence;
+    private final LongUnaryOperator mapping;
+
+    IndexSpliterator(long index, long fence, LongUnaryOperator mapping) {
+      this.index = index;
+      this.fence = fence;
+      this.mapping = mapping;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      if (index >= fence) {
+        return false;
+      }
+      action.accept(mapping.applyAsLong(index++));
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      long i = index;
+      index = fence;
+      for (; i < fence; i++) {
+        action.accept(mapping.applyAsLong(i));
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      long mid = index + ((fence - index) >>> 1);
+      if (mid <= index) {
+        return null;
+      }
+      IndexSpliterator prefix = new IndexSpliterator(index, mid, mapping);
+      index = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Long> getComparator() {
+      return null;
+    }
+  }
+}
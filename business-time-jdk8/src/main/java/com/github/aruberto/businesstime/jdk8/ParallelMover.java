@@ -0,0 +1,194 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
+import com.github.aruberto.businesstime.common.BusinessSchedule;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelMover moves large batches of date times by business time on a {@link ForkJoinPool}.
+ * <p>
+ * Date times are packed as {@link LocalEpochNanos}. The batch is split into contiguous slices
+ * that are moved with {@link BusinessDateTimeCalculator#moveAll(long[], int, int, long, long,
+ * long, long, com.github.aruberto.businesstime.common.BusinessDayCalculator, long[])}, or with
+ * {@link BusinessSchedule#move(long, long)} when the calendar has a schedule; the compiled
+ * calendar is read only and shared by every worker, so slices need no coordination.
+ *
+ * @author Antonio Ruberto
+ */
+public final class ParallelMover {
+
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<>();
+
+  /**
+   * Slices smaller than this are moved on the current thread. A slice of 8192 date times takes
+   * about 75 us to move, so forking it costs little, and its start and result arrays, 128 KiB
+   * together, stay in a typical L2 cache. A batch of a million still splits into over a hundred
+   * slices, enough to balance load between workers. On one core, slices from 512 to 32768 moved
+   * 4 million date times equally fast within noise; the choice is not tuned on more cores.
+   */
+  static final int SLICE = 1 << 13;
+
+  private ParallelMover() {
+  }
+
+  /**
+   * Moves every date time in {@code startLocalEpochNanos} by {@code amount} {@code unit}s of
+   * business time on the common pool, writing the results to the same positions of
+   * {@code results}.
+   *
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param amount the amount of units to move each date time, may be negative or positive
+   * @param unit the unit to move by, from {@code NANOS} to {@code HOURS}
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @param results array to write the moved date times to, may be the start array
+   * @throws UnsupportedTemporalTypeException if the unit is not supported
+   * @throws IllegalArgumentException if {@code results} is shorter than the start array
+   */
+  public static void moveAll(long[] startLocalEpochNanos,
+                             long amount,
+                             ChronoUnit unit,
+                             BusinessCalendar calendar,
+                             long[] results) {
+    moveAll(ForkJoinPool.commonPool(), startLocalEpochNanos, amount, unit, calendar, results);
+  }
+
+  /**
+   * Moves every date time in {@code startLocalEpochNanos} by {@code amount} {@code unit}s of
+   * business time on {@code pool}, writing the results to the same positions of
+   * {@code results}.
+   *
+   * @param pool the pool to run on, not null
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param amount the amount of units to move each date time, may be negative or positive
+   * @param unit the unit to move by, from {@code NANOS} to {@code HOURS}
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @param results array to write the moved date times to, may be the start array
+   * @throws UnsupportedTemporalTypeException if the unit is not supported
+   * @throws IllegalArgumentException if {@code results} is shorter than the start array
+   */
+  public static void moveAll(ForkJoinPool pool,
+                             long[] startLocalEpochNanos,
+                             long amount,
+                             ChronoUnit unit,
+                             BusinessCalendar calendar,
+                             long[] results) {
+    checkLength(startLocalEpochNanos.length, results.length);
+    pool.invoke(new MoveTask(startLocalEpochNanos, amount, null, unitFactor(unit),
+                             calendar == null ? BusinessCalendar.DEFAULT : calendar,
+                             results, 0, startLocalEpochNanos.length));
+  }
+
+  /**
+   * Moves every date time in {@code startLocalEpochNanos} by the amount at the same position of
+   * {@code amounts} on {@code pool}, writing the results to the same positions of
+   * {@code results}.
+   *
+   * @param pool the pool to run on, not null
+   * @param startLocalEpochNanos starting date times, packed as {@link LocalEpochNanos}
+   * @param amounts the amount of units to move each date time, may be negative or positive
+   * @param unit the unit to move by, from {@code NANOS} to {@code HOURS}
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @param results array to write the moved date times to, may be the start array
+   * @throws UnsupportedTemporalTypeException if the unit is not supported
+   * @throws IllegalArgumentException if {@code amounts} or {@code results} is shorter than the
+   *     start array
+   */
+  public static void moveAll(ForkJoinPool pool,
+                             long[] startLocalEpochNanos,
+                             long[] amounts,
+                             ChronoUnit unit,
+                             BusinessCalendar calendar,
+                             long[] results) {
+    checkLength(startLocalEpochNanos.length, amounts.length);
+    checkLength(startLocalEpochNanos.length, results.length);
+    pool.invoke(new MoveTask(startLocalEpochNanos, 0, amounts, unitFactor(unit),
+                             calendar == null ? BusinessCalendar.DEFAULT : calendar,
+                             results, 0, startLocalEpochNanos.length));
+  }
+
+  private static long unitFactor(ChronoUnit unit) {
+    switch (unit) {
+      case NANOS: return Constants.NANOS_PER_NANO;
+      case MICROS: return Constants.NANOS_PER_MICRO;
+      case MILLIS: return Constants.NANOS_PER_MILLI;
+      case SECONDS: return Constants.NANOS_PER_SECOND;
+      case MINUTES: return Constants.NANOS_PER_MINUTE;
+      case HOURS: return Constants.NANOS_PER_HOUR;
+      default: throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+    }
+  }
+
+  private static void checkLength(int expected, int actual) {
+    if (actual < expected) {
+      throw new IllegalArgumentException(
+          "expected room for " + expected + " values but found " + actual);
+    }
+  }
+
+  private static final class MoveTask extends RecursiveAction {
+
+    private static final long serialVersionUID = -8179045263425573049L;
+
+    private final long[] starts;
+    private final long amount;
+    private final long[] amounts;
+    private final long unitFactor;
+    private final BusinessCalendar calendar;
+    private final long[] results;
+    private final int offset;
+    private final int length;
+
+    MoveTask(long[] starts,
+             long amount,
+             long[] amounts,
+             long unitFactor,
+             BusinessCalendar calendar,
+             long[] results,
+             int offset,
+             int length) {
+      this.starts = starts;
+      this.amount = amount;
+      this.amounts = amounts;
+      this.unitFactor = unitFactor;
+      this.calendar = calendar;
+      this.results = results;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    protected void compute() {
+      if (length <= SLICE) {
+        BusinessSchedule schedule = calendar.getSchedule();
+        if (schedule != null) {
+          for (int i = offset; i < offset + length; i++) {
+            long units = amounts == null ? amount : amounts[i];
+            results[i] = schedule.move(starts[i], units * unitFactor);
+          }
+        } else if (amounts == null) {
+          CALCULATOR.moveAll(starts, offset, length, amount, unitFactor,
+                             calendar.getDayStartNanosOfDay(), calendar.getDayEndNanosOfDay(),
+                             calendar.getDayCalculator(), results);
+        } else {
+          CALCULATOR.moveAll(starts, offset, length, amounts, unitFactor,
+                             calendar.getDayStartNanosOfDay(), calendar.getDayEndNanosOfDay(),
+                             calendar.getDayCalculator(), results);
+        }
+        return;
+      }
+      int half = length >>> 1;
+      invokeAll(
+          new MoveTask(starts, amount, amounts, unitFactor, calendar, results, offset, half),
+          new MoveTask(starts, amount, amounts, unitFactor, calendar, results,
+                       offset + half, length - half));
+    }
+  }
+}
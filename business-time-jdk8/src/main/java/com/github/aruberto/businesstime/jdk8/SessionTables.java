@@ -0,0 +1,125 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.BusinessSchedule;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.DaySchedule;
+import com.github.aruberto.businesstime.common.SessionTable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * SessionTables lists the business sessions of calendars in absolute time, so calendars in
+ * different time zones can be combined into one {@link SessionTable}.
+ * <p>
+ * Each business day of a calendar is resolved in its time zone when the table is built,
+ * following the daylight saving time rules of the zone on that very day. Combining tables with
+ * {@link SessionTable#intersection(SessionTable...)} then gives the hours desks in different
+ * zones are staffed together, with the overlap widening and narrowing in the weeks where the
+ * zones change their clocks on different dates:
+ * <pre>
+ * SessionTable overlap = SessionTable.intersection(
+ *     SessionTables.of(london, ZoneId.of("Europe/London"), from, to),
+ *     SessionTables.of(newYork, ZoneId.of("America/New_York"), from, to));
+ * Instant due = SessionTables.plus(overlap, Instant.now(), Duration.ofHours(4));
+ * </pre>
+ *
+ * @author Antonio Ruberto
+ */
+public final class SessionTables {
+
+  private SessionTables() {
+  }
+
+  /**
+   * Lists the business sessions of {@code calendar} in {@code zone} on the dates from
+   * {@code startInclusive} to {@code endExclusive}.
+   * <p>
+   * Business hours falling in a daylight saving time gap are moved forward by the length of
+   * the gap and those in an overlap take the earlier offset, like {@link LocalDateTime#atZone}.
+   *
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @param zone the time zone of the business hours, not null
+   * @param startInclusive first date, not null
+   * @param endExclusive date after the last, not null
+   * @return the sessions, covering from the start of the first date to the start of the date
+   *     after the last
+   * @throws IllegalArgumentException if end is before start
+   */
+  public static SessionTable of(BusinessCalendar calendar,
+                                ZoneId zone,
+                                LocalDate startInclusive,
+                                LocalDate endExclusive) {
+    BusinessSchedule schedule =
+        (calendar == null ? BusinessCalendar.DEFAULT : calendar).compiledSchedule();
+    long first = startInclusive.toEpochDay();
+    long fence = endExclusive.toEpochDay();
+    long[] sessions = new long[0];
+    int size = 0;
+    for (long day = first; day < fence; day++) {
+      DaySchedule hours = schedule.getDaySchedule(day);
+      if (size + 2 * hours.getWindowCount() > sessions.length) {
+        sessions = Arrays.copyOf(sessions,
+                                 Math.max(2 * sessions.length, size + 2 * hours.getWindowCount()));
+      }
+      for (int i = 0; i < hours.getWindowCount(); i++) {
+        sessions[size++] = toEpochNanos(day, hours.getWindowStartNanosOfDay(i), zone);
+        sessions[size++] = toEpochNanos(day, hours.getWindowEndNanosOfDay(i), zone);
+      }
+    }
+    return new SessionTable(toEpochNanos(first, 0, zone), toEpochNanos(fence, 0, zone),
+                            Arrays.copyOf(sessions, size));
+  }
+
+  /**
+   * Moves {@code instant} by {@code amount} of business time of {@code table}.
+   *
+   * @param table the business sessions, not null
+   * @param instant the instant to move, not null
+   * @param amount the business time to move by, may be negative or positive
+   * @return the moved instant, not null
+   * @throws IllegalArgumentException if the instant or the result is outside the table
+   */
+  public static Instant plus(SessionTable table, Instant instant, Duration amount) {
+    return toInstant(table.move(toEpochNanos(instant), amount.toNanos()));
+  }
+
+  /**
+   * Returns the business time of {@code table} from {@code startInclusive} to
+   * {@code endExclusive}.
+   *
+   * @param table the business sessions, not null
+   * @param startInclusive the start, not null
+   * @param endExclusive the end, not null
+   * @return the business time, negative if end is before start
+   * @throws IllegalArgumentException if an instant is outside the table
+   */
+  public static Duration between(SessionTable table,
+                                 Instant startInclusive,
+                                 Instant endExclusive) {
+    return Duration.ofNanos(
+        table.businessNanosBetween(toEpochNanos(startInclusive), toEpochNanos(endExclusive)));
+  }
+
+  private static long toEpochNanos(long epochDay, long nanosOfDay, ZoneId zone) {
+    // the end of the day is the start of the next, in whatever offset it has
+    long day = epochDay + nanosOfDay / Constants.NANOS_PER_DAY;
+    return toEpochNanos(LocalDate.ofEpochDay(day).atStartOfDay()
+                            .plusNanos(nanosOfDay % Constants.NANOS_PER_DAY)
+                            .atZone(zone)
+                            .toInstant());
+  }
+
+  private static long toEpochNanos(Instant instant) {
+    return instant.getEpochSecond() * Constants.NANOS_PER_SECOND + instant.getNano();
+  }
+
+  private static Instant toInstant(long epochNanos) {
+    return Instant.ofEpochSecond(Math.floorDiv(epochNanos, Constants.NANOS_PER_SECOND),
+                                 Math.floorMod(epochNanos, Constants.NANOS_PER_SECOND));
+  }
+}
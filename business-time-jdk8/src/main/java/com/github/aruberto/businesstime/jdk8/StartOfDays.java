@@ -0,0 +1,90 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The instant at the start of each day in a time zone, cached so that turning a result packed
+ * as {@link LocalEpochNanos} back into a date time does not resolve its date and time in the
+ * zone rules every time.
+ * <p>
+ * Days are cached in chunks of about a year, built on first touch of a day in the chunk, so
+ * only the years a calendar is used in are kept. Threads building the same chunk together agree
+ * on the first one cached.
+ * <p>
+ * On a day exactly 24 hours long the offset holds all day, so the instant of a result is the
+ * start of its day plus its nanos of day, and only the offset at that instant is looked up. A
+ * day whose offset changes, such as when the clocks change, is resolved on the time-line from
+ * the start of the day as before. A zone with a fixed offset needs no cache, every day starts
+ * at midnight at that offset.
+ */
+final class StartOfDays {
+
+  /**
+   * Number of days per chunk, a leap year.
+   */
+  private static final int CHUNK_DAYS = 366;
+  private static final long SECONDS_PER_DAY = Constants.NANOS_PER_DAY / Constants.NANOS_PER_SECOND;
+
+  private final ZoneId zone;
+  private final boolean fixedOffset;
+  private final long offsetSeconds;
+  private final ConcurrentMap<Long, long[]> chunks = new ConcurrentHashMap<>();
+
+  StartOfDays(ZoneId zone) {
+    this.zone = zone;
+    fixedOffset = zone.getRules().isFixedOffset();
+    offsetSeconds = fixedOffset ? zone.getRules().getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+  }
+
+  /**
+   * Returns the date time of {@code localEpochNanos} in the zone, the start of its day plus
+   * its nanos of day on the time-line.
+   */
+  ZonedDateTime toZonedDateTime(long localEpochNanos) {
+    long epochDay = LocalEpochNanos.toEpochDay(localEpochNanos);
+    long nanosOfDay = LocalEpochNanos.toNanosOfDay(localEpochNanos);
+    if (fixedOffset) {
+      return atStartPlus(epochDay * SECONDS_PER_DAY - offsetSeconds, nanosOfDay);
+    }
+    long chunkIndex = Math.floorDiv(epochDay, CHUNK_DAYS);
+    long[] starts = chunks.get(chunkIndex);
+    if (starts == null) {
+      starts = startsOfChunk(chunkIndex * CHUNK_DAYS);
+      long[] previous = chunks.putIfAbsent(chunkIndex, starts);
+      if (previous != null) {
+        starts = previous;
+      }
+    }
+    int index = (int) (epochDay - chunkIndex * CHUNK_DAYS);
+    if (starts[index + 1] - starts[index] != SECONDS_PER_DAY) {
+      return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).plusNanos(nanosOfDay);
+    }
+    return atStartPlus(starts[index], nanosOfDay);
+  }
+
+  private ZonedDateTime atStartPlus(long startEpochSecond, long nanosOfDay) {
+    return ZonedDateTime.ofInstant(
+        Instant.ofEpochSecond(startEpochSecond + nanosOfDay / Constants.NANOS_PER_SECOND,
+                              nanosOfDay % Constants.NANOS_PER_SECOND),
+        zone);
+  }
+
+  /**
+   * Returns the start of day instants of a chunk of days and the day after, as epoch seconds.
+   */
+  private long[] startsOfChunk(long firstEpochDay) {
+    long[] starts = new long[CHUNK_DAYS + 1];
+    for (int i = 0; i <= CHUNK_DAYS; i++) {
+      starts[i] = LocalDate.ofEpochDay(firstEpochDay + i).atStartOfDay(zone).toEpochSecond();
+    }
+    return starts;
+  }
+}
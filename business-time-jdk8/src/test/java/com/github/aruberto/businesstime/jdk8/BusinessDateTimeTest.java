@@ -1,15 +1,25 @@
 package com.github.aruberto.businesstime.jdk8;
 
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -287,6 +297,27 @@ public class BusinessDateTimeTest {
                  businessStart.minusMinutes(3).toZonedDateTime());
   }
 
+  @Test
+  public void plusHours_OutsidePackedYears_MovedByDates() {
+    ZonedDateTime start1600 = ZonedDateTime.of(1600, 3, 3, 10, 0, 0, 0, ZoneOffset.UTC);
+    ZonedDateTime start2300 = ZonedDateTime.of(2300, 1, 5, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    assertEquals("Friday 1600-03-03 10:00 should stay as is",
+                 start1600,
+                 new BusinessDateTime(start1600).toZonedDateTime());
+    assertEquals("Friday 1600-03-03 10:00 plus 8 hours should return Monday 10:00",
+                 ZonedDateTime.of(1600, 3, 6, 10, 0, 0, 0, ZoneOffset.UTC),
+                 new BusinessDateTime(start1600).plusHours(8).toZonedDateTime());
+    assertEquals("Friday 2300-01-05 10:00 plus 8 hours should return Monday 10:00",
+                 ZonedDateTime.of(2300, 1, 8, 10, 0, 0, 0, ZoneOffset.UTC),
+                 new BusinessDateTime(start2300).plusHours(8).toZonedDateTime());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void plusDays_ResultPastPackedYears_Exception() {
+    new BusinessDateTime(ZonedDateTime.of(2262, 4, 9, 10, 0, 0, 0, ZoneOffset.UTC)).plusDays(10);
+  }
+
   @Test
   public void plusHours_3Hours_3HoursLater() {
     ZonedDateTime start = ZonedDateTime.of(2014, 12, 11, 12, 0, 0, 0, ZoneId.systemDefault());
@@ -442,6 +473,240 @@ public class BusinessDateTimeTest {
                  businessStart.minusMinutes(515).toZonedDateTime());
   }
 
+  @Test
+  public void plusDays_HolidayAddedAfterConstruction_Ignored() {
+    ZonedDateTime start = ZonedDateTime.of(2014, 12, 10, 14, 0, 0, 0, ZoneId.systemDefault());
+    ZonedDateTime expected = ZonedDateTime.of(2014, 12, 11, 14, 0, 0, 0, ZoneId.systemDefault());
+    Set<LocalDate> holidays = new HashSet<>();
+    BusinessCalendar calendar = new BusinessCalendar(holidays);
+    holidays.add(LocalDate.of(2014, 12, 11));
+
+    assertEquals("Wednesday 14:00:00.0 plus 1 day should ignore holiday added after construction",
+                 expected,
+                 new BusinessDateTime(start, calendar).plusDays(1).toZonedDateTime());
+  }
+
+  @Test
+  public void withCalendar_SharedCalendar_SameCalendar() {
+    BusinessCalendar calendar = new BusinessCalendar(new HashSet<LocalDate>() {{
+      add(LocalDate.of(2014, 12, 11));
+    }});
+    BusinessDateTime first = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 10, 14, 0, 0, 0, ZoneId.systemDefault()), calendar);
+    BusinessDateTime second = first.plusHours(4).withCalendar(calendar);
+
+    assertEquals("Wednesday 14:00:00.0 plus 4 hours should skip holiday Thursday",
+                 ZonedDateTime.of(2014, 12, 12, 10, 0, 0, 0, ZoneId.systemDefault()),
+                 second.toZonedDateTime());
+    assertEquals("Copies should share the calendar", calendar, second.getCalendar());
+  }
+
+  @Test
+  public void hashCode_WeekendAndNextBusinessDayStart_SameKey() {
+    ZonedDateTime saturday = ZonedDateTime.of(2014, 12, 13, 11, 0, 0, 0, ZoneId.systemDefault());
+    ZonedDateTime monday = ZonedDateTime.of(2014, 12, 15, 9, 0, 0, 0, ZoneId.systemDefault());
+    Map<BusinessDateTime, String> map = new HashMap<>();
+    map.put(new BusinessDateTime(saturday), "saturday");
+
+    assertEquals("Saturday 11:00:00.0 and Monday 9:00:00.0 should be the same key",
+                 "saturday",
+                 map.get(new BusinessDateTime(monday)));
+  }
+
+  @Test
+  public void businessUntil_AcrossHolidayAndWeekend_BusinessHoursOnly() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(LocalDate.of(2014, 12, 15));
+    }};
+    BusinessDateTime start = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 16, 0, 0, 0, ZoneId.systemDefault()), holidays);
+    ZonedDateTime end = ZonedDateTime.of(2014, 12, 16, 11, 30, 0, 0, ZoneId.systemDefault());
+
+    assertEquals("Friday 16:00 to Tuesday 11:30 should be 210 business minutes",
+                 210,
+                 start.businessUntil(end, ChronoUnit.MINUTES));
+    assertEquals("Friday 16:00 to Tuesday 11:30 should be 3 business hours",
+                 3,
+                 start.businessUntil(end, ChronoUnit.HOURS));
+    assertEquals("Tuesday 11:30 back to Friday 16:00 should be minus 210 business minutes",
+                 Duration.ofMinutes(-210),
+                 start.plusMinutes(210).businessDurationUntil(start));
+  }
+
+  @Test
+  public void businessUntil_PlusDaysWithShortFridays_SameDays() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(13, 0));
+    ZonedDateTime[] starts = {
+        ZonedDateTime.of(2014, 12, 8, 9, 0, 0, 0, ZoneId.systemDefault()),
+        ZonedDateTime.of(2014, 12, 10, 10, 0, 0, 0, ZoneId.systemDefault()),
+        ZonedDateTime.of(2014, 12, 11, 15, 0, 0, 0, ZoneId.systemDefault()),
+        ZonedDateTime.of(2014, 12, 12, 12, 0, 0, 0, ZoneId.systemDefault())
+    };
+
+    for (ZonedDateTime start : starts) {
+      BusinessDateTime x = new BusinessDateTime(start, calendar);
+      for (int n = -12; n <= 12; n++) {
+        assertEquals(start + " plus " + n + " days should be " + n + " business days later",
+                     n,
+                     x.businessUntil(x.plusDays(n), ChronoUnit.DAYS));
+        assertEquals(start + " plus " + n + " days should be " + 2 * n + " half days later",
+                     2 * n,
+                     x.businessUntil(x.plusDays(n), ChronoUnit.HALF_DAYS));
+      }
+    }
+  }
+
+  @Test
+  public void ofBusinessNanos_ToBusinessNanos_RoundTrip() {
+    BusinessDateTime start = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 16, 0, 0, 0, ZoneId.systemDefault()));
+    long ordinal = start.toBusinessNanos();
+    BusinessDateTime later = BusinessDateTime.ofBusinessNanos(
+        ordinal + 3 * 3600000000000L, ZoneId.systemDefault(), start.getCalendar());
+
+    assertEquals("Friday 16:00 plus 3 business hours should be Monday 11:00",
+                 ZonedDateTime.of(2014, 12, 15, 11, 0, 0, 0, ZoneId.systemDefault()),
+                 later.toZonedDateTime());
+    assertEquals("Ordinal of the result should be 3 business hours later",
+                 ordinal + 3 * 3600000000000L,
+                 later.toBusinessNanos());
+  }
+
+  @Test
+  public void plusHours_ShortFridayAndSaturdayHours_ContinuesOnSaturday() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(13, 0))
+        .withHours(DayOfWeek.SATURDAY, LocalTime.of(10, 0), LocalTime.of(14, 0));
+    BusinessDateTime start = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 12, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Friday 12:00 plus 3 hours should be Saturday 12:00",
+                 ZonedDateTime.of(2014, 12, 13, 12, 0, 0, 0, ZoneId.systemDefault()),
+                 start.plusHours(3).toZonedDateTime());
+    assertEquals("Saturday 12:00 minus 3 hours should be Friday 12:00",
+                 start.toZonedDateTime(),
+                 start.plusHours(3).minusHours(3).toZonedDateTime());
+    assertEquals("Friday 12:00 to Monday 10:00 should be 1 + 4 + 1 business hours",
+                 6,
+                 start.businessUntil(
+                     ZonedDateTime.of(2014, 12, 15, 10, 0, 0, 0, ZoneId.systemDefault()),
+                     ChronoUnit.HOURS));
+  }
+
+  @Test
+  public void plusHours_ForexWeek_ContinuesAcrossMidnightAndWeekend() {
+    // Sunday 17:00 to Friday 17:00 New York, as 24 hour days starting Sunday to Thursday
+    WorkingWeek week = WorkingWeek.DEFAULT
+        .withWorkingDayFromCalendar(true, Calendar.SUNDAY)
+        .withWorkingDayFromCalendar(false, Calendar.FRIDAY);
+    BusinessCalendar calendar =
+        new BusinessCalendar(LocalTime.of(17, 0), LocalTime.of(17, 0), null, week);
+    ZoneId newYork = ZoneId.of("America/New_York");
+    BusinessDateTime wednesday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 10, 20, 0, 0, 0, newYork), calendar);
+    BusinessDateTime friday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 16, 0, 0, 0, newYork), calendar);
+
+    assertEquals("Wednesday 20:00 plus 500 hours should be 4 weeks and 20 hours later",
+                 ZonedDateTime.of(2015, 1, 8, 16, 0, 0, 0, newYork),
+                 wednesday.plusHours(500).toZonedDateTime());
+    assertEquals("Friday 16:00 plus 2 hours should be Sunday 18:00",
+                 ZonedDateTime.of(2014, 12, 14, 18, 0, 0, 0, newYork),
+                 friday.plusHours(2).toZonedDateTime());
+    assertEquals("A week holds 5 business days of 24 hours",
+                 5,
+                 wednesday.businessUntil(wednesday.plusHours(120), ChronoUnit.DAYS));
+  }
+
+  @Test
+  public void plusHours_OvernightShift_ContinuesPastMidnight() {
+    BusinessCalendar calendar = new BusinessCalendar(LocalTime.of(22, 0), LocalTime.of(6, 0), null);
+    BusinessDateTime friday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 23, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Friday 23:00 plus 8 hours should finish the shift and start Monday night",
+                 ZonedDateTime.of(2014, 12, 15, 23, 0, 0, 0, ZoneId.systemDefault()),
+                 friday.plusHours(8).toZonedDateTime());
+    assertEquals("Saturday 10:00 should normalize to the Monday 22:00 shift start",
+                 ZonedDateTime.of(2014, 12, 15, 22, 0, 0, 0, ZoneId.systemDefault()),
+                 new BusinessDateTime(
+                     ZonedDateTime.of(2014, 12, 13, 10, 0, 0, 0, ZoneId.systemDefault()),
+                     calendar).toZonedDateTime());
+  }
+
+  @Test
+  public void plusDays_OvernightShiftFridayNight_MondayNight() {
+    BusinessCalendar calendar = new BusinessCalendar(LocalTime.of(22, 0), LocalTime.of(6, 0), null);
+    BusinessDateTime friday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 12, 23, 0, 0, 0, ZoneId.systemDefault()), calendar);
+    BusinessDateTime saturday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 13, 3, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Friday 23:00 plus 1 day should be the same time of the Monday shift",
+                 ZonedDateTime.of(2014, 12, 15, 23, 0, 0, 0, ZoneId.systemDefault()),
+                 friday.plusDays(1).toZonedDateTime());
+    assertEquals("Saturday 03:00 is in the Friday shift, plus 1 day should be Tuesday 03:00",
+                 ZonedDateTime.of(2014, 12, 16, 3, 0, 0, 0, ZoneId.systemDefault()),
+                 saturday.plusDays(1).toZonedDateTime());
+    assertEquals("Monday 23:00 minus 1 day should be back in the Friday shift",
+                 friday.toZonedDateTime(),
+                 friday.plusDays(1).minusDays(1).toZonedDateTime());
+  }
+
+  @Test
+  public void plusHours_ChristmasEveEarlyClose_ContinuesNextBusinessDay() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(LocalDate.of(2014, 12, 25));
+    }};
+    BusinessCalendar calendar = new BusinessCalendar(holidays)
+        .withHours(LocalDate.of(2014, 12, 24), LocalTime.of(9, 0), LocalTime.of(13, 0));
+    BusinessDateTime start = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 24, 12, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Wednesday 12:00 plus 2 hours should close at 13:00 and go on Friday",
+                 ZonedDateTime.of(2014, 12, 26, 10, 0, 0, 0, ZoneId.systemDefault()),
+                 start.plusHours(2).toZonedDateTime());
+    assertEquals("Early close should count 4 hours on Wednesday",
+                 12,
+                 start.withHour(9).businessUntil(
+                     ZonedDateTime.of(2014, 12, 29, 9, 0, 0, 0, ZoneId.systemDefault()),
+                     ChronoUnit.HOURS));
+  }
+
+  @Test
+  public void plusHours_LunchBreak_BreakSkipped() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT.withHours(
+        DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), LocalTime.of(13, 0),
+        LocalTime.of(17, 0));
+    BusinessDateTime start = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 15, 11, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Monday 11:00 plus 2 hours should skip lunch to 14:00",
+                 ZonedDateTime.of(2014, 12, 15, 14, 0, 0, 0, ZoneId.systemDefault()),
+                 start.plusHours(2).toZonedDateTime());
+    assertEquals("Monday 12:30 should normalize to the end of lunch",
+                 ZonedDateTime.of(2014, 12, 15, 13, 0, 0, 0, ZoneId.systemDefault()),
+                 new BusinessDateTime(
+                     ZonedDateTime.of(2014, 12, 15, 12, 30, 0, 0, ZoneId.systemDefault()),
+                     calendar).toZonedDateTime());
+  }
+
+  @Test
+  public void plusDays_AfterShortFridayClose_ClampedToClose() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(13, 0));
+    BusinessDateTime thursday = new BusinessDateTime(
+        ZonedDateTime.of(2014, 12, 11, 15, 0, 0, 0, ZoneId.systemDefault()), calendar);
+
+    assertEquals("Thursday 15:00 plus 1 day should be Friday at its 13:00 close",
+                 ZonedDateTime.of(2014, 12, 12, 13, 0, 0, 0, ZoneId.systemDefault()),
+                 thursday.plusDays(1).toZonedDateTime());
+    assertEquals("Thursday 15:00 plus 2 days should be Monday 15:00",
+                 ZonedDateTime.of(2014, 12, 15, 15, 0, 0, 0, ZoneId.systemDefault()),
+                 thursday.plusDays(2).toZonedDateTime());
+  }
+
   @Test
   public void readWriteObject_CurrentTime_CurrentTime() throws Exception {
     BusinessDateTime dateTime = new BusinessDateTime();
@@ -457,4 +722,24 @@ public class BusinessDateTimeTest {
 
     assertEquals("Serialize and de-serialize should return itself", dateTime, o);
   }
+
+  @Test
+  public void readObject_WrittenBeforeCalendars_SameBusinessTime() throws Exception {
+    // written by 0.2.0 from Wednesday 2014-12-24 15:00 UTC, business hours 08:00 to 16:00 and
+    // Christmas as holiday
+    ObjectInputStream inputStream = new ObjectInputStream(
+        getClass().getResourceAsStream("business-date-time-0.2.0.ser"));
+    BusinessDateTime dateTime = (BusinessDateTime) inputStream.readObject();
+    inputStream.close();
+
+    assertEquals("De-serialize should keep the date time",
+                 ZonedDateTime.of(2014, 12, 24, 15, 0, 0, 0, ZoneOffset.UTC),
+                 dateTime.toZonedDateTime());
+    assertEquals("Plus 2 hours should skip Christmas and keep the business hours",
+                 ZonedDateTime.of(2014, 12, 26, 9, 0, 0, 0, ZoneOffset.UTC),
+                 dateTime.plusHours(2).toZonedDateTime());
+    assertEquals("Plus 2 days should skip Christmas and the weekend",
+                 ZonedDateTime.of(2014, 12, 29, 15, 0, 0, 0, ZoneOffset.UTC),
+                 dateTime.plusDays(2).toZonedDateTime());
+  }
 }
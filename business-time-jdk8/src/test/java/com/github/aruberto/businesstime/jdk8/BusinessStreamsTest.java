@@ -0,0 +1,117 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BusinessStreamsTest {
+
+  private static final Set<LocalDate> HOLIDAYS = new HashSet<LocalDate>() {{
+    add(LocalDate.of(2014, 12, 25));
+    add(LocalDate.of(2014, 12, 26));
+    add(LocalDate.of(2015, 1, 1));
+  }};
+
+  @Test
+  public void businessDays_Quarter_SameAsDayByDay() {
+    BusinessCalendar calendar = new BusinessCalendar(HOLIDAYS);
+    LocalDate start = LocalDate.of(2014, 11, 1);
+    LocalDate end = LocalDate.of(2015, 2, 1);
+    List<LocalDate> expected = new ArrayList<>();
+    for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY
+          && date.getDayOfWeek() != DayOfWeek.SUNDAY
+          && !HOLIDAYS.contains(date)) {
+        expected.add(date);
+      }
+    }
+
+    assertEquals("Stream should list every business day in order",
+                 expected,
+                 BusinessStreams.businessDays(start, end, calendar).collect(Collectors.toList()));
+    assertEquals("Parallel stream should keep order",
+                 expected,
+                 BusinessStreams.businessDays(start, end, calendar)
+                     .parallel()
+                     .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void businessEpochDays_Spliterator_ExactSizeAndEvenSplit() {
+    Spliterator.OfLong spliterator = BusinessStreams
+        .businessEpochDays(LocalDate.of(2014, 1, 1), LocalDate.of(2015, 1, 1), null)
+        .spliterator();
+
+    assertTrue("Spliterator should be sized",
+               spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+    assertEquals("2014 has 261 weekdays", 261, spliterator.getExactSizeIfKnown());
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assertEquals("Prefix should hold half", 130, prefix.getExactSizeIfKnown());
+    assertEquals("Rest should hold the other half", 131, spliterator.getExactSizeIfKnown());
+  }
+
+  @Test
+  public void businessDays_EndBeforeStart_Empty() {
+    assertEquals("Reversed range should be empty",
+                 0,
+                 BusinessStreams.businessDays(LocalDate.of(2015, 1, 1),
+                                              LocalDate.of(2014, 1, 1),
+                                              null).count());
+  }
+
+  @Test
+  public void businessSlots_UnevenDayAcrossHoliday_SlotsClippedToBusinessHours() {
+    BusinessCalendar calendar = new BusinessCalendar(LocalTime.of(9, 0),
+                                                     LocalTime.of(12, 30),
+                                                     HOLIDAYS);
+    // Wednesday 10:15 to Monday 10:00, skipping the holidays and the weekend
+    List<LocalDateTime> slots = BusinessStreams
+        .businessSlots(LocalDateTime.of(2014, 12, 24, 10, 15),
+                       LocalDateTime.of(2014, 12, 29, 10, 0),
+                       Duration.ofHours(1),
+                       calendar)
+        .collect(Collectors.toList());
+
+    assertEquals("Slots should start on the hour from the day start and stop at the end",
+                 Arrays.asList(LocalDateTime.of(2014, 12, 24, 11, 0),
+                               LocalDateTime.of(2014, 12, 24, 12, 0),
+                               LocalDateTime.of(2014, 12, 29, 9, 0)),
+                 slots);
+  }
+
+  @Test
+  public void businessSlotEpochNanos_Count_SameAsIteration() {
+    BusinessCalendar calendar = new BusinessCalendar(HOLIDAYS);
+    LocalDateTime start = LocalDateTime.of(2014, 10, 3, 13, 7);
+    LocalDateTime end = LocalDateTime.of(2015, 1, 15, 16, 59);
+    Duration slot = Duration.ofMinutes(25);
+
+    assertEquals("Sized count should match iterated count",
+                 BusinessStreams.businessSlotEpochNanos(start, end, slot, calendar)
+                     .filter(value -> true)
+                     .count(),
+                 BusinessStreams.businessSlotEpochNanos(start, end, slot, calendar).count());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void businessSlots_ZeroSlot_Exception() {
+    BusinessStreams.businessSlots(LocalDateTime.of(2014, 1, 1, 0, 0),
+                                  LocalDateTime.of(2014, 2, 1, 0, 0),
+                                  Duration.ZERO,
+                                  null);
+  }
+}
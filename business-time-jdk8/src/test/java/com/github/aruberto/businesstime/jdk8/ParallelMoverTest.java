@@ -0,0 +1,60 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelMoverTest {
+
+  @Test
+  public void moveAll_LargeBatch_SameAsBusinessDateTime() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(LocalDate.of(2014, 12, 25));
+      add(LocalDate.of(2015, 1, 1));
+    }};
+    BusinessCalendar calendar = new BusinessCalendar(holidays);
+    Random random = new Random(5);
+    long[] starts = new long[ParallelMover.SLICE * 5 + 17];
+    long[] amounts = new long[starts.length];
+    long firstDay = LocalDate.of(2014, 12, 1).toEpochDay();
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = LocalEpochNanos.of(firstDay + random.nextInt(60),
+                                     random.nextInt(24 * 60) * 60000000000L);
+      amounts[i] = random.nextInt(2001) - 1000;
+    }
+    long[] results = new long[starts.length];
+    ParallelMover.moveAll(new ForkJoinPool(4), starts, amounts, ChronoUnit.MINUTES, calendar,
+                          results);
+
+    for (int i = 0; i < starts.length; i += 101) {
+      ZonedDateTime start = LocalDate.ofEpochDay(LocalEpochNanos.toEpochDay(starts[i]))
+          .atStartOfDay(ZoneOffset.UTC)
+          .plusNanos(LocalEpochNanos.toNanosOfDay(starts[i]));
+      ZonedDateTime expected = new BusinessDateTime(start, calendar)
+          .plusMinutes(amounts[i])
+          .toZonedDateTime();
+
+      assertEquals("Element " + i + " moved by " + amounts[i] + " minutes",
+                   expected.toLocalDate().toEpochDay() * 86400000000000L
+                   + expected.toLocalTime().toNanoOfDay(),
+                   results[i]);
+    }
+  }
+
+  @Test(expected = UnsupportedTemporalTypeException.class)
+  public void moveAll_Days_Exception() {
+    ParallelMover.moveAll(new long[1], 1, ChronoUnit.DAYS, null, new long[1]);
+  }
+}
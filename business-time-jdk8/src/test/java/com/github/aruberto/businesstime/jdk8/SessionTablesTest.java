@@ -0,0 +1,102 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.SessionTable;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+
+public class SessionTablesTest {
+
+  private static final BusinessCalendar LONDON =
+      new BusinessCalendar(LocalTime.of(8, 0), LocalTime.of(17, 0), null);
+  private static final BusinessCalendar NEW_YORK =
+      new BusinessCalendar(LocalTime.of(9, 0), LocalTime.of(17, 0), null);
+
+  // London 8-17 and New York 9-17 over the first half of 2015
+  private static final SessionTable OVERLAP = SessionTable.intersection(
+      SessionTables.of(LONDON, ZoneId.of("Europe/London"),
+                       LocalDate.of(2015, 1, 1), LocalDate.of(2015, 7, 1)),
+      SessionTables.of(NEW_YORK, ZoneId.of("America/New_York"),
+                       LocalDate.of(2015, 1, 1), LocalDate.of(2015, 7, 1)));
+
+  @Test
+  public void between_WeeksAroundDaylightSavingTime_OverlapFollowsBothZones() {
+    assertEquals("Winter overlap should be 14:00 to 17:00 UTC each weekday",
+                 Duration.ofHours(15),
+                 SessionTables.between(OVERLAP, Instant.parse("2015-01-12T00:00:00Z"),
+                                       Instant.parse("2015-01-19T00:00:00Z")));
+    assertEquals("With only New York on summer time overlap should be 13:00 to 17:00 UTC",
+                 Duration.ofHours(20),
+                 SessionTables.between(OVERLAP, Instant.parse("2015-03-16T00:00:00Z"),
+                                       Instant.parse("2015-03-23T00:00:00Z")));
+    assertEquals("With both on summer time overlap should be 13:00 to 16:00 UTC",
+                 Duration.ofHours(15),
+                 SessionTables.between(OVERLAP, Instant.parse("2015-03-30T00:00:00Z"),
+                                       Instant.parse("2015-04-06T00:00:00Z")));
+  }
+
+  @Test
+  public void plus_4OverlapHours_ContinuesNextDay() {
+    assertEquals("Monday 14:00 UTC plus 4 overlap hours should be Tuesday 15:00 UTC",
+                 Instant.parse("2015-01-13T15:00:00Z"),
+                 SessionTables.plus(OVERLAP, Instant.parse("2015-01-12T14:00:00Z"),
+                                    Duration.ofHours(4)));
+    assertEquals("Monday 13:00 UTC plus 4 overlap hours should end Monday 17:00 UTC",
+                 Instant.parse("2015-03-16T17:00:00Z"),
+                 SessionTables.plus(OVERLAP, Instant.parse("2015-03-16T13:00:00Z"),
+                                    Duration.ofHours(4)));
+  }
+
+  @Test
+  public void of_SpringForwardDay_ShortSessionInUtc() {
+    // 2015-03-08 is a Sunday, 24 hour business days on the day clocks spring forward
+    BusinessCalendar allWeek = new BusinessCalendar(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, null)
+        .withWorkingWeek(WorkingWeek.DEFAULT.withWorkingDayFromCalendar(true, Calendar.SUNDAY));
+    SessionTable table = SessionTables.of(allWeek, ZoneId.of("America/New_York"),
+                                          LocalDate.of(2015, 3, 8), LocalDate.of(2015, 3, 9));
+
+    assertEquals("The day clocks spring forward should have 23 business hours",
+                 Duration.ofHours(23).toNanos(),
+                 table.getBusinessNanos());
+  }
+
+  @Test
+  public void moveAll_UtcEpochNanos_SameAsBusinessDateTime() {
+    ZoneId zone = ZoneId.of("America/New_York");
+    SessionTable table = SessionTables.of(NEW_YORK, zone,
+                                          LocalDate.of(2015, 1, 1), LocalDate.of(2016, 1, 1));
+    long[] instants = new long[365 * 6];
+    for (int i = 0; i < instants.length; i++) {
+      // every 4 hours from 2015-01-02, across both clock changes
+      instants[i] = Instant.parse("2015-01-02T00:00:00Z").plus(Duration.ofHours(4 * i))
+          .getEpochSecond() * 1_000_000_000L;
+    }
+    long[] moved = new long[instants.length - 180];
+
+    table.moveAll(Arrays.copyOf(instants, moved.length), Duration.ofHours(20).toNanos(), moved);
+
+    for (int i = 0; i < moved.length; i++) {
+      Instant instant = Instant.ofEpochSecond(instants[i] / 1_000_000_000L);
+      assertEquals("Moving " + instant,
+                   new BusinessDateTime(instant.atZone(zone), NEW_YORK).plusHours(20)
+                       .toZonedDateTime().toInstant(),
+                   Instant.ofEpochSecond(moved[i] / 1_000_000_000L));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void plus_PastEndOfTable_Exception() {
+    SessionTables.plus(OVERLAP, Instant.parse("2015-06-30T14:00:00Z"), Duration.ofHours(4));
+  }
+}
@@ -0,0 +1,43 @@
+package com.github.aruberto.businesstime.jdk8;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.Assert.assertEquals;
+
+public class StartOfDaysTest {
+
+  @Test
+  public void toZonedDateTime_DaysAroundClockChanges_SameAsResolvingStartOfDay() {
+    // Sao Paulo springs forward at midnight, so some days have no midnight
+    for (String id : new String[] {"America/New_York", "Europe/London", "America/Sao_Paulo",
+                                    "UTC", "+05:30"}) {
+      ZoneId zone = ZoneId.of(id);
+      StartOfDays startOfDays = new StartOfDays(zone);
+      for (long day = LocalDate.of(1969, 12, 1).toEpochDay();
+           day < LocalDate.of(2016, 1, 1).toEpochDay(); day += 5) {
+        for (long hour : new long[] {0, 1, 2, 9, 23}) {
+          long nanos = hour * Constants.NANOS_PER_HOUR + 1;
+
+          assertEquals(id + " day " + day + " hour " + hour,
+                       LocalDate.ofEpochDay(day).atStartOfDay(zone).plusNanos(nanos),
+                       startOfDays.toZonedDateTime(LocalEpochNanos.of(day, nanos)));
+        }
+      }
+      for (LocalDate date : new LocalDate[] {LocalDate.of(2015, 3, 8), LocalDate.of(2015, 3, 29),
+                                             LocalDate.of(2015, 10, 18),
+                                             LocalDate.of(2015, 11, 1)}) {
+        long nanos = 3 * Constants.NANOS_PER_HOUR;
+
+        assertEquals(id + " " + date,
+                     date.atStartOfDay(zone).plusNanos(nanos),
+                     startOfDays.toZonedDateTime(LocalEpochNanos.of(date.toEpochDay(), nanos)));
+      }
+    }
+  }
+}
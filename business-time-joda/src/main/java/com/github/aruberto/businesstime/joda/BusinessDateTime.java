@@ -2,23 +2,26 @@ package com.github.aruberto.businesstime.joda;
 
 import com.github.aruberto.businesstime.common.BusinessDateTimeCalculator;
 import com.github.aruberto.businesstime.common.BusinessDateTimeCalculatorResult;
+import com.github.aruberto.businesstime.common.BusinessSchedule;
 import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
 
-import net.objectlab.kit.datecalc.common.DateCalculator;
-import net.objectlab.kit.datecalc.common.DefaultHolidayCalendar;
-import net.objectlab.kit.datecalc.common.HolidayHandlerType;
 import net.objectlab.kit.datecalc.common.WorkingWeek;
-import net.objectlab.kit.datecalc.joda.LocalDateKitCalculatorsFactory;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.DurationFieldType;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalTime;
 import org.joda.time.ReadableDateTime;
+import org.joda.time.ReadableInstant;
 import org.joda.time.base.AbstractDateTime;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -29,6 +32,16 @@ import java.util.Set;
  * <li>is limited to the precision of milliseconds</li>
  * <li>only includes points that fall between start and end of business day</li>
  * </ul>
+ * <p>
+ * Calculations run on date times packed as {@link LocalEpochNanos}, from 1677 to 2262. Date
+ * times outside those years are moved day by day with the calendar's
+ * {@link BusinessCalendar#getDateCalculator() date calculator} instead, unless the calendar has
+ * its own business hours, in which case they throw {@link ArithmeticException}, as do
+ * calculations whose result falls outside those years.
+ * <p>
+ * Instances are serialized as the date time and its {@link BusinessCalendar}. Instances
+ * serialized by versions before calendars, with the business hours, holidays and working week
+ * held directly, are still read and get a calendar of their own.
  *
  * @author Antonio Ruberto
  */
@@ -38,14 +51,13 @@ public final class BusinessDateTime
 
   private static final long serialVersionUID = 2772583488704943606L;
 
-  private static final LocalTime DEFAULT_BUSINESS_DAY_START = new LocalTime(9, 0, 0, 0);
-  private static final LocalTime DEFAULT_BUSINESS_DAY_END = new LocalTime(17, 0, 0, 0);
+  private static final BusinessDateTimeCalculator<LocalDate> CALCULATOR =
+      new BusinessDateTimeCalculator<LocalDate>();
 
   private final DateTime dateTime;
-  private final Set<LocalDate> holidays;
-  private final LocalTime dayStartTime;
-  private final LocalTime dayEndTime;
-  private final JodaWorkingWeek workingWeek;
+  private final BusinessCalendar calendar;
+  private transient DateTime normalized;
+  private transient BusinessDateTime resolved;
 
   /**
    * Constructs an instance of BusinessDateTime at point of time of {@code dateTime}
@@ -63,29 +75,35 @@ public final class BusinessDateTime
                           LocalTime dayEndTime,
                           Set<LocalDate> holidays,
                           WorkingWeek workingWeek) {
+    this(dateTime, new BusinessCalendar(dayStartTime, dayEndTime, holidays, workingWeek));
+  }
+
+  /**
+   * Constructs an instance of BusinessDateTime at point of time of {@code dateTime}
+   * with business day, holidays and working week of {@code calendar}
+   *
+   * @param dateTime date time, null means current time with default time zone
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   */
+  public BusinessDateTime(DateTime dateTime, BusinessCalendar calendar) {
     if (dateTime == null) {
       throw new NullPointerException("date time cannot be null");
     }
-    if (dayStartTime == null) {
-      dayStartTime = DEFAULT_BUSINESS_DAY_START;
-    }
-    if (dayEndTime == null) {
-      dayEndTime = DEFAULT_BUSINESS_DAY_END;
-    }
-    if (holidays == null) {
-      holidays = Collections.emptySet();
-    }
-    if (workingWeek == null) {
-      workingWeek = WorkingWeek.DEFAULT;
-    }
-    if (dayEndTime.isEqual(dayStartTime) || dayEndTime.isBefore(dayStartTime)) {
-      throw new IllegalArgumentException("business day end time must be after start time");
+    if (calendar == null) {
+      calendar = BusinessCalendar.DEFAULT;
     }
     this.dateTime = dateTime;
-    this.dayStartTime = dayStartTime;
-    this.dayEndTime = dayEndTime;
-    this.holidays = holidays;
-    this.workingWeek = new JodaWorkingWeek(workingWeek);
+    this.calendar = calendar;
+  }
+
+  /**
+   * Constructs an instance of BusinessDateTime at current time in system time zone
+   * with business day, holidays and working week of {@code calendar}
+   *
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   */
+  public BusinessDateTime(BusinessCalendar calendar) {
+    this(new DateTime(), calendar);
   }
 
   /**
@@ -174,7 +192,7 @@ public final class BusinessDateTime
    * @param dateTime date time, null means current time with default time zone
    */
   public BusinessDateTime(DateTime dateTime) {
-    this(dateTime, null, null, null, null);
+    this(dateTime, BusinessCalendar.DEFAULT);
   }
 
   /**
@@ -183,56 +201,135 @@ public final class BusinessDateTime
    * no holidays and working week of Monday to Friday
    */
   public BusinessDateTime() {
-    this(new DateTime(), null, null, null, null);
+    this(new DateTime(), BusinessCalendar.DEFAULT);
+  }
+
+  /**
+   * Obtains the BusinessDateTime with business ordinal {@code businessNanos} under
+   * {@code calendar}, the inverse of {@link #toBusinessNanos()}. An ordinal on a day boundary
+   * maps to the start of the later business day.
+   *
+   * @param businessNanos business nanos since the start of business hours on 1970-01-05
+   * @param zone the time zone, not null
+   * @param calendar the business calendar, null means {@link BusinessCalendar#DEFAULT}
+   * @return the business date time, not null
+   */
+  public static BusinessDateTime ofBusinessNanos(long businessNanos,
+                                                 DateTimeZone zone,
+                                                 BusinessCalendar calendar) {
+    if (calendar == null) {
+      calendar = BusinessCalendar.DEFAULT;
+    }
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return of(schedule.fromOrdinal(businessNanos, false), zone, calendar);
+    }
+    long result = CALCULATOR.fromOrdinal(
+        businessNanos,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator(),
+        false);
+    return of(result, zone, calendar);
+  }
+
+  private static BusinessDateTime of(long localEpochNanos,
+                                     DateTimeZone zone,
+                                     BusinessCalendar calendar) {
+    return new BusinessDateTime(calendar.getStartOfDays(zone).toDateTime(localEpochNanos),
+                                calendar);
   }
 
-  private DateCalculator<LocalDate> getDateCalculator() {
-    return new LocalDateKitCalculatorsFactory()
-        .registerHolidays(Constants.HOLIDAY_KEY, new DefaultHolidayCalendar<LocalDate>(holidays))
-        .getDateCalculator(Constants.HOLIDAY_KEY, HolidayHandlerType.FORWARD_UNLESS_MOVING_BACK)
-        .setWorkingWeek(workingWeek);
+  private BusinessDateTime fromResult(long result) {
+    return of(result, dateTime.getZone(), calendar);
   }
 
   private BusinessDateTime fromResult(BusinessDateTimeCalculatorResult<LocalDate> result) {
     LocalTime endTime = new LocalTime(0, 0, 0, 0)
         .plusMillis((int) (result.getNanosOfDay() / Constants.NANOS_PER_MILLI));
     DateTime endDateTime = result.getEndDate().toDateTime(endTime, dateTime.getZone());
-    return new BusinessDateTime(endDateTime, dayStartTime, dayEndTime, holidays, workingWeek);
+    return new BusinessDateTime(endDateTime, calendar);
   }
 
-  private BusinessDateTime move(long unitsToMove, long unitFactor) {
-    DateCalculator<LocalDate> calc = getDateCalculator();
+  /**
+   * Returns whether this date time is too far from 1970 to be packed as
+   * {@link LocalEpochNanos}, and has to be moved by dates instead.
+   */
+  private boolean isUnpackable() {
+    return !LocalEpochNanos.isSupported(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()));
+  }
+
+  private static long toLocalEpochNanos(DateTime dateTime) {
+    return LocalEpochNanos.of(JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
+                              dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI);
+  }
 
-    BusinessDateTimeCalculator<LocalDate> businessCalc =
-        new BusinessDateTimeCalculator<LocalDate>();
-    BusinessDateTimeCalculatorResult<LocalDate> result = businessCalc.move(
-        dateTime.toLocalDate(),
+  private BusinessDateTime move(long unitsToMove, long unitFactor) {
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return fromResult(schedule.move(toLocalEpochNanos(dateTime), unitsToMove * unitFactor));
+    }
+    if (isUnpackable()) {
+      return fromResult(CALCULATOR.move(dateTime.toLocalDate(),
+                                        dateTime.toLocalTime().getMillisOfDay()
+                                        * Constants.NANOS_PER_MILLI,
+                                        unitsToMove,
+                                        unitFactor,
+                                        calendar.getDayStartNanosOfDay(),
+                                        calendar.getDayEndNanosOfDay(),
+                                        calendar.getDateCalculator()));
+    }
+    long result = CALCULATOR.move(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
         dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
         unitsToMove,
         unitFactor,
-        dayStartTime.getMillisOfDay() * Constants.NANOS_PER_MILLI,
-        dayEndTime.getMillisOfDay() * Constants.NANOS_PER_MILLI,
-        calc);
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
 
     return fromResult(result);
   }
 
   private BusinessDateTime moveDays(int days) {
-    DateCalculator<LocalDate> calc = getDateCalculator();
-
-    BusinessDateTimeCalculator<LocalDate> businessCalc =
-        new BusinessDateTimeCalculator<LocalDate>();
-    BusinessDateTimeCalculatorResult<LocalDate> result = businessCalc.moveDays(
-        dateTime.toLocalDate(),
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return fromResult(schedule.moveDays(toLocalEpochNanos(dateTime), days));
+    }
+    if (isUnpackable()) {
+      return fromResult(CALCULATOR.moveDays(dateTime.toLocalDate(),
+                                            dateTime.toLocalTime().getMillisOfDay()
+                                            * Constants.NANOS_PER_MILLI,
+                                            days,
+                                            calendar.getDayStartNanosOfDay(),
+                                            calendar.getDayEndNanosOfDay(),
+                                            calendar.getDateCalculator()));
+    }
+    long result = CALCULATOR.moveDays(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
         dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
         days,
-        dayStartTime.getMillisOfDay() * Constants.NANOS_PER_MILLI,
-        dayEndTime.getMillisOfDay() * Constants.NANOS_PER_MILLI,
-        calc);
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
 
     return fromResult(result);
   }
 
+  /**
+   * Returns {@code dateTime} adjusted into business hours. Computed on first use and cached;
+   * DateTime is immutable so threads racing here at worst compute the same value twice.
+   */
+  private DateTime normalized() {
+    DateTime result = normalized;
+    if (result == null) {
+      result = move(0, Constants.NANOS_PER_NANO).dateTime;
+      normalized = result;
+    }
+    return result;
+  }
+
   /**
    * Gets the chronology of the datetime.
    *
@@ -249,7 +346,7 @@ public final class BusinessDateTime
    * @return the number of milliseconds since 1970-01-01T00:00:00Z
    */
   public long getMillis() {
-    return move(0, Constants.NANOS_PER_NANO).dateTime.getMillis();
+    return normalized().getMillis();
   }
 
   /**
@@ -402,12 +499,7 @@ public final class BusinessDateTime
     if (weeks == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusWeeks(weeks),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.plusWeeks(weeks), calendar);
     }
   }
 
@@ -421,12 +513,7 @@ public final class BusinessDateTime
     if (weeks == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusWeeks(weeks),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.minusWeeks(weeks), calendar);
     }
   }
 
@@ -440,12 +527,7 @@ public final class BusinessDateTime
     if (months == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusMonths(months),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.plusMonths(months), calendar);
     }
   }
 
@@ -459,12 +541,7 @@ public final class BusinessDateTime
     if (months == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusMonths(months),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.minusMonths(months), calendar);
     }
   }
 
@@ -478,12 +555,7 @@ public final class BusinessDateTime
     if (years == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.plusYears(years),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.plusYears(years), calendar);
     }
   }
 
@@ -497,12 +569,7 @@ public final class BusinessDateTime
     if (years == 0) {
       return this;
     } else {
-      return new BusinessDateTime(
-          dateTime.minusYears(years),
-          dayStartTime,
-          dayEndTime,
-          holidays,
-          workingWeek);
+      return new BusinessDateTime(dateTime.minusYears(years), calendar);
     }
   }
 
@@ -514,12 +581,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withEra(int era) {
-    return new BusinessDateTime(
-        dateTime.withEra(era),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withEra(era), calendar);
   }
 
   /**
@@ -530,12 +592,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withCenturyOfEra(int centuryOfEra) {
-    return new BusinessDateTime(
-        dateTime.withCenturyOfEra(centuryOfEra),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withCenturyOfEra(centuryOfEra), calendar);
   }
 
   /**
@@ -546,12 +603,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withYearOfEra(int yearOfEra) {
-    return new BusinessDateTime(
-        dateTime.withYearOfEra(yearOfEra),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withYearOfEra(yearOfEra), calendar);
   }
 
   /**
@@ -562,12 +614,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withYearOfCentury(int yearOfCentury) {
-    return new BusinessDateTime(
-        dateTime.withYearOfCentury(yearOfCentury),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withYearOfCentury(yearOfCentury), calendar);
   }
 
   /**
@@ -578,12 +625,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withYear(int year) {
-    return new BusinessDateTime(
-        dateTime.withYear(year),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withYear(year), calendar);
   }
 
   /**
@@ -594,12 +636,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withWeekyear(int weekYear) {
-    return new BusinessDateTime(
-        dateTime.withWeekyear(weekYear),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withWeekyear(weekYear), calendar);
   }
 
   /**
@@ -610,12 +647,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withMonthOfYear(int monthOfYear) {
-    return new BusinessDateTime(
-        dateTime.withMonthOfYear(monthOfYear),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withMonthOfYear(monthOfYear), calendar);
   }
 
   /**
@@ -626,12 +658,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withWeekOfWeekyear(int weekOfWeekYear) {
-    return new BusinessDateTime(
-        dateTime.withWeekOfWeekyear(weekOfWeekYear),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withWeekOfWeekyear(weekOfWeekYear), calendar);
   }
 
   /**
@@ -642,12 +669,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withDayOfYear(int dayOfYear) {
-    return new BusinessDateTime(
-        dateTime.withDayOfYear(dayOfYear),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withDayOfYear(dayOfYear), calendar);
   }
 
   /**
@@ -658,12 +680,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withDayOfMonth(int dayOfMonth) {
-    return new BusinessDateTime(
-        dateTime.withDayOfMonth(dayOfMonth),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withDayOfMonth(dayOfMonth), calendar);
   }
 
   /**
@@ -674,12 +691,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withDayOfWeek(int dayOfWeek) {
-    return new BusinessDateTime(
-        dateTime.withDayOfWeek(dayOfWeek),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withDayOfWeek(dayOfWeek), calendar);
   }
 
   /**
@@ -690,12 +702,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withHourOfDay(int hour) {
-    return new BusinessDateTime(
-        dateTime.withHourOfDay(hour),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withHourOfDay(hour), calendar);
   }
 
   /**
@@ -706,12 +713,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withMinuteOfHour(int minute) {
-    return new BusinessDateTime(
-        dateTime.withMinuteOfHour(minute),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withMinuteOfHour(minute), calendar);
   }
 
   /**
@@ -722,12 +724,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withSecondOfMinute(int second) {
-    return new BusinessDateTime(
-        dateTime.withSecondOfMinute(second),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withSecondOfMinute(second), calendar);
   }
 
   /**
@@ -738,12 +735,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withMillisOfSecond(int millis) {
-    return new BusinessDateTime(
-        dateTime.withMillisOfSecond(millis),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withMillisOfSecond(millis), calendar);
   }
 
   /**
@@ -754,12 +746,125 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withMillisOfDay(int millis) {
-    return new BusinessDateTime(
-        dateTime.withMillisOfDay(millis),
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime.withMillisOfDay(millis), calendar);
+  }
+
+  /**
+   * Returns the business ordinal of this datetime: the business nanos elapsed since the start
+   * of business hours on Monday 1970-01-05 under its calendar. Ordinals of datetimes sharing a
+   * calendar can be compared, subtracted and offset as plain longs.
+   *
+   * @return business nanos since the calendar epoch, negative before it
+   */
+  public long toBusinessNanos() {
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return schedule.toOrdinal(toLocalEpochNanos(dateTime));
+    }
+    return CALCULATOR.toOrdinal(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
+        dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
+  }
+
+  /**
+   * Calculates the amount of business time until {@code end} in terms of {@code type}.
+   * Only time within business hours on business days is counted, so nights, weekends and
+   * holidays do not add up. {@code days} and {@code halfdays} count the business days
+   * {@link #plusDays(int)} moves by, and halves of them, so a day with shorter hours still
+   * counts as a whole day.
+   *
+   * @param end the end instant, exclusive
+   * @param type the field type to measure the amount in, from {@code millis} to {@code days}
+   * @return the amount of business time, negative if end is before this datetime
+   * @throws IllegalArgumentException if the field type is not supported
+   */
+  public long businessUntil(ReadableInstant end, DurationFieldType type) {
+    if (type == DurationFieldType.halfdays()) {
+      return businessDaysUntil(end, 2);
+    } else if (type == DurationFieldType.days()) {
+      return businessDaysUntil(end, 1);
+    }
+    long nanos = businessNanosUntil(end);
+    if (type == DurationFieldType.millis()) {
+      return nanos / Constants.NANOS_PER_MILLI;
+    } else if (type == DurationFieldType.seconds()) {
+      return nanos / Constants.NANOS_PER_SECOND;
+    } else if (type == DurationFieldType.minutes()) {
+      return nanos / Constants.NANOS_PER_MINUTE;
+    } else if (type == DurationFieldType.hours()) {
+      return nanos / Constants.NANOS_PER_HOUR;
+    }
+    throw new IllegalArgumentException("Unsupported field type: " + type);
+  }
+
+  /**
+   * Calculates the business time until {@code end}. Only time within business hours on
+   * business days is counted.
+   *
+   * @param end the end instant, exclusive
+   * @return the business duration, negative if end is before this datetime
+   */
+  public Duration businessDurationUntil(ReadableInstant end) {
+    return new Duration(businessNanosUntil(end) / Constants.NANOS_PER_MILLI);
+  }
+
+  private long businessNanosUntil(ReadableInstant end) {
+    DateTime endDateTime = new DateTime(end.getMillis(), dateTime.getChronology());
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return schedule.businessNanosBetween(toLocalEpochNanos(dateTime),
+                                           toLocalEpochNanos(endDateTime));
+    }
+    return CALCULATOR.businessNanosBetween(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
+        dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
+        JodaEpochDayConverter.INSTANCE.toEpochDay(endDateTime.toLocalDate()),
+        endDateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
+  }
+
+  private long businessDaysUntil(ReadableInstant end, int partsPerDay) {
+    DateTime endDateTime = new DateTime(end.getMillis(), dateTime.getChronology());
+    BusinessSchedule schedule = calendar.getSchedule();
+    if (schedule != null) {
+      return CALCULATOR.businessDaysBetween(toLocalEpochNanos(dateTime),
+                                            toLocalEpochNanos(endDateTime),
+                                            partsPerDay,
+                                            schedule);
+    }
+    return CALCULATOR.businessDaysBetween(
+        JodaEpochDayConverter.INSTANCE.toEpochDay(dateTime.toLocalDate()),
+        dateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
+        JodaEpochDayConverter.INSTANCE.toEpochDay(endDateTime.toLocalDate()),
+        endDateTime.toLocalTime().getMillisOfDay() * Constants.NANOS_PER_MILLI,
+        partsPerDay,
+        calendar.getDayStartNanosOfDay(),
+        calendar.getDayEndNanosOfDay(),
+        calendar.getDayCalculator());
+  }
+
+  /**
+   * Gets the business calendar of this datetime.
+   *
+   * @return the business calendar, not null
+   */
+  public BusinessCalendar getCalendar() {
+    return calendar;
+  }
+
+  /**
+   * Returns a copy of this datetime with the business calendar updated.
+   *
+   * @param calendar the calendar to set, null means {@link BusinessCalendar#DEFAULT}
+   * @return a copy of this object with the calendar set
+   */
+  public BusinessDateTime withCalendar(BusinessCalendar calendar) {
+    return new BusinessDateTime(dateTime, calendar);
   }
 
   /**
@@ -770,12 +875,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withBusinessDayStartTime(LocalTime time) {
-    return new BusinessDateTime(
-        dateTime,
-        time,
-        dayEndTime,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withDayStartTime(time));
   }
 
   /**
@@ -786,12 +886,7 @@ public final class BusinessDateTime
    * @throws IllegalArgumentException if the value is invalid
    */
   public BusinessDateTime withBusinessDayEndTime(LocalTime time) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        time,
-        holidays,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withDayEndTime(time));
   }
 
   /**
@@ -801,12 +896,7 @@ public final class BusinessDateTime
    * @return a copy of this object with the field set
    */
   public BusinessDateTime withHolidays(Set<LocalDate> dates) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        dayEndTime,
-        dates,
-        workingWeek);
+    return new BusinessDateTime(dateTime, calendar.withHolidays(dates));
   }
 
   /**
@@ -816,11 +906,27 @@ public final class BusinessDateTime
    * @return a copy of this object with the field set
    */
   public BusinessDateTime withWorkingWeek(WorkingWeek week) {
-    return new BusinessDateTime(
-        dateTime,
-        dayStartTime,
-        dayEndTime,
-        holidays,
-        week);
+    return new BusinessDateTime(dateTime, calendar.withWorkingWeek(week));
+  }
+
+  /**
+   * Reads the date time and its calendar, or, in the form written before calendars, the date time
+   * with the business day start and end time, holidays and working week it was built from.
+   */
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    BusinessCalendar businessCalendar = (BusinessCalendar) fields.get("calendar", null);
+    if (fields.defaulted("calendar")) {
+      businessCalendar = new BusinessCalendar((LocalTime) fields.get("dayStartTime", null),
+                                              (LocalTime) fields.get("dayEndTime", null),
+                                              (Set<LocalDate>) fields.get("holidays", null),
+                                              (WorkingWeek) fields.get("workingWeek", null));
+    }
+    resolved = new BusinessDateTime((DateTime) fields.get("dateTime", null), businessCalendar);
+  }
+
+  private Object readResolve() {
+    return resolved;
   }
 }
@@ -0,0 +1,28 @@
+package com.github.aruberto.businesstime.joda;
+
+import com.github.aruberto.businesstime.common.EpochDayConverter;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.joda.time.chrono.ISOChronology;
+
+import java.io.Serializable;
+
+class JodaEpochDayConverter implements EpochDayConverter<LocalDate>, Serializable {
+
+  static final JodaEpochDayConverter INSTANCE = new JodaEpochDayConverter();
+
+  private static final long serialVersionUID = 7310984419285523034L;
+
+  public long toEpochDay(LocalDate date) {
+    // local dates always use a UTC chronology so midnight is an exact multiple of a day
+    long millis = date.getChronology().getDateTimeMillis(
+        date.getYear(), date.getMonthOfYear(), date.getDayOfMonth(), 0);
+    return millis / DateTimeConstants.MILLIS_PER_DAY;
+  }
+
+  public LocalDate fromEpochDay(long epochDay) {
+    return new LocalDate(epochDay * DateTimeConstants.MILLIS_PER_DAY,
+                         ISOChronology.getInstanceUTC());
+  }
+}
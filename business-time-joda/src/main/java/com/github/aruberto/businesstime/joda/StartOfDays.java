@@ -0,0 +1,79 @@
+package com.github.aruberto.businesstime.joda;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The instant at the start of each day in a time zone, cached so that turning a result packed
+ * as {@link LocalEpochNanos} back into a date time does not resolve its date and time in the
+ * zone rules every time.
+ * <p>
+ * Days are cached in chunks of about a year, built on first touch of a day in the chunk, so
+ * only the years a calendar is used in are kept. Threads building the same chunk together agree
+ * on the first one cached.
+ * <p>
+ * On a day exactly 24 hours long the offset holds all day, so the instant of a result is the
+ * start of its day plus its millis of day. A day whose offset changes, such as when the clocks
+ * change, is resolved from its local date and time as before.
+ */
+final class StartOfDays {
+
+  /**
+   * Number of days per chunk, a leap year.
+   */
+  private static final int CHUNK_DAYS = 366;
+  private static final long MILLIS_PER_DAY = Constants.NANOS_PER_DAY / Constants.NANOS_PER_MILLI;
+
+  private final DateTimeZone zone;
+  private final ConcurrentMap<Long, long[]> chunks = new ConcurrentHashMap<Long, long[]>();
+
+  StartOfDays(DateTimeZone zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * Returns the date time of {@code localEpochNanos} in the zone.
+   */
+  DateTime toDateTime(long localEpochNanos) {
+    long epochDay = LocalEpochNanos.toEpochDay(localEpochNanos);
+    int millisOfDay =
+        (int) (LocalEpochNanos.toNanosOfDay(localEpochNanos) / Constants.NANOS_PER_MILLI);
+    // floor division, the chunk holding days before the epoch starts below them
+    long chunkIndex = epochDay >= 0 ? epochDay / CHUNK_DAYS : (epochDay + 1) / CHUNK_DAYS - 1;
+    long[] starts = chunks.get(chunkIndex);
+    if (starts == null) {
+      starts = startsOfChunk(chunkIndex * CHUNK_DAYS);
+      long[] previous = chunks.putIfAbsent(chunkIndex, starts);
+      if (previous != null) {
+        starts = previous;
+      }
+    }
+    int index = (int) (epochDay - chunkIndex * CHUNK_DAYS);
+    if (starts[index + 1] - starts[index] != MILLIS_PER_DAY) {
+      LocalDate date = JodaEpochDayConverter.INSTANCE.fromEpochDay(epochDay);
+      return date.toDateTime(new LocalTime(0, 0, 0, 0).plusMillis(millisOfDay), zone);
+    }
+    return new DateTime(starts[index] + millisOfDay, zone);
+  }
+
+  /**
+   * Returns the start of day instants of a chunk of days and the day after.
+   */
+  private long[] startsOfChunk(long firstEpochDay) {
+    long[] starts = new long[CHUNK_DAYS + 1];
+    for (int i = 0; i <= CHUNK_DAYS; i++) {
+      starts[i] = JodaEpochDayConverter.INSTANCE.fromEpochDay(firstEpochDay + i)
+          .toDateTimeAtStartOfDay(zone)
+          .getMillis();
+    }
+    return starts;
+  }
+}
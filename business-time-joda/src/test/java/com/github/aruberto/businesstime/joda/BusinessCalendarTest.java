@@ -0,0 +1,235 @@
+package com.github.aruberto.businesstime.joda;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.DaySchedule;
+import com.github.aruberto.businesstime.common.HolidayRule;
+import com.github.aruberto.businesstime.common.HolidayRules;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.common.MutableBusinessSchedule;
+
+import net.objectlab.kit.datecalc.common.DateCalculator;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class BusinessCalendarTest {
+
+  private static final long HOUR = 3600000000000L;
+
+  @Test
+  public void getDateCalculator_SameThread_SameCalculator() {
+    BusinessCalendar calendar = new BusinessCalendar(null);
+
+    assertSame("Calculator should be reused on the same thread",
+               calendar.getDateCalculator(),
+               calendar.getDateCalculator());
+  }
+
+  @Test
+  public void getDateCalculator_OtherThread_OtherCalculator() throws Exception {
+    final BusinessCalendar calendar = new BusinessCalendar(null);
+    final AtomicReference<DateCalculator<LocalDate>> other =
+        new AtomicReference<DateCalculator<LocalDate>>();
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        other.set(calendar.getDateCalculator());
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertNotSame("Calculator should not be shared between threads",
+                  calendar.getDateCalculator(),
+                  other.get());
+  }
+
+  @Test
+  public void getDateCalculator_Holiday_SkipsHoliday() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(new LocalDate(2014, 12, 11));
+    }};
+    DateCalculator<LocalDate> calc = new BusinessCalendar(holidays).getDateCalculator();
+    calc.setStartDate(new LocalDate(2014, 12, 10));
+
+    assertEquals("Wednesday plus 1 business day should skip holiday Thursday",
+                 new LocalDate(2014, 12, 12),
+                 calc.moveByBusinessDays(1).getCurrentBusinessDate());
+  }
+
+  @Test
+  public void withHours_NoTimes_NotAWorkingDay() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT.withHours(DateTimeConstants.FRIDAY);
+    long friday = JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(2014, 12, 12));
+
+    assertFalse("Closed Friday 2014-12-12 should not be a business day",
+                calendar.getDayCalculator().isBusinessDay(friday));
+  }
+
+  @Test
+  public void readWriteObject_WeekdayHours_HoursKept() throws Exception {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DateTimeConstants.SATURDAY, new LocalTime(10, 0), new LocalTime(14, 0));
+
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    ObjectOutputStream inputStream = new ObjectOutputStream(byteStream);
+    inputStream.writeObject(calendar);
+    inputStream.close();
+    BusinessCalendar copy = (BusinessCalendar) new ObjectInputStream(
+        new ByteArrayInputStream(byteStream.toByteArray())).readObject();
+
+    assertEquals("Serialize and de-serialize should keep the weekday hours", calendar, copy);
+    assertEquals("Copy should be recompiled with Saturday hours",
+                 44 * 3600000000000L,
+                 copy.getSchedule().getWeekNanos());
+  }
+
+  @Test
+  public void withHours_DateWithoutTimes_SkippedLikeHoliday() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT.withHours(new LocalDate(2014, 12, 11));
+    DateCalculator<LocalDate> calc = calendar.getDateCalculator();
+    calc.setStartDate(new LocalDate(2014, 12, 10));
+
+    assertEquals("Wednesday plus 1 business day should skip closed Thursday",
+                 new LocalDate(2014, 12, 12),
+                 calc.moveByBusinessDays(1).getCurrentBusinessDate());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void withHours_SessionRunningIntoNextDayHours_Exception() {
+    // Thursday 17:00 to Friday 17:00 overlaps Friday 9:00 to 17:00
+    BusinessCalendar.DEFAULT
+        .withHours(DateTimeConstants.THURSDAY, new LocalTime(17, 0), new LocalTime(17, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void withHours_InvalidDayOfWeek_Exception() {
+    BusinessCalendar.DEFAULT.withHours(0, new LocalTime(9, 0), new LocalTime(17, 0));
+  }
+
+  @Test
+  public void withHolidayRules_GoodFriday_SkippedAndKeptOnSerialization() throws Exception {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHolidayRules(new HolidayRules(2000, 2099, HolidayRule.easter(-2)));
+
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    ObjectOutputStream inputStream = new ObjectOutputStream(byteStream);
+    inputStream.writeObject(calendar);
+    inputStream.close();
+    BusinessCalendar copy = (BusinessCalendar) new ObjectInputStream(
+        new ByteArrayInputStream(byteStream.toByteArray())).readObject();
+    DateCalculator<LocalDate> calc = copy.getDateCalculator();
+    calc.setStartDate(new LocalDate(2015, 4, 2));
+
+    assertEquals("Serialize and de-serialize should keep the holiday rules", calendar, copy);
+    assertEquals("Thursday plus 1 business day should skip Good Friday",
+                 new LocalDate(2015, 4, 6),
+                 calc.moveByBusinessDays(1).getCurrentBusinessDate());
+  }
+
+  @Test
+  public void compiledSchedule_SameHoursEveryDay_UsableByMutableSchedule() {
+    long thursday = JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(2014, 12, 11));
+
+    MutableBusinessSchedule live =
+        new MutableBusinessSchedule(BusinessCalendar.DEFAULT.compiledSchedule(), thursday, 10);
+    live.close(thursday + 1);
+
+    assertEquals("Thursday 9:00 plus 16 hours should skip the closed Friday and the weekend",
+                 LocalEpochNanos.of(thursday + 4, 17 * Constants.NANOS_PER_HOUR),
+                 live.move(LocalEpochNanos.of(thursday, 9 * Constants.NANOS_PER_HOUR),
+                           16 * Constants.NANOS_PER_HOUR));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void withHolidayRules_MovingPastLastYear_Exception() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHolidayRules(new HolidayRules(2000, 2015, HolidayRule.easter(-2)));
+
+    // the holidays of 2016 are not known, so the move must not run into it
+    new BusinessDateTime(new DateTime(2015, 12, 30, 10, 0, 0, 0, DateTimeZone.UTC), calendar)
+        .plusDays(5);
+  }
+
+  @Test
+  public void intersection_CalendarWithHolidayRules_HolidaysWithinTheirYears() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHolidayRules(new HolidayRules(2000, 2015, HolidayRule.easter(-2)));
+
+    BusinessCalendar both = BusinessCalendar.intersection(calendar, BusinessCalendar.DEFAULT);
+
+    assertFalse("Good Friday 2015-04-03 should not be a business day",
+                both.getDayCalculator().isBusinessDay(
+                    JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(2015, 4, 3))));
+    assertEquals("Holiday rules should keep the first year covered",
+                 2000, both.getHolidayRules().getFromYear());
+    assertEquals("Holiday rules should keep the last year covered",
+                 2015, both.getHolidayRules().getToYear());
+  }
+
+  @Test
+  public void intersection_TwoMarkets_CommonHoursAndEitherHolidays() {
+    LocalDate independenceDay = new LocalDate(2015, 7, 3);
+    LocalDate bankHoliday = new LocalDate(2015, 8, 31);
+    BusinessCalendar nyse = new BusinessCalendar(
+        new LocalTime(9, 30), new LocalTime(16, 0), Collections.singleton(independenceDay), null);
+    BusinessCalendar lse = new BusinessCalendar(
+        new LocalTime(8, 0), new LocalTime(16, 30), Collections.singleton(bankHoliday), null);
+
+    BusinessCalendar both = BusinessCalendar.intersection(nyse, lse);
+    DateCalculator<LocalDate> calc = both.getDateCalculator();
+    calc.setStartDate(new LocalDate(2015, 7, 2));
+
+    assertEquals("Thursday plus 1 business day should skip New York's holiday",
+                 new LocalDate(2015, 7, 6),
+                 calc.moveByBusinessDays(1).getCurrentBusinessDate());
+    assertEquals("Business hours should be those both markets are open",
+                 new DaySchedule(9 * HOUR + HOUR / 2, 16 * HOUR),
+                 both.getSchedule().getDaySchedule(
+                     JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(2015, 7, 2))));
+  }
+
+  @Test
+  public void union_TwoDesks_OpenWhileEitherIsOpen() {
+    LocalDate independenceDay = new LocalDate(2015, 7, 3);
+    LocalDate christmas = new LocalDate(2015, 12, 25);
+    Set<LocalDate> bothClosed = new HashSet<LocalDate>();
+    bothClosed.add(independenceDay);
+    bothClosed.add(christmas);
+    BusinessCalendar london = new BusinessCalendar(
+        new LocalTime(8, 0), new LocalTime(16, 0), Collections.singleton(christmas), null);
+    BusinessCalendar newYork =
+        new BusinessCalendar(new LocalTime(12, 0), new LocalTime(20, 0), bothClosed, null);
+
+    BusinessCalendar either = BusinessCalendar.union(london, newYork);
+
+    assertEquals("Weekdays should run from London's open to New York's close",
+                 5 * 12 * HOUR,
+                 either.getSchedule().getWeekNanos());
+    assertEquals("New York's holiday should have London's hours",
+                 new DaySchedule(8 * HOUR, 16 * HOUR),
+                 either.getSchedule().getDaySchedule(
+                     JodaEpochDayConverter.INSTANCE.toEpochDay(independenceDay)));
+    assertFalse("Christmas should be closed at both desks",
+                either.getDayCalculator().isBusinessDay(
+                    JodaEpochDayConverter.INSTANCE.toEpochDay(christmas)));
+  }
+}
@@ -1,14 +1,24 @@
 package com.github.aruberto.businesstime.joda;
 
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.DurationFieldType;
 import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Calendar;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -282,6 +292,27 @@ public class BusinessDateTimeTest {
                  businessStart.minusMinutes(3).toDateTime());
   }
 
+  @Test
+  public void plusHours_OutsidePackedYears_MovedByDates() {
+    DateTime start1600 = new DateTime(1600, 3, 3, 10, 0, 0, 0, DateTimeZone.UTC);
+    DateTime start2300 = new DateTime(2300, 1, 5, 10, 0, 0, 0, DateTimeZone.UTC);
+
+    assertEquals("Friday 1600-03-03 10:00 should stay as is",
+                 start1600,
+                 new BusinessDateTime(start1600).toDateTime());
+    assertEquals("Friday 1600-03-03 10:00 plus 8 hours should return Monday 10:00",
+                 new DateTime(1600, 3, 6, 10, 0, 0, 0, DateTimeZone.UTC),
+                 new BusinessDateTime(start1600).plusHours(8).toDateTime());
+    assertEquals("Friday 2300-01-05 10:00 plus 8 hours should return Monday 10:00",
+                 new DateTime(2300, 1, 8, 10, 0, 0, 0, DateTimeZone.UTC),
+                 new BusinessDateTime(start2300).plusHours(8).toDateTime());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void plusDays_ResultPastPackedYears_Exception() {
+    new BusinessDateTime(new DateTime(2262, 4, 9, 10, 0, 0, 0, DateTimeZone.UTC)).plusDays(10);
+  }
+
   @Test
   public void plusHours_3Hours_3HoursLater() {
     DateTime start = new DateTime(2014, 12, 11, 12, 0, 0, 0);
@@ -436,6 +467,230 @@ public class BusinessDateTimeTest {
                  businessStart.minusMinutes(515).toDateTime());
   }
 
+  @Test
+  public void plusDays_HolidayAddedAfterConstruction_Ignored() {
+    DateTime start = new DateTime(2014, 12, 10, 14, 0, 0, 0);
+    DateTime expected = new DateTime(2014, 12, 11, 14, 0, 0, 0);
+    Set<LocalDate> holidays = new HashSet<LocalDate>();
+    BusinessCalendar calendar = new BusinessCalendar(holidays);
+    holidays.add(new LocalDate(2014, 12, 11));
+
+    assertEquals("Wednesday 14:00:00.0 plus 1 day should ignore holiday added after construction",
+                 expected,
+                 new BusinessDateTime(start, calendar).plusDays(1).toDateTime());
+  }
+
+  @Test
+  public void withCalendar_SharedCalendar_SameCalendar() {
+    BusinessCalendar calendar = new BusinessCalendar(new HashSet<LocalDate>() {{
+      add(new LocalDate(2014, 12, 11));
+    }});
+    BusinessDateTime first =
+        new BusinessDateTime(new DateTime(2014, 12, 10, 14, 0, 0, 0), calendar);
+    BusinessDateTime second = first.plusHours(4).withCalendar(calendar);
+
+    assertEquals("Wednesday 14:00:00.0 plus 4 hours should skip holiday Thursday",
+                 new DateTime(2014, 12, 12, 10, 0, 0, 0),
+                 second.toDateTime());
+    assertEquals("Copies should share the calendar", calendar, second.getCalendar());
+  }
+
+  @Test
+  public void hashCode_WeekendAndNextBusinessDayStart_SameKey() {
+    DateTime saturday = new DateTime(2014, 12, 13, 11, 0, 0, 0);
+    DateTime monday = new DateTime(2014, 12, 15, 9, 0, 0, 0);
+    Map<BusinessDateTime, String> map = new HashMap<BusinessDateTime, String>();
+    map.put(new BusinessDateTime(saturday), "saturday");
+
+    assertEquals("Saturday 11:00:00.0 and Monday 9:00:00.0 should be the same key",
+                 "saturday",
+                 map.get(new BusinessDateTime(monday)));
+  }
+
+  @Test
+  public void businessUntil_AcrossHolidayAndWeekend_BusinessHoursOnly() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(new LocalDate(2014, 12, 15));
+    }};
+    BusinessDateTime start =
+        new BusinessDateTime(new DateTime(2014, 12, 12, 16, 0, 0, 0), holidays);
+    DateTime end = new DateTime(2014, 12, 16, 11, 30, 0, 0);
+
+    assertEquals("Friday 16:00 to Tuesday 11:30 should be 210 business minutes",
+                 210,
+                 start.businessUntil(end, DurationFieldType.minutes()));
+    assertEquals("Friday 16:00 to Tuesday 11:30 should be 3 business hours",
+                 3,
+                 start.businessUntil(end, DurationFieldType.hours()));
+    assertEquals("Tuesday 11:30 back to Friday 16:00 should be minus 210 business minutes",
+                 Duration.standardMinutes(-210),
+                 start.plusMinutes(210).businessDurationUntil(start));
+  }
+
+  @Test
+  public void businessUntil_PlusDaysWithShortFridays_SameDays() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DateTimeConstants.FRIDAY, new LocalTime(9, 0), new LocalTime(13, 0));
+    DateTime[] starts = {
+        new DateTime(2014, 12, 8, 9, 0, 0, 0),
+        new DateTime(2014, 12, 10, 10, 0, 0, 0),
+        new DateTime(2014, 12, 11, 15, 0, 0, 0),
+        new DateTime(2014, 12, 12, 12, 0, 0, 0)
+    };
+
+    for (DateTime start : starts) {
+      BusinessDateTime x = new BusinessDateTime(start, calendar);
+      for (int n = -12; n <= 12; n++) {
+        assertEquals(start + " plus " + n + " days should be " + n + " business days later",
+                     n,
+                     x.businessUntil(x.plusDays(n), DurationFieldType.days()));
+        assertEquals(start + " plus " + n + " days should be " + 2 * n + " half days later",
+                     2 * n,
+                     x.businessUntil(x.plusDays(n), DurationFieldType.halfdays()));
+      }
+    }
+  }
+
+  @Test
+  public void ofBusinessNanos_ToBusinessNanos_RoundTrip() {
+    BusinessDateTime start = new BusinessDateTime(new DateTime(2014, 12, 12, 16, 0, 0, 0));
+    long ordinal = start.toBusinessNanos();
+    BusinessDateTime later = BusinessDateTime.ofBusinessNanos(
+        ordinal + 3 * 3600000000000L, DateTimeZone.getDefault(), start.getCalendar());
+
+    assertEquals("Friday 16:00 plus 3 business hours should be Monday 11:00",
+                 new DateTime(2014, 12, 15, 11, 0, 0, 0),
+                 later.toDateTime());
+    assertEquals("Ordinal of the result should be 3 business hours later",
+                 ordinal + 3 * 3600000000000L,
+                 later.toBusinessNanos());
+  }
+
+  @Test
+  public void plusHours_ShortFridayAndSaturdayHours_ContinuesOnSaturday() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DateTimeConstants.FRIDAY, new LocalTime(9, 0), new LocalTime(13, 0))
+        .withHours(DateTimeConstants.SATURDAY, new LocalTime(10, 0), new LocalTime(14, 0));
+    BusinessDateTime start =
+        new BusinessDateTime(new DateTime(2014, 12, 12, 12, 0, 0, 0), calendar);
+
+    assertEquals("Friday 12:00 plus 3 hours should be Saturday 12:00",
+                 new DateTime(2014, 12, 13, 12, 0, 0, 0),
+                 start.plusHours(3).toDateTime());
+    assertEquals("Saturday 12:00 minus 3 hours should be Friday 12:00",
+                 start.toDateTime(),
+                 start.plusHours(3).minusHours(3).toDateTime());
+    assertEquals("Friday 12:00 to Monday 10:00 should be 1 + 4 + 1 business hours",
+                 6,
+                 start.businessUntil(new DateTime(2014, 12, 15, 10, 0, 0, 0),
+                                     DurationFieldType.hours()));
+  }
+
+  @Test
+  public void plusHours_ForexWeek_ContinuesAcrossMidnightAndWeekend() {
+    // Sunday 17:00 to Friday 17:00 New York, as 24 hour days starting Sunday to Thursday
+    WorkingWeek week = WorkingWeek.DEFAULT
+        .withWorkingDayFromCalendar(true, Calendar.SUNDAY)
+        .withWorkingDayFromCalendar(false, Calendar.FRIDAY);
+    BusinessCalendar calendar =
+        new BusinessCalendar(new LocalTime(17, 0), new LocalTime(17, 0), null, week);
+    DateTimeZone newYork = DateTimeZone.forID("America/New_York");
+    BusinessDateTime wednesday =
+        new BusinessDateTime(new DateTime(2014, 12, 10, 20, 0, 0, 0, newYork), calendar);
+    BusinessDateTime friday =
+        new BusinessDateTime(new DateTime(2014, 12, 12, 16, 0, 0, 0, newYork), calendar);
+
+    assertEquals("Wednesday 20:00 plus 500 hours should be 4 weeks and 20 hours later",
+                 new DateTime(2015, 1, 8, 16, 0, 0, 0, newYork),
+                 wednesday.plusHours(500).toDateTime());
+    assertEquals("Friday 16:00 plus 2 hours should be Sunday 18:00",
+                 new DateTime(2014, 12, 14, 18, 0, 0, 0, newYork),
+                 friday.plusHours(2).toDateTime());
+  }
+
+  @Test
+  public void plusHours_OvernightShift_ContinuesPastMidnight() {
+    BusinessCalendar calendar =
+        new BusinessCalendar(new LocalTime(22, 0), new LocalTime(6, 0), null);
+    BusinessDateTime friday =
+        new BusinessDateTime(new DateTime(2014, 12, 12, 23, 0, 0, 0), calendar);
+
+    assertEquals("Friday 23:00 plus 8 hours should finish the shift and start Monday night",
+                 new DateTime(2014, 12, 15, 23, 0, 0, 0),
+                 friday.plusHours(8).toDateTime());
+    assertEquals("Saturday 10:00 should normalize to the Monday 22:00 shift start",
+                 new DateTime(2014, 12, 15, 22, 0, 0, 0),
+                 new BusinessDateTime(new DateTime(2014, 12, 13, 10, 0, 0, 0), calendar)
+                     .toDateTime());
+  }
+
+  @Test
+  public void plusDays_OvernightShiftFridayNight_MondayNight() {
+    BusinessCalendar calendar =
+        new BusinessCalendar(new LocalTime(22, 0), new LocalTime(6, 0), null);
+    BusinessDateTime friday =
+        new BusinessDateTime(new DateTime(2014, 12, 12, 23, 0, 0, 0), calendar);
+    BusinessDateTime saturday =
+        new BusinessDateTime(new DateTime(2014, 12, 13, 3, 0, 0, 0), calendar);
+
+    assertEquals("Friday 23:00 plus 1 day should be the same time of the Monday shift",
+                 new DateTime(2014, 12, 15, 23, 0, 0, 0),
+                 friday.plusDays(1).toDateTime());
+    assertEquals("Saturday 03:00 is in the Friday shift, plus 1 day should be Tuesday 03:00",
+                 new DateTime(2014, 12, 16, 3, 0, 0, 0),
+                 saturday.plusDays(1).toDateTime());
+    assertEquals("Monday 23:00 minus 1 day should be back in the Friday shift",
+                 friday.toDateTime(),
+                 friday.plusDays(1).minusDays(1).toDateTime());
+  }
+
+  @Test
+  public void plusHours_ChristmasEveEarlyClose_ContinuesNextBusinessDay() {
+    Set<LocalDate> holidays = new HashSet<LocalDate>() {{
+      add(new LocalDate(2014, 12, 25));
+    }};
+    BusinessCalendar calendar = new BusinessCalendar(holidays)
+        .withHours(new LocalDate(2014, 12, 24), new LocalTime(9, 0), new LocalTime(13, 0));
+    BusinessDateTime start =
+        new BusinessDateTime(new DateTime(2014, 12, 24, 12, 0, 0, 0), calendar);
+
+    assertEquals("Wednesday 12:00 plus 2 hours should close at 13:00 and go on Friday",
+                 new DateTime(2014, 12, 26, 10, 0, 0, 0),
+                 start.plusHours(2).toDateTime());
+  }
+
+  @Test
+  public void plusHours_LunchBreak_BreakSkipped() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT.withHours(
+        DateTimeConstants.MONDAY, new LocalTime(8, 0), new LocalTime(12, 0),
+        new LocalTime(13, 0), new LocalTime(17, 0));
+    BusinessDateTime start =
+        new BusinessDateTime(new DateTime(2014, 12, 15, 11, 0, 0, 0), calendar);
+
+    assertEquals("Monday 11:00 plus 2 hours should skip lunch to 14:00",
+                 new DateTime(2014, 12, 15, 14, 0, 0, 0),
+                 start.plusHours(2).toDateTime());
+    assertEquals("Monday 12:30 should normalize to the end of lunch",
+                 new DateTime(2014, 12, 15, 13, 0, 0, 0),
+                 new BusinessDateTime(new DateTime(2014, 12, 15, 12, 30, 0, 0), calendar)
+                     .toDateTime());
+  }
+
+  @Test
+  public void plusDays_AfterShortFridayClose_ClampedToClose() {
+    BusinessCalendar calendar = BusinessCalendar.DEFAULT
+        .withHours(DateTimeConstants.FRIDAY, new LocalTime(9, 0), new LocalTime(13, 0));
+    BusinessDateTime thursday =
+        new BusinessDateTime(new DateTime(2014, 12, 11, 15, 0, 0, 0), calendar);
+
+    assertEquals("Thursday 15:00 plus 1 day should be Friday at its 13:00 close",
+                 new DateTime(2014, 12, 12, 13, 0, 0, 0),
+                 thursday.plusDays(1).toDateTime());
+    assertEquals("Thursday 15:00 plus 2 days should be Monday 15:00",
+                 new DateTime(2014, 12, 15, 15, 0, 0, 0),
+                 thursday.plusDays(2).toDateTime());
+  }
+
   @Test
   public void readWriteObject_CurrentTime_CurrentTime() throws Exception {
     BusinessDateTime dateTime = new BusinessDateTime();
@@ -451,4 +706,24 @@ public class BusinessDateTimeTest {
 
     assertEquals("Serialize and de-serialize should return itself", dateTime, o);
   }
+
+  @Test
+  public void readObject_WrittenBeforeCalendars_SameBusinessTime() throws Exception {
+    // written by 0.2.0 from Wednesday 2014-12-24 15:00 UTC, business hours 08:00 to 16:00 and
+    // Christmas as holiday
+    ObjectInputStream inputStream = new ObjectInputStream(
+        getClass().getResourceAsStream("business-date-time-0.2.0.ser"));
+    BusinessDateTime dateTime = (BusinessDateTime) inputStream.readObject();
+    inputStream.close();
+
+    assertEquals("De-serialize should keep the date time",
+                 new DateTime(2014, 12, 24, 15, 0, 0, 0, DateTimeZone.UTC),
+                 dateTime.toDateTime());
+    assertEquals("Plus 2 hours should skip Christmas and keep the business hours",
+                 new DateTime(2014, 12, 26, 9, 0, 0, 0, DateTimeZone.UTC),
+                 dateTime.plusHours(2).toDateTime());
+    assertEquals("Plus 2 days should skip Christmas and the weekend",
+                 new DateTime(2014, 12, 29, 15, 0, 0, 0, DateTimeZone.UTC),
+                 dateTime.plusDays(2).toDateTime());
+  }
 }
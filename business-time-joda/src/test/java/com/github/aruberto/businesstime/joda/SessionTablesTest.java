@@ -0,0 +1,47 @@
+package com.github.aruberto.businesstime.joda;
+
+import com.github.aruberto.businesstime.common.SessionTable;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.Instant;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SessionTablesTest {
+
+  private static final BusinessCalendar LONDON =
+      new BusinessCalendar(new LocalTime(8, 0), new LocalTime(17, 0), null);
+  private static final BusinessCalendar NEW_YORK =
+      new BusinessCalendar(new LocalTime(9, 0), new LocalTime(17, 0), null);
+
+  // London 8-17 and New York 9-17 over the first half of 2015
+  private static final SessionTable OVERLAP = SessionTable.intersection(
+      SessionTables.of(LONDON, DateTimeZone.forID("Europe/London"),
+                       new LocalDate(2015, 1, 1), new LocalDate(2015, 7, 1)),
+      SessionTables.of(NEW_YORK, DateTimeZone.forID("America/New_York"),
+                       new LocalDate(2015, 1, 1), new LocalDate(2015, 7, 1)));
+
+  @Test
+  public void between_WeeksAroundDaylightSavingTime_OverlapFollowsBothZones() {
+    assertEquals("Winter overlap should be 14:00 to 17:00 UTC each weekday",
+                 Duration.standardHours(15),
+                 SessionTables.between(OVERLAP, Instant.parse("2015-01-12T00:00:00Z"),
+                                       Instant.parse("2015-01-19T00:00:00Z")));
+    assertEquals("With only New York on summer time overlap should be 13:00 to 17:00 UTC",
+                 Duration.standardHours(20),
+                 SessionTables.between(OVERLAP, Instant.parse("2015-03-16T00:00:00Z"),
+                                       Instant.parse("2015-03-23T00:00:00Z")));
+  }
+
+  @Test
+  public void plus_4OverlapHours_ContinuesNextDay() {
+    assertEquals("Monday 14:00 UTC plus 4 overlap hours should be Tuesday 15:00 UTC",
+                 Instant.parse("2015-01-13T15:00:00Z"),
+                 SessionTables.plus(OVERLAP, Instant.parse("2015-01-12T14:00:00Z"),
+                                    Duration.standardHours(4)));
+  }
+}
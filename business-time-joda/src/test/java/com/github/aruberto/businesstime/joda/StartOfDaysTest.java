@@ -0,0 +1,35 @@
+package com.github.aruberto.businesstime.joda;
+
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StartOfDaysTest {
+
+  @Test
+  public void toDateTime_DaysAroundClockChanges_SameAsResolvingLocalDateTime() {
+    for (String id : new String[] {"America/New_York", "Europe/London", "Australia/Sydney"}) {
+      DateTimeZone zone = DateTimeZone.forID(id);
+      StartOfDays startOfDays = new StartOfDays(zone);
+      long first = JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(1969, 12, 1));
+      long last = JodaEpochDayConverter.INSTANCE.toEpochDay(new LocalDate(2016, 1, 1));
+      for (long day = first; day < last; day++) {
+        LocalDate date = JodaEpochDayConverter.INSTANCE.fromEpochDay(day);
+        // clear of the gaps, where the local date time does not exist
+        for (int minute : new int[] {0, 540, 1439}) {
+          long nanos = minute * Constants.NANOS_PER_MINUTE;
+
+          assertEquals(id + " " + date + " minute " + minute,
+                       date.toDateTime(new LocalTime(0, 0).plusMinutes(minute), zone),
+                       startOfDays.toDateTime(LocalEpochNanos.of(day, nanos)));
+        }
+      }
+    }
+  }
+}
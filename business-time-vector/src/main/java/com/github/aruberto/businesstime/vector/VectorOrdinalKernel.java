@@ -0,0 +1,115 @@
+package com.github.aruberto.businesstime.vector;
+
+import com.github.aruberto.businesstime.common.BusinessDayCalculator;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.OrdinalKernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link OrdinalKernel} on {@code jdk.incubator.vector}, loaded by
+ * {@link com.github.aruberto.businesstime.common.OrdinalKernels} when this module is on the
+ * class path and the JVM is started with {@code --add-modules jdk.incubator.vector}.
+ * <p>
+ * Splitting date times into days and times, clamping to business hours and combining day counts
+ * with times run a full vector of lanes at a time. The business day lookups stay per lane,
+ * through the public {@link BusinessDayCalculator} methods, as the calendar's tables are not
+ * laid out for gathers.
+ */
+public final class VectorOrdinalKernel implements OrdinalKernel {
+
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+  @Override
+  public void toOrdinals(BusinessDayCalculator calc,
+                         long[] localEpochNanos,
+                         int offset,
+                         int length,
+                         long dayStartNanosOfDay,
+                         long dayEndNanosOfDay,
+                         long[] ordinals) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    int lanes = SPECIES.length();
+    long[] days = new long[lanes];
+    long[] before = new long[lanes];
+    long[] after = new long[lanes];
+    long lastCovered = calc.getLastCoveredDay();
+    for (int i = offset, end = offset + length; i < end; i += lanes) {
+      VectorMask<Long> mask = SPECIES.indexInRange(i, end);
+      LongVector value = LongVector.fromArray(SPECIES, localEpochNanos, i, mask);
+      LongVector day = floorDiv(value, Constants.NANOS_PER_DAY);
+      LongVector nanos = value.sub(day.mul(Constants.NANOS_PER_DAY))
+                              .max(dayStartNanosOfDay)
+                              .min(dayEndNanosOfDay)
+                              .sub(dayStartNanosOfDay);
+      day.intoArray(days, 0);
+      for (int lane = 0, count = Math.min(lanes, end - i); lane < count; lane++) {
+        long epochDay = days[lane];
+        // a day counts when the count before the next day is one more
+        before[lane] = calc.businessDaysBefore(epochDay);
+        after[lane] = epochDay < lastCovered
+                      ? calc.businessDaysBefore(epochDay + 1)
+                      : before[lane] + (calc.isBusinessDay(epochDay) ? 1 : 0);
+      }
+      LongVector counted = LongVector.fromArray(SPECIES, before, 0);
+      counted.mul(dayLength)
+             .add(LongVector.fromArray(SPECIES, after, 0).sub(counted).mul(nanos))
+             .intoArray(ordinals, i, mask);
+    }
+  }
+
+  @Override
+  public void fromOrdinals(BusinessDayCalculator calc,
+                           long[] ordinals,
+                           int offset,
+                           int length,
+                           long dayStartNanosOfDay,
+                           long dayEndNanosOfDay,
+                           boolean preferEnd,
+                           long[] localEpochNanos) {
+    long dayLength = dayEndNanosOfDay - dayStartNanosOfDay;
+    // all ones when day boundaries map to the end of the earlier day, otherwise all zeros
+    long endMask = preferEnd ? -1L : 0L;
+    int lanes = SPECIES.length();
+    long[] indexes = new long[lanes];
+    long[] days = new long[lanes];
+    for (int i = offset, end = offset + length; i < end; i += lanes) {
+      VectorMask<Long> mask = SPECIES.indexInRange(i, end);
+      LongVector ordinal = LongVector.fromArray(SPECIES, ordinals, i, mask);
+      LongVector index = floorDiv(ordinal, dayLength);
+      LongVector nanos = ordinal.sub(index.mul(dayLength));
+      // -1 on a day boundary that belongs to the earlier day, otherwise 0
+      LongVector shift = nanos.sub(1).lanewise(VectorOperators.ASHR, 63).and(endMask);
+      index = index.add(shift);
+      nanos = nanos.sub(shift.mul(dayLength));
+      index.intoArray(indexes, 0);
+      for (int lane = 0, count = Math.min(lanes, end - i); lane < count; lane++) {
+        days[lane] = calc.businessDayAt(indexes[lane]);
+      }
+      LongVector.fromArray(SPECIES, days, 0)
+                .mul(Constants.NANOS_PER_DAY)
+                .add(nanos)
+                .add(dayStartNanosOfDay)
+                .intoArray(localEpochNanos, i, mask);
+    }
+  }
+
+  /**
+   * Floor division of every lane by {@code divisor}. Lanes have no long division instruction, so
+   * the quotient is estimated through doubles and corrected once with the exact remainder. The
+   * estimate is off by at most one while quotients stay well within 2^52, which holds for any
+   * day or business day a calendar covers.
+   */
+  private static LongVector floorDiv(LongVector value, long divisor) {
+    DoubleVector estimate = (DoubleVector) value.convert(VectorOperators.L2D, 0);
+    LongVector quotient =
+        (LongVector) estimate.mul(1.0 / divisor).convert(VectorOperators.D2L, 0);
+    LongVector remainder = value.sub(quotient.mul(divisor));
+    quotient = quotient.sub(1, remainder.compare(VectorOperators.LT, 0));
+    return quotient.add(1, remainder.compare(VectorOperators.GE, divisor));
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.aruberto.businesstime.vector;
+
+import com.github.aruberto.businesstime.common.BusinessDayCalculator;
+import com.github.aruberto.businesstime.common.Constants;
+import com.github.aruberto.businesstime.common.LocalEpochNanos;
+import com.github.aruberto.businesstime.common.OrdinalKernel;
+import com.github.aruberto.businesstime.common.OrdinalKernels;
+
+import net.objectlab.kit.datecalc.common.WorkingWeek;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorOrdinalKernelTest {
+
+  // 2014-12-11, a Thursday
+  private static final long THURSDAY = 16415;
+  private static final long NINE = 9 * Constants.NANOS_PER_HOUR;
+  private static final long FIVE = 17 * Constants.NANOS_PER_HOUR;
+
+  private final OrdinalKernel vector = new VectorOrdinalKernel();
+  private final OrdinalKernel scalar = OrdinalKernels.scalar();
+  private final BusinessDayCalculator days =
+      new BusinessDayCalculator(WorkingWeek.DEFAULT, new long[] {THURSDAY + 4});
+
+  @Test
+  public void preferred_VectorModuleResolved_VectorKernel() {
+    assertTrue("Vector kernel should be preferred when the incubator module is resolved",
+               OrdinalKernels.preferred() instanceof VectorOrdinalKernel);
+  }
+
+  @Test
+  public void toOrdinals_NearAndFarDaysWithTails_SameAsScalar() {
+    Random random = new Random(13);
+    long[] dateTimes = new long[4003];
+    for (int i = 0; i < dateTimes.length; i++) {
+      // half around the holiday, half spread well beyond the precomputed tables and before 1970
+      long day = i % 2 == 0 ? THURSDAY - 50 + random.nextInt(100) : random.nextInt(200000) - 100000;
+      dateTimes[i] = LocalEpochNanos.of(day, random.nextInt(24 * 60) * Constants.NANOS_PER_MINUTE);
+    }
+
+    // odd offsets and lengths leave a partial vector at either end
+    for (int offset : new int[] {0, 1, 3}) {
+      int length = dateTimes.length - 2 * offset;
+      long[] expected = dateTimes.clone();
+      long[] actual = dateTimes.clone();
+      scalar.toOrdinals(days, dateTimes, offset, length, NINE, FIVE, expected);
+      vector.toOrdinals(days, dateTimes, offset, length, NINE, FIVE, actual);
+      assertArrayEquals("Ordinals from offset " + offset, expected, actual);
+    }
+  }
+
+  @Test
+  public void fromOrdinals_BoundariesAndFarOrdinals_SameAsScalar() {
+    Random random = new Random(17);
+    long day = FIVE - NINE;
+    long[] ordinals = new long[4003];
+    for (int i = 0; i < ordinals.length; i++) {
+      // every fourth ordinal on a day boundary, some beyond the precomputed tables
+      long index = i % 3 == 0 ? random.nextInt(140000) - 70000 : random.nextInt(200) - 100;
+      long nanos = i % 4 == 0 ? 0 : random.nextInt(8 * 60) * Constants.NANOS_PER_MINUTE;
+      ordinals[i] = index * day + nanos;
+    }
+
+    for (boolean preferEnd : new boolean[] {false, true}) {
+      for (int offset : new int[] {0, 1, 3}) {
+        int length = ordinals.length - 2 * offset;
+        long[] expected = ordinals.clone();
+        long[] actual = ordinals.clone();
+        scalar.fromOrdinals(days, ordinals, offset, length, NINE, FIVE, preferEnd, expected);
+        vector.fromOrdinals(days, ordinals, offset, length, NINE, FIVE, preferEnd, actual);
+        assertArrayEquals("Date times from offset " + offset + " preferring end " + preferEnd,
+                          expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void toOrdinals_InPlace_SameAsScalar() {
+    long[] expected = new long[37];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = LocalEpochNanos.of(THURSDAY + i / 3, i % 24 * Constants.NANOS_PER_HOUR);
+    }
+    long[] actual = expected.clone();
+
+    scalar.toOrdinals(days, expected, 0, expected.length, NINE, FIVE, expected);
+    vector.toOrdinals(days, actual, 0, actual.length, NINE, FIVE, actual);
+
+    assertArrayEquals("Ordinals written over their date times", expected, actual);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void toOrdinals_DayNotCovered_ThrowsException() {
+    BusinessDayCalculator covered = days.withCoverage(THURSDAY - 10, THURSDAY + 10);
+    long[] dateTimes = {LocalEpochNanos.of(THURSDAY, NINE),
+                        LocalEpochNanos.of(THURSDAY + 11, NINE)};
+
+    vector.toOrdinals(covered, dateTimes, 0, dateTimes.length, NINE, FIVE, new long[2]);
+  }
+}